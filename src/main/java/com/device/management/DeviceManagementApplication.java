@@ -1,9 +1,12 @@
 package com.device.management;
 
+import com.device.management.config.DeviceManagementRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(DeviceManagementRuntimeHints.class)
 public class DeviceManagementApplication {
     static void main(String[] args) {
         SpringApplication.run(DeviceManagementApplication.class, args);
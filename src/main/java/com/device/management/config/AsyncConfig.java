@@ -0,0 +1,59 @@
+package com.device.management.config;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.async.AsyncDeviceQueries;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(AsyncProperties.class)
+public class AsyncConfig implements WebMvcConfigurer {
+
+    private final AsyncProperties properties;
+
+    public AsyncConfig(AsyncProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor deviceQueryExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("device-query-");
+        executor.setCorePoolSize(properties.corePoolSize());
+        executor.setMaxPoolSize(properties.maxPoolSize());
+        executor.setQueueCapacity(properties.queueCapacity());
+        // Carries the current observation (trace context) from the request thread to the query thread
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        // Requests still completing during graceful shutdown submit queries; GracefulShutdown stops the executor after them
+        executor.setAcceptTasksAfterContextClose(true);
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "device.query", List.of())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+
+    @Bean
+    public AsyncDeviceQueries asyncDeviceQueries(DeviceUseCase deviceUseCase,
+                                                 @Qualifier("deviceQueryExecutor") ThreadPoolTaskExecutor executor) {
+        return new AsyncDeviceQueries(deviceUseCase, executor, Duration.ofSeconds(properties.timeoutSeconds()));
+    }
+
+    /**
+     * The container-level async timeout only acts as a backstop behind the per-call timeout.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(Duration.ofSeconds(properties.timeoutSeconds() + 5L).toMillis());
+    }
+}
@@ -0,0 +1,12 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "devices.async")
+public record AsyncProperties(
+        @DefaultValue("8") int corePoolSize,
+        @DefaultValue("32") int maxPoolSize,
+        @DefaultValue("200") int queueCapacity,
+        @DefaultValue("10") int timeoutSeconds
+) {}
@@ -0,0 +1,17 @@
+package com.device.management.config;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.batch.BatchDeviceUpdater;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchConfig {
+
+    @Bean
+    public BatchDeviceUpdater batchDeviceUpdater(DeviceUseCase deviceUseCase, BatchProperties properties) {
+        return new BatchDeviceUpdater(deviceUseCase, properties.chunkSize(), properties.maxItems());
+    }
+}
@@ -0,0 +1,10 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "devices.batch")
+public record BatchProperties(
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("5000") int maxItems
+) {}
@@ -0,0 +1,9 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "devices.coalescing")
+public record CoalescingProperties(
+        @DefaultValue("true") boolean enabled
+) {}
@@ -0,0 +1,21 @@
+package com.device.management.config;
+
+import com.device.management.controller.filter.DeferredFlushFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lets {@code server.compression.min-response-size} take effect for the device API: see {@link DeferredFlushFilter}.
+ */
+@Configuration
+public class CompressionConfig {
+
+    @Bean
+    public FilterRegistrationBean<DeferredFlushFilter> deferredFlushFilter() {
+        FilterRegistrationBean<DeferredFlushFilter> registration = new FilterRegistrationBean<>(new DeferredFlushFilter());
+        registration.addUrlPatterns("/devices", "/devices/*");
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
@@ -0,0 +1,23 @@
+package com.device.management.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * Reachability metadata for a native image that AOT processing cannot derive from the bean definitions.
+ * Beans (including the MapStruct mappers), entities and their converters, repositories and controller
+ * payloads are registered by Spring AOT; Hibernate, Flyway and springdoc internals come from the GraalVM
+ * reachability metadata repository.
+ */
+public class DeviceManagementRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Spring Boot only registers the default Flyway location
+        hints.resources().registerPattern("db/partitioning/*");
+        // GET /devices serializes the page implementation returned by the list endpoint
+        hints.reflection().registerType(PageImpl.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
@@ -0,0 +1,82 @@
+package com.device.management.config;
+
+import com.device.management.service.DeviceHistoryUseCase;
+import com.device.management.service.DeviceManagementService;
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.coalescing.CoalescingDeviceUseCase;
+import com.device.management.service.groupcommit.GroupCommitDeviceUseCase;
+import com.device.management.service.history.DeviceHistoryService;
+import com.device.management.service.lifecycle.GracefulShutdown;
+import com.device.management.service.slowlog.SlowOperationDeviceHistoryUseCase;
+import com.device.management.service.slowlog.SlowOperationDeviceUseCase;
+import com.device.management.service.slowlog.SlowOperationLog;
+import com.device.management.service.tracing.TracingDeviceHistoryUseCase;
+import com.device.management.service.tracing.TracingDeviceUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Assembles the {@link DeviceUseCase} and {@link DeviceHistoryUseCase} seen by the controllers: the transactional
+ * services wrapped by the optional decorators, innermost first.
+ */
+@Configuration
+@EnableConfigurationProperties({CoalescingProperties.class, GroupCommitProperties.class, SlowLogProperties.class})
+public class DeviceUseCaseConfig {
+
+    @Bean
+    @Primary
+    public DeviceUseCase deviceUseCase(DeviceManagementService service,
+                                       CoalescingProperties coalescingProperties,
+                                       GroupCommitProperties groupCommitProperties,
+                                       SlowLogProperties slowLogProperties,
+                                       ObjectProvider<SlowOperationLog> slowOperationLog,
+                                       MeterRegistry meterRegistry,
+                                       ObservationRegistry observationRegistry,
+                                       GracefulShutdown gracefulShutdown) {
+        DeviceUseCase useCase = service;
+        if (groupCommitProperties.enabled()) {
+            GroupCommitDeviceUseCase groupCommit = new GroupCommitDeviceUseCase(useCase,
+                    groupCommitProperties.maxBatchSize(), groupCommitProperties.window(),
+                    groupCommitProperties.queueCapacity(), groupCommitProperties.committers(), meterRegistry);
+            gracefulShutdown.flushOnShutdown(GracefulShutdown.Stage.WRITES, "group-commit", remaining -> groupCommit.close(remaining));
+            useCase = groupCommit;
+        }
+        if (coalescingProperties.enabled()) {
+            useCase = new CoalescingDeviceUseCase(useCase, meterRegistry);
+        }
+        SlowOperationLog log = slowOperationLog.getIfAvailable();
+        if (log != null) {
+            // Inside the span, so that entries carry the trace id of the request
+            useCase = new SlowOperationDeviceUseCase(useCase, log, slowLogProperties.operationThreshold());
+        }
+        // Around the other decorators, so that the span includes time spent waiting on a coalesced read or a group commit
+        useCase = new TracingDeviceUseCase(useCase, observationRegistry);
+        // Outermost: shutdown waits for every call in progress, whichever decorator it is in
+        return gracefulShutdown.track(useCase);
+    }
+
+    /**
+     * History reads go through the same slow log, tracing and shutdown tracking as the device calls; coalescing
+     * and group commit only apply to the latter.
+     */
+    @Bean
+    @Primary
+    public DeviceHistoryUseCase deviceHistoryUseCase(DeviceHistoryService service,
+                                                     SlowLogProperties slowLogProperties,
+                                                     ObjectProvider<SlowOperationLog> slowOperationLog,
+                                                     ObservationRegistry observationRegistry,
+                                                     GracefulShutdown gracefulShutdown) {
+        DeviceHistoryUseCase useCase = service;
+        SlowOperationLog log = slowOperationLog.getIfAvailable();
+        if (log != null) {
+            useCase = new SlowOperationDeviceHistoryUseCase(useCase, log, slowLogProperties.operationThreshold());
+        }
+        useCase = new TracingDeviceHistoryUseCase(useCase, observationRegistry);
+        return gracefulShutdown.track(useCase);
+    }
+}
@@ -0,0 +1,25 @@
+package com.device.management.config;
+
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class FlywayConfig {
+
+    /**
+     * Migrates on startup, except in a class-data sharing training run ({@code spring.context.exit=onRefresh}),
+     * which refreshes the context without a database. A property cannot switch Flyway off there because AOT
+     * processing fixes the Flyway beans at build time.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        boolean trainingRun = environment.containsProperty("spring.context.exit");
+        return flyway -> {
+            if (!trainingRun) {
+                flyway.migrate();
+            }
+        };
+    }
+}
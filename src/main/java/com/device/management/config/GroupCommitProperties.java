@@ -0,0 +1,15 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.group-commit")
+public record GroupCommitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("64") int maxBatchSize,
+        @DefaultValue("2ms") Duration window,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("2") int committers
+) {}
@@ -0,0 +1,69 @@
+package com.device.management.config;
+
+import com.device.management.controller.filter.DrainModeFilter;
+import com.device.management.service.health.DrainEndpoint;
+import com.device.management.service.health.DrainMode;
+import com.device.management.service.health.SaturationHealthIndicator;
+import com.device.management.service.health.SaturationMonitor;
+import com.device.management.service.health.SaturationSignals;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Saturation signals behind the readiness probe and the {@code devices.saturation} gauge, and the drain mode.
+ */
+@Configuration
+@EnableConfigurationProperties(HealthProperties.class)
+public class HealthConfig {
+
+    /**
+     * Use case operations that are slow by design, as they handle many devices: their latency is not saturation.
+     */
+    private static final Set<String> BULK_OPERATIONS = Set.of("createAll", "updateBatch");
+
+    @Bean
+    public SaturationMonitor saturationMonitor(HealthProperties properties, MeterRegistry meterRegistry,
+                                               @Qualifier("deviceQueryExecutor") ThreadPoolTaskExecutor queryExecutor) {
+        Map<String, DoubleSupplier> signals = new LinkedHashMap<>();
+        signals.put("connection-pool", SaturationSignals.connectionPool(meterRegistry, properties.poolWaitThreshold()));
+        signals.put("query-queue", SaturationSignals.queue(queryExecutor));
+        signals.put("latency", SaturationSignals.latency(meterRegistry, "devices.use-case", properties.latencyObjective(),
+                id -> !BULK_OPERATIONS.contains(id.getTag("devices.operation"))));
+        signals.put("gc", SaturationSignals.gcOverhead(properties.gcOverheadThreshold()));
+        return new SaturationMonitor(signals, meterRegistry);
+    }
+
+    @Bean
+    public SaturationHealthIndicator saturationHealthIndicator(SaturationMonitor saturationMonitor,
+                                                               HealthProperties properties) {
+        return new SaturationHealthIndicator(saturationMonitor, properties.saturationLimit(),
+                properties.saturationRecovery());
+    }
+
+    @Bean
+    public DrainMode drainMode(ApplicationEventPublisher publisher) {
+        return new DrainMode(publisher);
+    }
+
+    @Bean
+    public DrainModeFilter drainModeFilter(DrainMode drainMode, HealthProperties properties,
+                                           @Value("${management.endpoints.web.base-path:/actuator}") String actuatorBasePath) {
+        return new DrainModeFilter(drainMode, actuatorBasePath, properties.drainRetryAfter());
+    }
+
+    @Bean
+    public DrainEndpoint drainEndpoint(DrainMode drainMode, SaturationMonitor saturationMonitor) {
+        return new DrainEndpoint(drainMode, saturationMonitor);
+    }
+}
@@ -0,0 +1,16 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.health")
+public record HealthProperties(
+        @DefaultValue("100ms") Duration poolWaitThreshold,
+        @DefaultValue("1s") Duration latencyObjective,
+        @DefaultValue("0.25") double gcOverheadThreshold,
+        @DefaultValue("1.0") double saturationLimit,
+        @DefaultValue("0.8") double saturationRecovery,
+        @DefaultValue("5s") Duration drainRetryAfter
+) {}
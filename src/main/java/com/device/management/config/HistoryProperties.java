@@ -0,0 +1,12 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.history")
+public record HistoryProperties(
+        @DefaultValue("P730D") Duration retention,
+        @DefaultValue("true") boolean partitionMaintenance
+) {}
@@ -0,0 +1,58 @@
+package com.device.management.config;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.idempotency.IdempotentDeviceCreator;
+import com.device.management.service.idempotency.InMemoryIdempotencyStore;
+import com.device.management.service.idempotency.JdbcIdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties({IdempotencyProperties.class, TenancyProperties.class})
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.idempotency", name = "table-enabled", havingValue = "true")
+    public JdbcIdempotencyStore jdbcIdempotencyStore(DataSource dataSource,
+                                                     @Value("${devices.db-timeout.write-seconds:5}") int writeSeconds) {
+        // Its own template: the lookup before a create and the purge run outside any transaction, and get the
+        // write budget as query timeout; inside the create transaction its remaining time applies instead
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout(writeSeconds);
+        return new JdbcIdempotencyStore(jdbcTemplate, Clock.systemUTC());
+    }
+
+    @Bean
+    public IdempotentDeviceCreator idempotentDeviceCreator(DeviceUseCase deviceUseCase,
+                                                           ObjectProvider<JdbcIdempotencyStore> table,
+                                                           PlatformTransactionManager transactionManager,
+                                                           IdempotencyProperties properties,
+                                                           TenancyProperties tenancy,
+                                                           MeterRegistry meterRegistry,
+                                                           @Value("${devices.db-timeout.write-seconds:5}") int writeSeconds) {
+        Clock clock = Clock.systemUTC();
+        // The create joins this transaction, so its own write budget would not apply
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setTimeout(writeSeconds);
+        return new IdempotentDeviceCreator(
+                deviceUseCase,
+                new InMemoryIdempotencyStore(properties.maxEntries(), clock),
+                table.getIfAvailable(),
+                transaction,
+                properties.ttl(),
+                clock,
+                tenancy.defaultTenant(),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,14 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("false") boolean tableEnabled,
+        @DefaultValue("1h") Duration purgeInterval
+) {}
@@ -4,7 +4,12 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
+/**
+ * API documentation metadata, built on the first request for the docs rather than at startup.
+ */
+@Lazy
 @Configuration
 public class OpenApiConfig {
 
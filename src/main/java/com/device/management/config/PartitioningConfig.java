@@ -0,0 +1,32 @@
+package com.device.management.config;
+
+import com.device.management.service.partition.PartitionMaintenance;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Keeps the monthly partitions of the state history table, and of the devices table when the
+ * partitioned layout (the {@code partitioned} profile) is in use, in place.
+ */
+@Configuration
+@EnableConfigurationProperties({PartitioningProperties.class, HistoryProperties.class})
+public class PartitioningConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.partitioning", name = "enabled", havingValue = "true")
+    public PartitionMaintenance devicePartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                                           PartitioningProperties properties) {
+        return new PartitionMaintenance(jdbcTemplate, "devices", properties.monthsAhead(), null);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.history", name = "partition-maintenance", havingValue = "true", matchIfMissing = true)
+    public PartitionMaintenance historyPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                                            PartitioningProperties partitioning,
+                                                            HistoryProperties history) {
+        return new PartitionMaintenance(jdbcTemplate, "device_state_changes", partitioning.monthsAhead(), history.retention());
+    }
+}
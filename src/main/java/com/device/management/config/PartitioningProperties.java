@@ -0,0 +1,11 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "devices.partitioning")
+public record PartitioningProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("3") int monthsAhead,
+        @DefaultValue("0 0 3 * * *") String maintenanceCron
+) {}
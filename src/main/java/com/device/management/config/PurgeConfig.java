@@ -0,0 +1,25 @@
+package com.device.management.config;
+
+import com.device.management.service.purge.DevicePurgeJob;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableConfigurationProperties(PurgeProperties.class)
+@ConditionalOnProperty(prefix = "devices.purge", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PurgeConfig {
+
+    @Bean
+    public DevicePurgeJob devicePurgeJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                         PurgeProperties properties, TenancyProperties tenancyProperties,
+                                         MeterRegistry meterRegistry) {
+        return new DevicePurgeJob(jdbcTemplate, new TransactionTemplate(transactionManager), properties,
+                tenancyProperties.rowLevelSecurity(), meterRegistry);
+    }
+}
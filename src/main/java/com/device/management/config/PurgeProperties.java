@@ -0,0 +1,16 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.purge")
+public record PurgeProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("P7D") Duration retention,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("200ms") Duration batchPause,
+        @DefaultValue("100") int maxBatchesPerRun,
+        @DefaultValue("5m") Duration interval
+) {}
@@ -0,0 +1,13 @@
+package com.device.management.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs: the device purge, the partition maintenance and the purge of expired
+ * idempotency keys, each present only when its feature is enabled.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,47 @@
+package com.device.management.config;
+
+import com.device.management.service.health.DrainMode;
+import com.device.management.service.lifecycle.GracefulShutdown;
+import com.device.management.service.lifecycle.GracefulShutdown.Stage;
+import com.device.management.service.slowlog.SlowOperationLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.push.PushMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background work flushed by the {@link GracefulShutdown}; the group commit queue is registered where the
+ * decorator is assembled ({@link DeviceUseCaseConfig}).
+ */
+@Configuration
+@EnableConfigurationProperties(ShutdownProperties.class)
+public class ShutdownConfig {
+
+    @Bean
+    public GracefulShutdown gracefulShutdown(ApplicationContext applicationContext, DrainMode drainMode,
+                                             ShutdownProperties properties, MeterRegistry meterRegistry,
+                                             @Qualifier("deviceQueryExecutor") ThreadPoolTaskExecutor queryExecutor,
+                                             ObjectProvider<SlowOperationLog> slowOperationLog,
+                                             ObjectProvider<PushMeterRegistry> pushMeterRegistries) {
+        GracefulShutdown shutdown = new GracefulShutdown(applicationContext, drainMode, properties.timeout(),
+                properties.preStopDelay(), meterRegistry);
+        shutdown.flushOnShutdown(Stage.EXECUTORS, "query-executor", remaining -> {
+            ThreadPoolExecutor executor = queryExecutor.getThreadPoolExecutor();
+            executor.shutdown();
+            executor.awaitTermination(remaining.toNanos(), TimeUnit.NANOSECONDS);
+        });
+        slowOperationLog.ifAvailable(log -> shutdown.flushOnShutdown(Stage.LOGS, "slow-log", remaining -> log.close()));
+        // Push registries (OTLP) publish what they have accumulated when closed
+        pushMeterRegistries.orderedStream().forEach(registry ->
+                shutdown.flushOnShutdown(Stage.METRICS, "metrics", remaining -> registry.close()));
+        return shutdown;
+    }
+}
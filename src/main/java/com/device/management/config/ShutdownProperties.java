@@ -0,0 +1,12 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.shutdown")
+public record ShutdownProperties(
+        @DefaultValue("30s") Duration timeout,
+        @DefaultValue("0s") Duration preStopDelay
+) {}
@@ -0,0 +1,39 @@
+package com.device.management.config;
+
+import com.device.management.service.slowlog.SlowOperationLog;
+import com.device.management.service.slowlog.SlowStatementListener;
+import com.device.management.service.slowlog.StatementExplainer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(SlowLogProperties.class)
+@ConditionalOnProperty(prefix = "devices.slow-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowLogConfig {
+
+    @Bean
+    public SlowOperationLog slowOperationLog(SlowLogProperties properties, ObjectProvider<DataSource> dataSource,
+                                             MeterRegistry meterRegistry) {
+        // The data source is resolved on first EXPLAIN: it is itself being proxied with the statement listener below
+        StatementExplainer explainer = properties.explain()
+                ? new StatementExplainer(dataSource::getObject, properties.explainInterval())
+                : null;
+        return new SlowOperationLog(properties.queueCapacity(), properties.includeParameters(), explainer, meterRegistry);
+    }
+
+    /**
+     * Picked up by the datasource-proxy wrapping the data source for JDBC observations. Needed while the data
+     * source is created, so the log (and its meters) is looked up only once a statement is slow.
+     */
+    @Bean
+    public SlowStatementListener slowStatementListener(ObjectProvider<SlowOperationLog> slowOperationLog,
+                                                       SlowLogProperties properties) {
+        return new SlowStatementListener(slowOperationLog::getObject, properties.statementThreshold());
+    }
+}
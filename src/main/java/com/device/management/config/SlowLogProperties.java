@@ -0,0 +1,17 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.slow-log")
+public record SlowLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500ms") Duration operationThreshold,
+        @DefaultValue("200ms") Duration statementThreshold,
+        @DefaultValue("false") boolean includeParameters,
+        @DefaultValue("false") boolean explain,
+        @DefaultValue("10m") Duration explainInterval,
+        @DefaultValue("1000") int queueCapacity
+) {}
@@ -0,0 +1,88 @@
+package com.device.management.config;
+
+import com.device.management.controller.filter.TenantFilter;
+import com.device.management.service.tenancy.TenantContext;
+import com.device.management.service.tenancy.TenantIdentifierResolver;
+import com.device.management.service.tenancy.TenantRateLimiter;
+import com.device.management.service.tenancy.TenantTransactionListener;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.MultiTenancySettings;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tenant of each API request: Hibernate's discriminator multi-tenancy on {@code Device}, the request filter with
+ * its per-tenant rate limit and, optionally, the tenant setting for PostgreSQL row-level security.
+ */
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+public class TenancyConfig {
+
+    /**
+     * The async query executor's {@code ContextPropagatingTaskDecorator} carries the tenant along with the trace
+     * context, and the MDC field with it, as {@link TenantFilter} sets both on the request thread.
+     */
+    @Bean
+    public SmartInitializingSingleton tenantContextPropagation() {
+        return () -> registerTenantAccessor(ContextRegistry.getInstance());
+    }
+
+    // The registry is JVM-wide: every context started after the first finds the accessor already there
+    static void registerTenantAccessor(ContextRegistry registry) {
+        if (registry.getThreadLocalAccessors().stream().anyMatch(accessor -> TenantContext.KEY.equals(accessor.key()))) {
+            return;
+        }
+        registry.registerThreadLocalAccessor(TenantContext.KEY,
+                TenantContext::current,
+                tenant -> {
+                    TenantContext.set(tenant);
+                    MDC.put(TenantContext.KEY, tenant);
+                },
+                () -> {
+                    TenantContext.clear();
+                    MDC.remove(TenantContext.KEY);
+                });
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantIdentifierResolverCustomizer(TenancyProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(MultiTenancySettings.MULTI_TENANT_IDENTIFIER_RESOLVER,
+                new TenantIdentifierResolver(properties.defaultTenant()));
+    }
+
+    @Bean
+    public FilterRegistrationBean<TenantFilter> tenantFilter(TenancyProperties properties, MeterRegistry meterRegistry) {
+        TenantRateLimiter rateLimiter = properties.rateLimit() > 0
+                ? new TenantRateLimiter(properties.rateLimit(), properties.rateLimitBurst(),
+                        properties.rateLimitMaxTenants())
+                : null;
+        String defaultTenant = properties.headerRequired() ? null : properties.defaultTenant();
+        Set<String> allowed = new HashSet<>(properties.allowed());
+        if (!allowed.isEmpty() && defaultTenant != null) {
+            allowed.add(defaultTenant);
+        }
+        TenantFilter filter = new TenantFilter(properties.header(), defaultTenant, Set.copyOf(allowed), rateLimiter,
+                meterRegistry);
+        // The device API only; actuator and API docs requests have no tenant
+        FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/devices", "/devices/*");
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.tenancy", name = "row-level-security", havingValue = "true")
+    public TenantTransactionListener tenantTransactionListener(JdbcTemplate jdbcTemplate, TenancyProperties properties) {
+        return new TenantTransactionListener(jdbcTemplate, properties.defaultTenant());
+    }
+}
@@ -0,0 +1,29 @@
+package com.device.management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * @param defaultTenant      tenant of requests without the header (unless it is required), of background work,
+ *                           and of the devices created before tenancy was introduced ({@code default})
+ * @param allowed            tenants accepted in the header; empty to accept any well-formed id
+ * @param rateLimit          requests per second allowed to each tenant; 0 for no limit
+ * @param rateLimitBurst     requests a tenant may send at once after being idle; 0 for one second's worth
+ * @param rateLimitMaxTenants tenants whose rate limit state is kept; past it idle and least recently seen tenants
+ *                           start over with a full burst
+ * @param rowLevelSecurity   whether PostgreSQL row-level security is enabled on {@code devices} (applied by the
+ *                           repeatable migration) and each transaction declares its tenant
+ */
+@ConfigurationProperties(prefix = "devices.tenancy")
+public record TenancyProperties(
+        @DefaultValue("X-Tenant-Id") String header,
+        @DefaultValue("default") String defaultTenant,
+        @DefaultValue("false") boolean headerRequired,
+        @DefaultValue List<String> allowed,
+        @DefaultValue("0") double rateLimit,
+        @DefaultValue("0") int rateLimitBurst,
+        @DefaultValue("10000") int rateLimitMaxTenants,
+        @DefaultValue("false") boolean rowLevelSecurity
+) {}
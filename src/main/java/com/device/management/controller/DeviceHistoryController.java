@@ -0,0 +1,77 @@
+package com.device.management.controller;
+
+import com.device.management.controller.response.HistoryResponse;
+import com.device.management.controller.response.UtilizationResponse;
+import com.device.management.mapper.ApiMapper;
+import com.device.management.service.DeviceHistoryUseCase;
+import io.micrometer.observation.annotation.Observed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+@RestController
+@Observed(name = "devices.controller")
+@RequestMapping("/devices")
+public class DeviceHistoryController {
+
+    private final DeviceHistoryUseCase useCase;
+    private final ApiMapper apiMapper;
+
+    public DeviceHistoryController(DeviceHistoryUseCase useCase, ApiMapper apiMapper) {
+        this.useCase = useCase;
+        this.apiMapper = apiMapper;
+    }
+
+    @GetMapping("/{id}/history")
+    @Operation(
+            summary = "Get device state history",
+            description = """
+            Returns the state changes of a device, newest first.
+            Pass the returned nextCursor as cursor to get the following page; it is absent on the last page.
+            """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of state changes"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "404", description = "Device not found")
+    })
+    public HistoryResponse history(
+            @PathVariable UUID id,
+            @Parameter(description = "Position returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        return apiMapper.toResponse(useCase.history(id, cursor, size));
+    }
+
+    @GetMapping("/{id}/utilization")
+    @Operation(
+            summary = "Get device time in state",
+            description = """
+            Returns the seconds a device spent in each state within [from, to).
+            Defaults to the last 30 days. Time before the first recorded state is not attributed.
+            """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Seconds per state"),
+            @ApiResponse(responseCode = "400", description = "Invalid window"),
+            @ApiResponse(responseCode = "404", description = "Device not found")
+    })
+    public UtilizationResponse utilization(
+            @PathVariable UUID id,
+            @Parameter(description = "Window start (ISO-8601)", example = "2026-01-01T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @Parameter(description = "Window end (ISO-8601), defaults to now", example = "2026-02-01T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        OffsetDateTime end = to != null ? to : OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime start = from != null ? from : end.minusDays(30);
+        return apiMapper.toResponse(useCase.utilization(id, start, end));
+    }
+}
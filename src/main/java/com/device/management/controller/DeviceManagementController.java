@@ -1,12 +1,18 @@
 package com.device.management.controller;
 
+import com.device.management.controller.request.BatchUpdateRequest;
 import com.device.management.controller.request.DeviceRequest;
 import com.device.management.controller.request.DeviceUpdateRequest;
+import com.device.management.controller.response.BatchItemResponse;
 import com.device.management.controller.response.DeviceResponse;
 import com.device.management.mapper.ApiMapper;
 import com.device.management.service.DeviceUseCase;
+import com.device.management.service.async.AsyncDeviceQueries;
+import com.device.management.service.batch.BatchDeviceUpdater;
+import com.device.management.service.idempotency.IdempotentDeviceCreator;
 import com.device.management.service.dto.*;
 import com.device.management.state.DeviceState;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -22,35 +28,58 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@Observed(name = "devices.controller")
 @RequestMapping("/devices")
 public class DeviceManagementController {
     private static final Set<String> ALLOWED_SORTS = Set.of("name", "brand", "state", "creationTime");
 
     private final DeviceUseCase useCase;
+    private final AsyncDeviceQueries queries;
+    private final IdempotentDeviceCreator idempotentCreator;
+    private final BatchDeviceUpdater batchUpdater;
     private final ApiMapper apiMapper;
 
-    public DeviceManagementController(DeviceUseCase useCase, ApiMapper apiMapper) {
+    public DeviceManagementController(DeviceUseCase useCase, AsyncDeviceQueries queries,
+                                      IdempotentDeviceCreator idempotentCreator, BatchDeviceUpdater batchUpdater,
+                                      ApiMapper apiMapper) {
         this.useCase = useCase;
+        this.queries = queries;
+        this.idempotentCreator = idempotentCreator;
+        this.batchUpdater = batchUpdater;
         this.apiMapper = apiMapper;
     }
 
     @PostMapping
     @Operation(
             summary = "Create a device",
-            description = "Creates a new device with name, brand and state"
+            description = """
+            Creates a new device with name, brand and state.
+            With an Idempotency-Key header, a retry with the same key and body returns the original
+            device instead of creating another one.
+            """
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "201", description = "Device created"),
-            @ApiResponse(responseCode = "400", description = "Validation error")
+            @ApiResponse(responseCode = "201", description = "Device created, or the original device on replay"),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request")
     })
     @ResponseStatus(HttpStatus.CREATED)
-    public DeviceResponse create(@Valid @RequestBody DeviceRequest request) {
+    public DeviceResponse create(
+            @Parameter(description = "Client-chosen key (up to 255 characters) identifying this create across retries")
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody DeviceRequest request) {
         var deviceCreateCommand = apiMapper.toCreateCommand(request);
-        var deviceView = useCase.create(deviceCreateCommand);
+        var deviceView = idempotencyKey != null
+                ? idempotentCreator.create(idempotencyKey, deviceCreateCommand)
+                : useCase.create(deviceCreateCommand);
         return apiMapper.toResponse(deviceView);
     }
 
@@ -97,6 +126,26 @@ public class DeviceManagementController {
         return apiMapper.toResponse(deviceView);
     }
 
+    @PatchMapping
+    @Operation(
+            summary = "Partially update many devices",
+            description = """
+            Applies partial updates keyed by device id, with the same rules as PATCH /devices/{id}.
+            Updates are committed in chunks; each item reports its own status (200, 404 or 409),
+            so one rejected item does not fail the others. If a chunk fails after earlier ones were committed,
+            its items and those after it report 500 and were not applied.
+            """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-item results, in request order"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch, or a device id given twice")
+    })
+    public List<BatchItemResponse> updateBatch(@RequestBody BatchUpdateRequest requests) {
+        Map<UUID, DeviceUpdateCommand> commands = new LinkedHashMap<>();
+        requests.forEach((id, request) -> commands.put(id, apiMapper.toUpdateCommand(request)));
+        return batchUpdater.update(commands).stream().map(apiMapper::toResponse).toList();
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Get device by ID",
@@ -104,11 +153,11 @@ public class DeviceManagementController {
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Device found"),
-            @ApiResponse(responseCode = "404", description = "Device not found")
+            @ApiResponse(responseCode = "404", description = "Device not found"),
+            @ApiResponse(responseCode = "503", description = "Request timed out or executor saturated")
     })
-    public DeviceResponse get(@PathVariable UUID id) {
-        var deviceView = useCase.get(id);
-        return apiMapper.toResponse(deviceView);
+    public CompletableFuture<DeviceResponse> get(@PathVariable UUID id) {
+        return queries.get(id).thenApply(apiMapper::toResponse);
     }
 
     @GetMapping
@@ -121,7 +170,12 @@ public class DeviceManagementController {
             - state (AVAILABLE, IN_USE, INACTIVE)
             """
     )
-    public Page<DeviceResponse> list(
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of devices"),
+            @ApiResponse(responseCode = "400", description = "Unsupported sort property"),
+            @ApiResponse(responseCode = "503", description = "Request timed out or executor saturated")
+    })
+    public CompletableFuture<Page<DeviceResponse>> list(
             @Parameter(
                     description = "Filter devices by brand (case-insensitive)",
                     example = "Samsung",
@@ -147,9 +201,10 @@ public class DeviceManagementController {
         validateSort(pageable);
         DeviceFilter filter = new DeviceFilter(brand, state);
         PageRequest pageRequest = toPageRequest(pageable);
-        PageResult<DeviceView> result = useCase.list(filter, pageRequest);
-        var items = result.items().stream().map(apiMapper::toResponse).toList();
-        return new PageImpl<>(items, pageable, result.totalItems());
+        return queries.list(filter, pageRequest).thenApply(result -> {
+            var items = result.items().stream().map(apiMapper::toResponse).toList();
+            return new PageImpl<>(items, pageable, result.totalItems());
+        });
     }
 
     @DeleteMapping("/{id}")
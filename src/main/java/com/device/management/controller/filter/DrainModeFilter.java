@@ -0,0 +1,46 @@
+package com.device.management.controller.filter;
+
+import com.device.management.service.health.DrainMode;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * While draining, answers new API requests with 503, a {@code Retry-After} and {@code Connection: close}, so that
+ * clients retry on another instance over a new connection. Actuator requests pass, so that probes and the drain
+ * endpoint keep working.
+ */
+public class DrainModeFilter extends OncePerRequestFilter {
+
+    private final DrainMode drainMode;
+    private final String actuatorBasePath;
+    private final String retryAfterSeconds;
+
+    public DrainModeFilter(DrainMode drainMode, String actuatorBasePath, Duration retryAfter) {
+        this.drainMode = drainMode;
+        this.actuatorBasePath = actuatorBasePath;
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!drainMode.isDraining() || request.getRequestURI().startsWith(request.getContextPath() + actuatorBasePath)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Instance is draining");
+    }
+}
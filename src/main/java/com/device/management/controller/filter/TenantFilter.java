@@ -0,0 +1,96 @@
+package com.device.management.controller.filter;
+
+import com.device.management.service.tenancy.TenantContext;
+import com.device.management.service.tenancy.TenantRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds each API request to its tenant, taken from the tenant header or else the default tenant, for the
+ * {@link TenantContext} and the {@code tenant} MDC field. A malformed or unknown tenant, or a missing header
+ * where it is required, gets 400; a tenant over its rate limit gets 429 with {@code Retry-After}. Throttled
+ * requests are counted per tenant for the allowed tenants and the default one, and as {@code other} for the rest,
+ * so that requests naming arbitrary tenants cannot grow the number of meters.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+
+    static final String OTHER_TENANTS = "other";
+
+    private final String header;
+    private final String defaultTenant;
+    private final Set<String> allowed;
+    private final TenantRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param defaultTenant tenant of requests without the header; {@code null} if the header is required
+     * @param allowed       accepted tenants; empty to accept any well-formed id
+     * @param rateLimiter   per-tenant limit, or {@code null} for none
+     */
+    public TenantFilter(String header, String defaultTenant, Set<String> allowed, TenantRateLimiter rateLimiter,
+                        MeterRegistry meterRegistry) {
+        this.header = header;
+        this.defaultTenant = defaultTenant;
+        this.allowed = allowed;
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(header);
+        if (tenant == null || tenant.isEmpty()) {
+            tenant = defaultTenant;
+        }
+        if (tenant == null) {
+            reject(response, HttpStatus.BAD_REQUEST, header + " header is required");
+            return;
+        }
+        if (!TenantContext.isValid(tenant) || (!allowed.isEmpty() && !allowed.contains(tenant))) {
+            reject(response, HttpStatus.BAD_REQUEST, "Unknown tenant: " + (TenantContext.isValid(tenant) ? tenant : "<invalid>"));
+            return;
+        }
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryAcquire(tenant);
+            if (waitNanos > 0) {
+                Counter.builder("devices.tenancy.throttled")
+                        .description("API requests rejected because their tenant was over its rate limit")
+                        .tag("tenant", allowed.contains(tenant) || tenant.equals(defaultTenant) ? tenant : OTHER_TENANTS)
+                        .register(meterRegistry)
+                        .increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded for tenant " + tenant);
+                return;
+            }
+        }
+        TenantContext.set(tenant);
+        MDC.put(TenantContext.KEY, tenant);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(TenantContext.KEY);
+            TenantContext.clear();
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.device.management.controller.request;
+
+import java.util.LinkedHashMap;
+import java.util.UUID;
+
+/**
+ * Body of a batch PATCH: partial updates keyed by device id, in request order. A JSON object may repeat a key,
+ * which a plain map would resolve by keeping the last update; the body is rejected instead, since the client
+ * would get one result for two updates without knowing which one was applied.
+ */
+public class BatchUpdateRequest extends LinkedHashMap<UUID, DeviceUpdateRequest> {
+
+    @Override
+    public DeviceUpdateRequest put(UUID id, DeviceUpdateRequest update) {
+        if (containsKey(id)) {
+            throw new IllegalArgumentException("Duplicate device id in batch: " + id);
+        }
+        return super.put(id, update);
+    }
+}
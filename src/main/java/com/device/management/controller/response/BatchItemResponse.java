@@ -0,0 +1,14 @@
+package com.device.management.controller.response;
+
+import java.util.UUID;
+
+/**
+ * One entry of a batch update response; {@code status} is the HTTP status the item would have had
+ * as a single request.
+ */
+public record BatchItemResponse(
+        UUID id,
+        int status,
+        DeviceResponse device,
+        String error
+) {}
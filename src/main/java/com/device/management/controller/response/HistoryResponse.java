@@ -0,0 +1,8 @@
+package com.device.management.controller.response;
+
+import java.util.List;
+
+public record HistoryResponse(
+        List<StateChangeResponse> items,
+        String nextCursor
+) {}
@@ -0,0 +1,11 @@
+package com.device.management.controller.response;
+
+import com.device.management.state.DeviceState;
+
+import java.time.OffsetDateTime;
+
+public record StateChangeResponse(
+        DeviceState fromState,
+        DeviceState toState,
+        OffsetDateTime changedAt
+) {}
@@ -0,0 +1,12 @@
+package com.device.management.controller.response;
+
+import com.device.management.state.DeviceState;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+public record UtilizationResponse(
+        OffsetDateTime from,
+        OffsetDateTime to,
+        Map<DeviceState, Long> secondsInState
+) {}
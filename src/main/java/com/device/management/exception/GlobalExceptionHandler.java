@@ -1,8 +1,15 @@
 package com.device.management.exception;
 
+import com.device.management.service.coalescing.CoalescedCallException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -10,24 +17,42 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Maps exceptions to status codes. Error bodies are plain text whichever encoding the request accepts.
+ * Anything not mapped here, such as an {@code IllegalArgumentException} raised while reading a corrupt row,
+ * is a 500.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(NoSuchElementException.class)
     public ResponseEntity<String> handleNotFound(NoSuchElementException ex) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        return plainText(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return plainText(HttpStatus.UNPROCESSABLE_CONTENT, ex.getMessage());
     }
 
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<String> handleConflict(IllegalStateException ex) {
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+        return plainText(HttpStatus.CONFLICT, ex.getMessage());
     }
 
-    @ExceptionHandler({MethodArgumentTypeMismatchException.class, HttpMessageNotReadableException.class})
+    @ExceptionHandler({MethodArgumentTypeMismatchException.class, HttpMessageNotReadableException.class,
+            InvalidRequestException.class})
     public ResponseEntity<String> handleBadRequest(Exception ex) {
         String message = ex.getMessage();
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(message != null ? message : "Bad Request");
+        return plainText(HttpStatus.BAD_REQUEST, message != null ? message : "Bad Request");
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -36,13 +61,58 @@ public class GlobalExceptionHandler {
                 .map(err -> err.getField() + ": " + err.getDefaultMessage())
                 .findFirst()
                 .orElse("Validation failed");
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(message);
+        return plainText(HttpStatus.BAD_REQUEST, message);
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<String> handleTimeout(TimeoutException ex) {
+        return plainText(HttpStatus.SERVICE_UNAVAILABLE, "Request timed out");
+    }
+
+    @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class,
+            jakarta.persistence.QueryTimeoutException.class})
+    public ResponseEntity<String> handleDatabaseTimeout(Exception ex) {
+        Counter.builder("devices.db.timeouts")
+                .description("Operations aborted because they exceeded their database time budget")
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+        return plainText(HttpStatus.GATEWAY_TIMEOUT, "Database time budget exceeded");
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleSaturated(TaskRejectedException ex) {
+        return plainText(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent requests");
     }
 
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<String> handleResponseStatus(ResponseStatusException ex) {
         HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
-        return ResponseEntity.status(status != null ? status : HttpStatus.BAD_REQUEST)
-                .body(ex.getReason() != null ? ex.getReason() : ex.getMessage());
+        return plainText(status != null ? status : HttpStatus.BAD_REQUEST,
+                ex.getReason() != null ? ex.getReason() : ex.getMessage());
+    }
+
+    /**
+     * A follower of a coalesced read that failed gets the answer its leader got. An unmapped cause is rethrown
+     * as is, which leaves it to the container as a 500 like any other.
+     */
+    @ExceptionHandler(CoalescedCallException.class)
+    public ResponseEntity<String> handleCoalesced(CoalescedCallException ex) {
+        return switch (ex.getCause()) {
+            case NoSuchElementException cause -> handleNotFound(cause);
+            case IdempotencyKeyReusedException cause -> handleIdempotencyKeyReused(cause);
+            case IllegalStateException cause -> handleConflict(cause);
+            case InvalidRequestException cause -> handleBadRequest(cause);
+            case QueryTimeoutException cause -> handleDatabaseTimeout(cause);
+            case TransactionTimedOutException cause -> handleDatabaseTimeout(cause);
+            case jakarta.persistence.QueryTimeoutException cause -> handleDatabaseTimeout(cause);
+            case TaskRejectedException cause -> handleSaturated(cause);
+            case ResponseStatusException cause -> handleResponseStatus(cause);
+            case null, default -> throw ex;
+        };
+    }
+
+    private static ResponseEntity<String> plainText(HttpStatus status, String body) {
+        return ResponseEntity.status(status).contentType(MediaType.TEXT_PLAIN).body(body);
     }
 }
@@ -0,0 +1,11 @@
+package com.device.management.exception;
+
+/**
+ * An idempotency key was sent again with a request that differs from the one it was first used for.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key " + key + " was already used for a different request");
+    }
+}
@@ -0,0 +1,17 @@
+package com.device.management.exception;
+
+/**
+ * A request the client has to change before it can succeed: a malformed cursor, an empty range or an oversized
+ * batch. The only exception mapped to 400 besides Spring's own binding errors, so that an
+ * {@code IllegalArgumentException} from a bug or from corrupt data stays a server error.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
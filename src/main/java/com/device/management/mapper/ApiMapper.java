@@ -1,11 +1,17 @@
 package com.device.management.mapper;
 
+import com.device.management.service.dto.BatchItemResult;
 import com.device.management.service.dto.DeviceCreateCommand;
 import com.device.management.service.dto.DeviceUpdateCommand;
 import com.device.management.service.dto.DeviceView;
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.dto.StateUtilization;
 import com.device.management.controller.request.DeviceRequest;
 import com.device.management.controller.request.DeviceUpdateRequest;
+import com.device.management.controller.response.BatchItemResponse;
 import com.device.management.controller.response.DeviceResponse;
+import com.device.management.controller.response.HistoryResponse;
+import com.device.management.controller.response.UtilizationResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
 
@@ -14,4 +20,17 @@ public interface ApiMapper {
     DeviceCreateCommand toCreateCommand(DeviceRequest request);
     DeviceUpdateCommand toUpdateCommand(DeviceUpdateRequest request);
     DeviceResponse toResponse(DeviceView view);
+    HistoryResponse toResponse(HistoryPage page);
+    UtilizationResponse toResponse(StateUtilization utilization);
+
+    default BatchItemResponse toResponse(BatchItemResult result) {
+        int status = switch (result.status()) {
+            case UPDATED -> 200;
+            case NOT_FOUND -> 404;
+            case CONFLICT -> 409;
+            case FAILED -> 500;
+        };
+        DeviceResponse device = result.device() != null ? toResponse(result.device()) : null;
+        return new BatchItemResponse(result.id(), status, device, result.error());
+    }
 }
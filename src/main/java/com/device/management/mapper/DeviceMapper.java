@@ -11,10 +11,16 @@ import org.mapstruct.*;
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface DeviceMapper {
 
+    // Brands are resolved through the BrandCatalog by the service; the device keeps the submitted spelling
+    @Mapping(target = "brand", ignore = true)
+    @Mapping(target = "brandName", source = "brand")
     Device toEntity(DeviceCreateCommand cmd);
 
+    @Mapping(target = "brand", source = "brandName")
     DeviceView toView(Device device);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "brand", ignore = true)
+    @Mapping(target = "brandName", source = "brand")
     void update(@MappingTarget Device target, DeviceUpdateCommand update);
 }
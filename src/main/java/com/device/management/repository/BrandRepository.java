@@ -0,0 +1,29 @@
+package com.device.management.repository;
+
+import com.device.management.repository.entity.Brand;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface BrandRepository extends JpaRepository<Brand, Integer> {
+    Optional<Brand> findByKey(String key);
+
+    /**
+     * Registers the brand unless its key exists. A concurrent registration of the same key makes this wait for the
+     * other transaction and then do nothing, rather than fail and roll back the caller's transaction. Declares the
+     * table it writes, so that it does not flush the caller's pending device changes ahead of their batch.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "brands"))
+    @Query(value = "INSERT INTO brands (name, brand_key) VALUES (:name, :key) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(String name, String key);
+}
@@ -4,17 +4,81 @@ import com.device.management.repository.entity.Device;
 import com.device.management.state.DeviceState;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface DeviceRepository extends JpaRepository<Device, UUID> {
-    // Pageable variants
+    // Every query below is restricted to the current tenant by Device's @TenantId, and is served by the
+    // tenant-leading live-row indexes (V7).
+    // Pageable variants; the brand is fetched in the same query, brand filters compare brand_id
+    @EntityGraph(attributePaths = "brand")
     Page<Device> findAll(Pageable pageable);
-    Page<Device> findByBrandIgnoreCase(String brand, Pageable pageable);
+    @EntityGraph(attributePaths = "brand")
+    Page<Device> findByBrandId(Integer brandId, Pageable pageable);
+    @EntityGraph(attributePaths = "brand")
     Page<Device> findByState(DeviceState state, Pageable pageable);
-    Page<Device> findByBrandIgnoreCaseAndState(String brand, DeviceState state, Pageable pageable);
-}
+    @EntityGraph(attributePaths = "brand")
+    Page<Device> findByBrandIdAndState(Integer brandId, DeviceState state, Pageable pageable);
+    // Batch updates load all targets with one IN query
+    @EntityGraph(attributePaths = "brand")
+    List<Device> findByIdIn(Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = "brand")
+    Optional<Device> findByIdAndCreationTimeBetween(UUID id, OffsetDateTime from, OffsetDateTime to);
+
+    @EntityGraph(attributePaths = "brand")
+    List<Device> findByIdInAndCreationTimeBetween(Collection<UUID> ids, OffsetDateTime from, OffsetDateTime to);
+
+    /**
+     * Lookup by id, bounded by the creation time the id carries. The application generates UUIDv7 ids when it
+     * persists a device, moments before Hibernate sets its creation time from the same clock, so the row lies
+     * within {@link #CREATION_TIME_SLACK} of the id's timestamp; on the partitioned table PostgreSQL then reads
+     * only the partitions of that range instead of probing every one. Ids of other versions, from devices created
+     * before the application generated UUIDv7s, are looked up unbounded.
+     */
+    default Optional<Device> findByIdPruned(UUID id) {
+        if (id.version() != 7) {
+            return findById(id);
+        }
+        Instant created = creationTimeOf(id);
+        return findByIdAndCreationTimeBetween(id, atUtc(created.minus(CREATION_TIME_SLACK)),
+                atUtc(created.plus(CREATION_TIME_SLACK)));
+    }
 
+    /**
+     * {@link #findByIdIn}, bounded by the creation times of the ids like {@link #findByIdPruned}.
+     */
+    default List<Device> findByIdInPruned(Collection<UUID> ids) {
+        if (ids.isEmpty() || ids.stream().anyMatch(id -> id.version() != 7)) {
+            return findByIdIn(ids);
+        }
+        Instant oldest = ids.stream().map(DeviceRepository::creationTimeOf).min(Instant::compareTo).orElseThrow();
+        Instant newest = ids.stream().map(DeviceRepository::creationTimeOf).max(Instant::compareTo).orElseThrow();
+        return findByIdInAndCreationTimeBetween(ids, atUtc(oldest.minus(CREATION_TIME_SLACK)),
+                atUtc(newest.plus(CREATION_TIME_SLACK)));
+    }
+
+    // Wider than any gap between id and creation time, and than any offset between the zone the column is
+    // written in and UTC
+    Duration CREATION_TIME_SLACK = Duration.ofDays(1);
+
+    // The 48-bit Unix millisecond timestamp leading a UUIDv7
+    private static Instant creationTimeOf(UUID id) {
+        return Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16);
+    }
+
+    private static OffsetDateTime atUtc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,41 @@
+package com.device.management.repository;
+
+import com.device.management.repository.entity.DeviceStateChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DeviceStateChangeRepository extends JpaRepository<DeviceStateChange, UUID> {
+    // Keyset paging, newest first, on (changed_at, id)
+    List<DeviceStateChange> findByDeviceIdOrderByChangedAtDescIdDesc(UUID deviceId, Limit limit);
+
+    @Query("""
+            select c from DeviceStateChange c
+            where c.deviceId = :deviceId
+              and (c.changedAt < :changedAt or (c.changedAt = :changedAt and c.id < :id))
+            order by c.changedAt desc, c.id desc""")
+    List<DeviceStateChange> findPageAfter(@Param("deviceId") UUID deviceId,
+                                          @Param("changedAt") OffsetDateTime changedAt,
+                                          @Param("id") UUID id,
+                                          Limit limit);
+
+    // Utilization: the state in force at the start of a window, then the changes inside it
+    Optional<DeviceStateChange> findFirstByDeviceIdAndChangedAtLessThanEqualOrderByChangedAtDescIdDesc(
+            UUID deviceId, OffsetDateTime at);
+
+    @Query("""
+            select c from DeviceStateChange c
+            where c.deviceId = :deviceId and c.changedAt > :from and c.changedAt < :to
+            order by c.changedAt, c.id""")
+    List<DeviceStateChange> findWithin(@Param("deviceId") UUID deviceId,
+                                       @Param("from") OffsetDateTime from,
+                                       @Param("to") OffsetDateTime to);
+}
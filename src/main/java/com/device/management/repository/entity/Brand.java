@@ -0,0 +1,50 @@
+package com.device.management.repository.entity;
+
+import jakarta.persistence.*;
+
+import java.util.Locale;
+
+/**
+ * Dictionary entry for a device brand. Brands are matched case-insensitively through their key;
+ * the name keeps the spelling the brand was first registered with, while each device keeps its own
+ * ({@link Device#getBrandName()}). Instances are immutable and shared across sessions by the brand catalog.
+ */
+@Entity
+@Table(name = "brands")
+public class Brand {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Integer id;
+
+    @Column(name = "name", nullable = false, updatable = false)
+    private String name;
+
+    @Column(name = "brand_key", nullable = false, updatable = false, unique = true)
+    private String key;
+
+    protected Brand() {
+    }
+
+    public Brand(String name) {
+        this.name = name;
+        this.key = keyOf(name);
+    }
+
+    public static String keyOf(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
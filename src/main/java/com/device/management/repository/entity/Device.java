@@ -4,29 +4,47 @@ import com.device.management.state.DeviceState;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SoftDelete;
+import org.hibernate.annotations.SoftDeleteType;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
+// Deleting sets the deleted_at tombstone; every query skips tombstoned rows and DevicePurgeJob removes them later.
+// Every query and load by id is also restricted to the tenant of the session (TenantIdentifierResolver).
 @Entity
 @Table(name = "devices")
+@SoftDelete(strategy = SoftDeleteType.TIMESTAMP, columnName = "deleted_at")
 public class Device {
 
+    // Time-ordered (UUIDv7) so new rows append to the right edge of the primary key index
     @Id
     @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     @Column(name = "id", nullable = false, updatable = false, columnDefinition = "uuid")
     private UUID id;
 
+    // Set by Hibernate from the session's tenant on insert, never by the application
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
     @NotBlank
     @Column(name = "name", nullable = false)
     private String name;
 
-    @NotBlank
-    @Column(name = "brand", nullable = false)
-    private String brand;
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "brand_id", nullable = false)
+    private Brand brand;
+
+    // The spelling the client submitted; null on rows written before V8
+    @Column(name = "brand_name")
+    private String brandName;
 
-    @Enumerated(EnumType.STRING)
-    @Column(name = "state", nullable = false, length = 20)
+    @Convert(converter = DeviceStateConverter.class)
+    @Column(name = "state", nullable = false)
     private DeviceState state = DeviceState.AVAILABLE;
 
     @CreationTimestamp
@@ -40,6 +58,10 @@ public class Device {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public String getName() {
         return name;
     }
@@ -48,14 +70,25 @@ public class Device {
         this.name = name;
     }
 
-    public String getBrand() {
+    public Brand getBrand() {
         return brand;
     }
 
-    public void setBrand(String brand) {
+    public void setBrand(Brand brand) {
         this.brand = brand;
     }
 
+    /**
+     * @return the brand as submitted for this device, else the dictionary's spelling
+     */
+    public String getBrandName() {
+        return brandName != null || brand == null ? brandName : brand.getName();
+    }
+
+    public void setBrandName(String brandName) {
+        this.brandName = brandName;
+    }
+
     public DeviceState getState() {
         return state;
     }
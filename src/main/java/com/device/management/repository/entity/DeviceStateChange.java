@@ -0,0 +1,70 @@
+package com.device.management.repository.entity;
+
+import com.device.management.state.DeviceState;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the append-only device state history. {@code fromState} is null for the first entry of a device.
+ */
+@Entity
+@Immutable
+@Table(name = "device_state_changes")
+public class DeviceStateChange {
+
+    // Generated in the application rather than by an identity column, so that inserts can be JDBC-batched
+    @Id
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    @Column(name = "id", nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "device_id", nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID deviceId;
+
+    @Convert(converter = DeviceStateConverter.class)
+    @Column(name = "from_state", updatable = false)
+    private DeviceState fromState;
+
+    @Convert(converter = DeviceStateConverter.class)
+    @Column(name = "to_state", nullable = false, updatable = false)
+    private DeviceState toState;
+
+    @CreationTimestamp
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private OffsetDateTime changedAt;
+
+    protected DeviceStateChange() {
+    }
+
+    public DeviceStateChange(UUID deviceId, DeviceState fromState, DeviceState toState) {
+        this.deviceId = deviceId;
+        this.fromState = fromState;
+        this.toState = toState;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getDeviceId() {
+        return deviceId;
+    }
+
+    public DeviceState getFromState() {
+        return fromState;
+    }
+
+    public DeviceState getToState() {
+        return toState;
+    }
+
+    public OffsetDateTime getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.device.management.repository.entity;
+
+import com.device.management.state.DeviceState;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Persists {@link DeviceState} as its SMALLINT code instead of the enum name.
+ */
+@Converter
+public class DeviceStateConverter implements AttributeConverter<DeviceState, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(DeviceState state) {
+        return state != null ? state.code() : null;
+    }
+
+    @Override
+    public DeviceState convertToEntityAttribute(Short code) {
+        return code != null ? DeviceState.fromCode(code) : null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.device.management.service;
+
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.dto.StateUtilization;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public interface DeviceHistoryUseCase {
+    HistoryPage history(UUID deviceId, String cursor, int size);
+    StateUtilization utilization(UUID deviceId, OffsetDateTime from, OffsetDateTime to);
+}
@@ -1,9 +1,13 @@
 package com.device.management.service;
 
 
+import com.device.management.repository.entity.Brand;
 import com.device.management.repository.entity.Device;
+import com.device.management.repository.entity.DeviceStateChange;
 import com.device.management.mapper.DeviceMapper;
 import com.device.management.repository.DeviceRepository;
+import com.device.management.repository.DeviceStateChangeRepository;
+import com.device.management.service.brand.BrandCatalog;
 import com.device.management.service.dto.*;
 import com.device.management.state.DeviceState;
 import org.slf4j.Logger;
@@ -15,35 +19,60 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
 @Service
-@Transactional
+@Transactional(timeoutString = "${devices.db-timeout.write-seconds:5}")
 public class DeviceManagementService implements DeviceUseCase {
     private static final Logger LOGGER = LoggerFactory.getLogger(DeviceManagementService.class);
 
     private final DeviceRepository repository;
     private final DeviceMapper mapper;
+    private final BrandCatalog brands;
+    private final DeviceStateChangeRepository history;
 
-    public DeviceManagementService(DeviceRepository repository, DeviceMapper mapper) {
+    public DeviceManagementService(DeviceRepository repository, DeviceMapper mapper, BrandCatalog brands,
+                                   DeviceStateChangeRepository history) {
         this.repository = repository;
         this.mapper = mapper;
+        this.brands = brands;
+        this.history = history;
     }
 
     @Override
     public DeviceView create(DeviceCreateCommand deviceCreateCommand) {
         Device device = mapper.toEntity(deviceCreateCommand);
+        device.setBrand(brands.resolve(deviceCreateCommand.brand()));
         Device saved = repository.saveAndFlush(device);
+        recordStateChange(saved, null);
         return mapper.toView(saved);
     }
 
+    @Override
+    public List<DeviceView> createAll(List<DeviceCreateCommand> deviceCreateCommands) {
+        List<Device> devices = new ArrayList<>(deviceCreateCommands.size());
+        for (DeviceCreateCommand deviceCreateCommand : deviceCreateCommands) {
+            Device device = mapper.toEntity(deviceCreateCommand);
+            device.setBrand(brands.resolve(deviceCreateCommand.brand()));
+            devices.add(device);
+        }
+        List<Device> saved = repository.saveAll(devices);
+        saved.forEach(device -> recordStateChange(device, null));
+        // One flush writes the devices and their history entries as JDBC batches
+        repository.flush();
+        return saved.stream().map(mapper::toView).toList();
+    }
+
     @Override
     public DeviceView updateFull(UUID id, DeviceCreateCommand cmd) {
-        Device device = repository.findById(id).orElseThrow(() -> notFound(id));
+        Device device = repository.findByIdPruned(id).orElseThrow(() -> notFound(id));
 
         boolean nameChanged = !cmd.name().equals(device.getName());
-        boolean brandChanged = !cmd.brand().equals(device.getBrand());
+        boolean brandChanged = !cmd.brand().equals(device.getBrandName());
         boolean stateChanged = !cmd.state().equals(device.getState());
 
         int changedCount = 0;
@@ -53,7 +82,10 @@ public class DeviceManagementService implements DeviceUseCase {
 
         boolean allUnchanged = changedCount == 0;
         boolean allChanged = changedCount == 3;
-        LOGGER.info("deviceId: {}, {} changed and {} all unchanged", id, allUnchanged, allChanged);
+        // Guarded: a disabled level must not even allocate the varargs array
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("deviceId: {}, all changed: {}, all unchanged: {}", id, allChanged, allUnchanged);
+        }
         if (device.getState() == DeviceState.IN_USE && (nameChanged || brandChanged)) {
             throw new IllegalStateException("Cannot update name/brand while device is IN_USE");
         }
@@ -65,41 +97,82 @@ public class DeviceManagementService implements DeviceUseCase {
         }
 
         device.setName(cmd.name());
-        device.setBrand(cmd.brand());
+        if (brandChanged && !sameBrand(device.getBrand(), cmd.brand())) {
+            device.setBrand(brands.resolve(cmd.brand()));
+        }
+        device.setBrandName(cmd.brand());
+        DeviceState previous = device.getState();
         device.setState(cmd.state());
+        recordStateChange(device, previous);
         return mapper.toView(device);
     }
 
     @Override
     public DeviceView updatePartial(UUID id, DeviceUpdateCommand deviceUpdateCommand) {
-        Device device = repository.findById(id).orElseThrow(() -> notFound(id));
+        Device device = repository.findByIdPruned(id).orElseThrow(() -> notFound(id));
+        return applyPartial(device, deviceUpdateCommand);
+    }
+
+    @Override
+    public List<BatchItemResult> updateBatch(Map<UUID, DeviceUpdateCommand> updates) {
+        Map<UUID, Device> devices = new HashMap<>();
+        for (Device device : repository.findByIdInPruned(updates.keySet())) {
+            devices.put(device.getId(), device);
+        }
+        List<BatchItemResult> results = new ArrayList<>(updates.size());
+        for (Map.Entry<UUID, DeviceUpdateCommand> update : updates.entrySet()) {
+            UUID id = update.getKey();
+            Device device = devices.get(id);
+            if (device == null) {
+                results.add(BatchItemResult.notFound(id));
+                continue;
+            }
+            try {
+                results.add(BatchItemResult.updated(id, applyPartial(device, update.getValue())));
+            } catch (IllegalStateException ex) {
+                results.add(BatchItemResult.conflict(id, ex.getMessage()));
+            }
+        }
+        // Dirty devices and history entries are written by one flush at commit, as JDBC batches
+        return results;
+    }
+
+    private DeviceView applyPartial(Device device, DeviceUpdateCommand deviceUpdateCommand) {
         boolean wantsNameChange = deviceUpdateCommand.name() != null;
         boolean wantsBrandChange = deviceUpdateCommand.brand() != null;
         if (device.getState() == DeviceState.IN_USE && (wantsNameChange || wantsBrandChange)) {
             throw new IllegalStateException("Cannot update name/brand while device is IN_USE");
         }
+        DeviceState previous = device.getState();
         mapper.update(device, deviceUpdateCommand);
+        recordStateChange(device, previous);
+        if (wantsBrandChange && !sameBrand(device.getBrand(), deviceUpdateCommand.brand())) {
+            device.setBrand(brands.resolve(deviceUpdateCommand.brand()));
+        }
         return mapper.toView(device);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, timeoutString = "${devices.db-timeout.get-seconds:2}")
     public DeviceView get(UUID id) {
-        Device device = repository.findById(id).orElseThrow(() -> notFound(id));
+        Device device = repository.findByIdPruned(id).orElseThrow(() -> notFound(id));
         return mapper.toView(device);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, timeoutString = "${devices.db-timeout.list-seconds:5}")
     public PageResult<DeviceView> list(DeviceFilter filter, PageRequest pageRequest) {
         Pageable pageable = toSpringPageable(pageRequest);
         Page<Device> page;
         String brand = filter != null ? filter.brand() : null;
         DeviceState state = filter != null ? filter.state() : null;
-        if (brand != null && state != null) {
-            page = repository.findByBrandIgnoreCaseAndState(brand, state, pageable);
-        } else if (brand != null) {
-            page = repository.findByBrandIgnoreCase(brand, pageable);
+        Integer brandId = brand != null ? brands.findId(brand).orElse(null) : null;
+        if (brand != null && brandId == null) {
+            page = Page.empty(pageable);
+        } else if (brandId != null && state != null) {
+            page = repository.findByBrandIdAndState(brandId, state, pageable);
+        } else if (brandId != null) {
+            page = repository.findByBrandId(brandId, pageable);
         } else if (state != null) {
             page = repository.findByState(state, pageable);
         } else {
@@ -117,7 +190,7 @@ public class DeviceManagementService implements DeviceUseCase {
 
     @Override
     public void delete(UUID id) {
-        Device device = repository.findById(id).orElseThrow(() -> notFound(id));
+        Device device = repository.findByIdPruned(id).orElseThrow(() -> notFound(id));
         if (device.getState() == DeviceState.IN_USE) {
             throw new IllegalStateException("Cannot delete a device while it is IN_USE");
         }
@@ -130,11 +203,11 @@ public class DeviceManagementService implements DeviceUseCase {
         }
         Sort sort = Sort.unsorted();
         if (pageRequest.sort() != null && !pageRequest.sort().isEmpty()) {
-            java.util.List<Sort.Order> orders = new ArrayList<>();
+            List<Sort.Order> orders = new ArrayList<>();
             for (SortOrder sortOrder : pageRequest.sort()) {
                 Sort.Direction direction =
                         (sortOrder.direction() == SortOrder.Direction.DESC) ? Sort.Direction.DESC : Sort.Direction.ASC;
-                orders.add(new Sort.Order(direction, sortOrder.property()));
+                orders.add(new Sort.Order(direction, entityProperty(sortOrder.property())));
             }
             sort = Sort.by(orders);
         }
@@ -142,6 +215,22 @@ public class DeviceManagementService implements DeviceUseCase {
                 .of(Math.max(pageRequest.page(), 0), Math.max(pageRequest.size(), 1), sort);
     }
 
+    // Devices reference their brand by id, which orders by registration rather than by name
+    private static String entityProperty(String property) {
+        return property.equals("brand") ? "brand.name" : property;
+    }
+
+    // Appended in the same transaction as the change itself; inserts are JDBC-batched at flush
+    private void recordStateChange(Device device, DeviceState previous) {
+        if (device.getState() != previous) {
+            history.save(new DeviceStateChange(device.getId(), previous, device.getState()));
+        }
+    }
+
+    private static boolean sameBrand(Brand current, String name) {
+        return current != null && current.getKey().equals(Brand.keyOf(name));
+    }
+
     private RuntimeException notFound(UUID id) {
         return new NoSuchElementException("Device not found: " + id);
     }
@@ -2,12 +2,18 @@ package com.device.management.service;
 
 import com.device.management.service.dto.*;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface DeviceUseCase {
     DeviceView create(DeviceCreateCommand deviceCreateCommand);
+    // Creates many devices in one transaction; views are returned in command order
+    List<DeviceView> createAll(List<DeviceCreateCommand> deviceCreateCommands);
     DeviceView updateFull(UUID id, DeviceCreateCommand deviceCreateCommand);
     DeviceView updatePartial(UUID id, DeviceUpdateCommand deviceUpdateCommand);
+    // Partial updates of many devices in one transaction, with a result per item in input order
+    List<BatchItemResult> updateBatch(Map<UUID, DeviceUpdateCommand> updates);
     DeviceView get(UUID id);
     PageResult<DeviceView> list(DeviceFilter filter, PageRequest pageRequest);
     void delete(UUID id);
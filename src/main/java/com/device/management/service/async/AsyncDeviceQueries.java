@@ -0,0 +1,60 @@
+package com.device.management.service.async;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.DeviceFilter;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.service.dto.PageRequest;
+import com.device.management.service.dto.PageResult;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the read side of {@link DeviceUseCase} on a bounded executor so that servlet threads are released
+ * while the database works. A call that exceeds the timeout completes with a {@link TimeoutException} and
+ * its worker is interrupted; the statement itself is cancelled by the read transaction's database time budget.
+ */
+public class AsyncDeviceQueries {
+
+    private final DeviceUseCase useCase;
+    private final AsyncTaskExecutor executor;
+    private final Duration timeout;
+
+    public AsyncDeviceQueries(DeviceUseCase useCase, AsyncTaskExecutor executor, Duration timeout) {
+        this.useCase = useCase;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    public CompletableFuture<DeviceView> get(UUID id) {
+        return submit(() -> useCase.get(id));
+    }
+
+    public CompletableFuture<PageResult<DeviceView>> list(DeviceFilter filter, PageRequest pageRequest) {
+        return submit(() -> useCase.list(filter, pageRequest));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, ex) -> {
+                    if (ex instanceof TimeoutException) {
+                        task.cancel(true);
+                    }
+                });
+        return result;
+    }
+}
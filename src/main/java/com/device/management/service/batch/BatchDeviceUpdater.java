@@ -0,0 +1,99 @@
+package com.device.management.service.batch;
+
+import com.device.management.exception.InvalidRequestException;
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.BatchItemResult;
+import com.device.management.service.dto.DeviceUpdateCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Splits a batch of partial updates into chunks and commits each chunk in its own transaction, so a large
+ * batch pays one commit per chunk instead of one per device while keeping each transaction short.
+ * A chunk that loses an optimistic lock race is rolled back as a whole and its items are reported as
+ * conflicts; chunks committed before it stay committed. Any other failure of a chunk after the first ends the
+ * batch: the committed chunks keep their results and every item from the failed chunk on is reported as failed,
+ * so that the client learns what was applied. A failure of the first chunk, with nothing committed, is thrown.
+ */
+public class BatchDeviceUpdater {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchDeviceUpdater.class);
+
+    private final DeviceUseCase useCase;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public BatchDeviceUpdater(DeviceUseCase useCase, int chunkSize, int maxItems) {
+        this.useCase = useCase;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public List<BatchItemResult> update(Map<UUID, DeviceUpdateCommand> updates) {
+        if (updates.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one update");
+        }
+        if (updates.size() > maxItems) {
+            throw new InvalidRequestException("Batch exceeds " + maxItems + " updates");
+        }
+        if (chunkSize <= 0 || updates.size() <= chunkSize) {
+            return updateChunk(updates);
+        }
+        List<BatchItemResult> results = new ArrayList<>(updates.size());
+        Map<UUID, DeviceUpdateCommand> chunk = new LinkedHashMap<>();
+        for (Map.Entry<UUID, DeviceUpdateCommand> update : updates.entrySet()) {
+            chunk.put(update.getKey(), update.getValue());
+            if (chunk.size() == chunkSize) {
+                if (!updateChunk(chunk, results)) {
+                    return failRemaining(updates, results);
+                }
+                chunk = new LinkedHashMap<>();
+            }
+        }
+        if (!chunk.isEmpty() && !updateChunk(chunk, results)) {
+            return failRemaining(updates, results);
+        }
+        return results;
+    }
+
+    /**
+     * Adds the results of the chunk, or returns {@code false} if it failed after earlier chunks were committed.
+     */
+    private boolean updateChunk(Map<UUID, DeviceUpdateCommand> chunk, List<BatchItemResult> results) {
+        try {
+            results.addAll(updateChunk(chunk));
+            return true;
+        } catch (RuntimeException ex) {
+            if (results.isEmpty()) {
+                throw ex;
+            }
+            LOGGER.warn("Batch update chunk failed after {} item(s) were committed", results.size(), ex);
+            return false;
+        }
+    }
+
+    private static List<BatchItemResult> failRemaining(Map<UUID, DeviceUpdateCommand> updates,
+                                                       List<BatchItemResult> results) {
+        updates.keySet().stream()
+                .skip(results.size())
+                .forEach(id -> results.add(BatchItemResult.failed(id, "Not applied: the batch failed at this chunk")));
+        return results;
+    }
+
+    private List<BatchItemResult> updateChunk(Map<UUID, DeviceUpdateCommand> chunk) {
+        try {
+            return useCase.updateBatch(chunk);
+        } catch (OptimisticLockingFailureException ex) {
+            return chunk.keySet().stream()
+                    .map(id -> BatchItemResult.conflict(id, "Concurrent modification; chunk rolled back"))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.device.management.service.brand;
+
+import com.device.management.repository.BrandRepository;
+import com.device.management.repository.entity.Brand;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory view of the brand dictionary, keyed by the case-folded brand key. Brands are never
+ * renamed or removed, so an entry stays valid once loaded; only hits are cached, and only once the
+ * transaction that read them has committed, so that a brand registered by a transaction that rolls back
+ * never reaches the cache.
+ */
+@Component
+public class BrandCatalog {
+
+    private final ConcurrentMap<String, Brand> byKey = new ConcurrentHashMap<>();
+    private final BrandRepository repository;
+
+    public BrandCatalog(BrandRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Id of an existing brand, for filtering. An unknown brand cannot match any device.
+     */
+    public Optional<Integer> findId(String name) {
+        return find(Brand.keyOf(name)).map(Brand::getId);
+    }
+
+    /**
+     * Existing brand for the name, registering it first if it is new.
+     * Registration runs in the caller's transaction, on its connection, and commits with it.
+     */
+    public Brand resolve(String name) {
+        String key = Brand.keyOf(name);
+        return find(key).orElseGet(() -> register(name, key));
+    }
+
+    private Optional<Brand> find(String key) {
+        Brand cached = byKey.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Brand> loaded = repository.findByKey(key);
+        loaded.ifPresent(brand -> cacheAfterCommit(key, brand));
+        return loaded;
+    }
+
+    private Brand register(String name, String key) {
+        repository.insertIfAbsent(name, key);
+        Brand brand = repository.findByKey(key)
+                .orElseThrow(() -> new IllegalStateException("Brand " + key + " missing after registration"));
+        cacheAfterCommit(key, brand);
+        return brand;
+    }
+
+    private void cacheAfterCommit(String key, Brand brand) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            byKey.putIfAbsent(key, brand);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                byKey.putIfAbsent(key, brand);
+            }
+        });
+    }
+}
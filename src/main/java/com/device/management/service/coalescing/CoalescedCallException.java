@@ -0,0 +1,13 @@
+package com.device.management.service.coalescing;
+
+/**
+ * Failure of a coalesced call as seen by a follower. The leader's exception is the cause; each follower gets an
+ * instance of its own, so that callers never share one stack trace and its suppressed exceptions.
+ * {@code GlobalExceptionHandler} answers it as it answers the cause.
+ */
+public class CoalescedCallException extends RuntimeException {
+
+    public CoalescedCallException(RuntimeException leader) {
+        super(leader.getMessage(), leader);
+    }
+}
@@ -0,0 +1,145 @@
+package com.device.management.service.coalescing;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.*;
+import com.device.management.service.tenancy.TenantContext;
+import com.device.management.state.DeviceState;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Coalesces concurrent identical {@code get} and {@code list} calls so that only one of them reaches the
+ * database. Writes pass straight through. A follower receives the result of a read that was already running when
+ * it arrived, so it can miss a write committed by another instance in the meantime, as a read issued a little
+ * earlier would. Writes through this instance are never missed: each one, once it returns, moves the write epoch
+ * of its device and of the lists, and a read only joins a call started in the same epoch. A client therefore
+ * reads its own writes. Only calls of the same tenant are coalesced.
+ */
+public class CoalescingDeviceUseCase implements DeviceUseCase {
+
+    // Epochs of the gets, striped by device id: a write also splits the gets of the devices sharing its stripe
+    private static final int STRIPES = 1024;
+
+    private final DeviceUseCase delegate;
+    private final AtomicLongArray deviceEpochs = new AtomicLongArray(STRIPES);
+    private final AtomicLong listEpoch = new AtomicLong();
+    private final SingleFlight<GetKey, DeviceView> gets;
+    private final SingleFlight<ListKey, PageResult<DeviceView>> lists;
+
+    public CoalescingDeviceUseCase(DeviceUseCase delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.gets = new SingleFlight<>("get", meterRegistry);
+        this.lists = new SingleFlight<>("list", meterRegistry);
+    }
+
+    @Override
+    public DeviceView create(DeviceCreateCommand deviceCreateCommand) {
+        try {
+            DeviceView created = delegate.create(deviceCreateCommand);
+            written(created.id());
+            return created;
+        } finally {
+            listEpoch.incrementAndGet();
+        }
+    }
+
+    @Override
+    public List<DeviceView> createAll(List<DeviceCreateCommand> deviceCreateCommands) {
+        try {
+            List<DeviceView> created = delegate.createAll(deviceCreateCommands);
+            created.forEach(view -> written(view.id()));
+            return created;
+        } finally {
+            listEpoch.incrementAndGet();
+        }
+    }
+
+    @Override
+    public DeviceView updateFull(UUID id, DeviceCreateCommand deviceCreateCommand) {
+        try {
+            return delegate.updateFull(id, deviceCreateCommand);
+        } finally {
+            written(id);
+            listEpoch.incrementAndGet();
+        }
+    }
+
+    @Override
+    public DeviceView updatePartial(UUID id, DeviceUpdateCommand deviceUpdateCommand) {
+        try {
+            return delegate.updatePartial(id, deviceUpdateCommand);
+        } finally {
+            written(id);
+            listEpoch.incrementAndGet();
+        }
+    }
+
+    @Override
+    public List<BatchItemResult> updateBatch(Map<UUID, DeviceUpdateCommand> updates) {
+        try {
+            return delegate.updateBatch(updates);
+        } finally {
+            updates.keySet().forEach(this::written);
+            listEpoch.incrementAndGet();
+        }
+    }
+
+    @Override
+    public DeviceView get(UUID id) {
+        long epoch = deviceEpochs.get(stripe(id));
+        return gets.execute(new GetKey(TenantContext.current(), id, epoch), () -> delegate.get(id));
+    }
+
+    @Override
+    public PageResult<DeviceView> list(DeviceFilter filter, PageRequest pageRequest) {
+        return lists.execute(ListKey.of(filter, pageRequest, listEpoch.get()), () -> delegate.list(filter, pageRequest));
+    }
+
+    @Override
+    public void delete(UUID id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            written(id);
+            listEpoch.incrementAndGet();
+        }
+    }
+
+    // Also after a failed write, which may have committed before failing
+    private void written(UUID id) {
+        deviceEpochs.incrementAndGet(stripe(id));
+    }
+
+    private static int stripe(UUID id) {
+        return Math.floorMod(id.hashCode(), STRIPES);
+    }
+
+    record GetKey(String tenant, UUID id, long epoch) {
+    }
+
+    /**
+     * Normalized list call: brand is compared case-insensitively by the repository and page/size are clamped
+     * by the service, so requests differing only in those respects share a key.
+     */
+    record ListKey(String tenant, String brand, DeviceState state, boolean paged, int page, int size,
+                   List<SortOrder> sort, long epoch) {
+
+        static ListKey of(DeviceFilter filter, PageRequest pageRequest, long epoch) {
+            String tenant = TenantContext.current();
+            String brand = filter != null && filter.brand() != null ? filter.brand().toLowerCase(Locale.ROOT) : null;
+            DeviceState state = filter != null ? filter.state() : null;
+            if (pageRequest == null) {
+                return new ListKey(tenant, brand, state, false, 0, 0, List.of(), epoch);
+            }
+            List<SortOrder> sort = pageRequest.sort() != null ? List.copyOf(pageRequest.sort()) : List.of();
+            return new ListKey(tenant, brand, state, true,
+                    Math.max(pageRequest.page(), 0), Math.max(pageRequest.size(), 1), sort, epoch);
+        }
+    }
+}
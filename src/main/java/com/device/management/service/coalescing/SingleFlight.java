@@ -0,0 +1,74 @@
+package com.device.management.service.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Merges concurrent calls for the same key into a single execution.
+ * The first caller (leader) runs the loader, every caller arriving while it is in flight (follower)
+ * waits for and receives the same result. A failure reaches each follower as a {@link CoalescedCallException}
+ * caused by the leader's exception. Nothing is cached once the call completes.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(String operation, MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("devices.coalescing.requests")
+                .description("Reads executed against the database (leader) or served from an in-flight call (follower)")
+                .tag("operation", operation)
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.followers = Counter.builder("devices.coalescing.requests")
+                .description("Reads executed against the database (leader) or served from an in-flight call (follower)")
+                .tag("operation", operation)
+                .tag("role", "follower")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            followers.increment();
+            return await(existing);
+        }
+        leaders.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw new CoalescedCallException(cause);
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
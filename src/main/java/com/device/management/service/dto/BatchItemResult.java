@@ -0,0 +1,31 @@
+package com.device.management.service.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one item of a batch update: the updated device, or why the item was not applied.
+ */
+public record BatchItemResult(
+        UUID id,
+        Status status,
+        DeviceView device,
+        String error
+) {
+    public enum Status { UPDATED, NOT_FOUND, CONFLICT, FAILED }
+
+    public static BatchItemResult updated(UUID id, DeviceView device) {
+        return new BatchItemResult(id, Status.UPDATED, device, null);
+    }
+
+    public static BatchItemResult notFound(UUID id) {
+        return new BatchItemResult(id, Status.NOT_FOUND, null, "Device not found: " + id);
+    }
+
+    public static BatchItemResult conflict(UUID id, String error) {
+        return new BatchItemResult(id, Status.CONFLICT, null, error);
+    }
+
+    public static BatchItemResult failed(UUID id, String error) {
+        return new BatchItemResult(id, Status.FAILED, null, error);
+    }
+}
@@ -0,0 +1,11 @@
+package com.device.management.service.dto;
+
+import java.util.List;
+
+/**
+ * A page of device history, newest first. {@code nextCursor} is null on the last page.
+ */
+public record HistoryPage(
+        List<StateChangeView> items,
+        String nextCursor
+) {}
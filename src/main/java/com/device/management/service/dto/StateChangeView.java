@@ -0,0 +1,11 @@
+package com.device.management.service.dto;
+
+import com.device.management.state.DeviceState;
+
+import java.time.OffsetDateTime;
+
+public record StateChangeView(
+        DeviceState fromState,
+        DeviceState toState,
+        OffsetDateTime changedAt
+) {}
@@ -0,0 +1,15 @@
+package com.device.management.service.dto;
+
+import com.device.management.state.DeviceState;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Seconds spent in each state within [from, to). Time before the first recorded state is not attributed.
+ */
+public record StateUtilization(
+        OffsetDateTime from,
+        OffsetDateTime to,
+        Map<DeviceState, Long> secondsInState
+) {}
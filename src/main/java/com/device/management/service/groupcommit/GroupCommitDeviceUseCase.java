@@ -0,0 +1,257 @@
+package com.device.management.service.groupcommit;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.*;
+import com.device.management.service.tenancy.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Merges concurrent {@code create} calls into one {@link DeviceUseCase#createAll} transaction, so that many
+ * single-device requests share one batched insert and one commit. A committer takes the first queued
+ * create, waits up to the window for more (at most the maximum batch size) and commits them together;
+ * each caller blocks until its own device is committed. Creates of different tenants are committed in separate
+ * transactions, each under its tenant.
+ * <p>
+ * If the combined transaction fails, its creates are retried one by one, so every caller receives its own
+ * result or exception. Creates issued inside a caller's transaction, or that find the queue full, bypass
+ * grouping. Other operations pass straight through.
+ * <p>
+ * Once closed, creates pass straight through as well. Creates still queued when {@link #close(Duration)} gives
+ * up waiting for the committers fail with a {@link TaskRejectedException}, so that no caller waits forever.
+ */
+public class GroupCommitDeviceUseCase implements DeviceUseCase, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitDeviceUseCase.class);
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final DeviceUseCase delegate;
+    private final BlockingQueue<PendingCreate> queue;
+    private final int maxBatchSize;
+    private final Duration window;
+    private final List<Thread> committers = new ArrayList<>();
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+    // Read-locked around queueing a create, write-locked to stop, so that nothing is queued after close()
+    private final ReadWriteLock closing = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    public GroupCommitDeviceUseCase(DeviceUseCase delegate, int maxBatchSize, Duration window, int queueCapacity,
+                                    int committerThreads, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.window = window;
+        this.batchSizes = DistributionSummary.builder("devices.group-commit.batch.size")
+                .description("Creates committed together in one transaction")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("devices.group-commit.fallbacks")
+                .description("Grouped transactions that failed and were retried one create at a time")
+                .register(meterRegistry);
+        for (int i = 0; i < committerThreads; i++) {
+            committers.add(Thread.ofPlatform().name("device-group-commit-" + i).daemon().start(this::run));
+        }
+    }
+
+    @Override
+    public DeviceView create(DeviceCreateCommand deviceCreateCommand) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return delegate.create(deviceCreateCommand);
+        }
+        PendingCreate pending = new PendingCreate(TenantContext.current(), deviceCreateCommand,
+                new CompletableFuture<>());
+        if (!enqueue(pending)) {
+            return delegate.create(deviceCreateCommand);
+        }
+        try {
+            return pending.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public List<DeviceView> createAll(List<DeviceCreateCommand> deviceCreateCommands) {
+        return delegate.createAll(deviceCreateCommands);
+    }
+
+    @Override
+    public DeviceView updateFull(UUID id, DeviceCreateCommand deviceCreateCommand) {
+        return delegate.updateFull(id, deviceCreateCommand);
+    }
+
+    @Override
+    public DeviceView updatePartial(UUID id, DeviceUpdateCommand deviceUpdateCommand) {
+        return delegate.updatePartial(id, deviceUpdateCommand);
+    }
+
+    @Override
+    public List<BatchItemResult> updateBatch(Map<UUID, DeviceUpdateCommand> updates) {
+        return delegate.updateBatch(updates);
+    }
+
+    @Override
+    public DeviceView get(UUID id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public PageResult<DeviceView> list(DeviceFilter filter, PageRequest pageRequest) {
+        return delegate.list(filter, pageRequest);
+    }
+
+    @Override
+    public void delete(UUID id) {
+        delegate.delete(id);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        close(CLOSE_TIMEOUT);
+    }
+
+    /**
+     * Stops accepting creates into the queue and waits up to the timeout for the committers to commit what is
+     * already queued. Creates left in the queue after that are failed.
+     */
+    public void close(Duration timeout) throws InterruptedException {
+        closing.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            closing.writeLock().unlock();
+        }
+        committers.forEach(Thread::interrupt);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Thread committer : committers) {
+            committer.join(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        }
+        List<PendingCreate> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            LOGGER.warn("Group commit closed with {} creates not committed", leftover.size());
+            leftover.forEach(pending -> pending.result().completeExceptionally(
+                    new TaskRejectedException("Group commit closed before the create was committed")));
+        }
+    }
+
+    private boolean enqueue(PendingCreate pending) {
+        closing.readLock().lock();
+        try {
+            return running && queue.offer(pending);
+        } finally {
+            closing.readLock().unlock();
+        }
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            try {
+                PendingCreate first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    return;
+                }
+                batch.add(first);
+                collect(batch);
+            } catch (InterruptedException ex) {
+                // close(): commit what is collected and queued, then stop
+                if (batch.isEmpty()) {
+                    continue;
+                }
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void collect(List<PendingCreate> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + window.toNanos();
+        while (batch.size() < maxBatchSize) {
+            PendingCreate next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    return;
+                }
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingCreate> batch) {
+        Map<String, List<PendingCreate>> byTenant = new LinkedHashMap<>();
+        for (PendingCreate pending : batch) {
+            byTenant.computeIfAbsent(pending.tenant(), tenant -> new ArrayList<>()).add(pending);
+        }
+        byTenant.forEach((tenant, group) -> TenantContext.call(tenant, () -> {
+            commitGroup(group);
+            return null;
+        }));
+    }
+
+    private void commitGroup(List<PendingCreate> batch) {
+        batchSizes.record(batch.size());
+        if (batch.size() == 1) {
+            createAlone(batch.getFirst());
+            return;
+        }
+        List<DeviceView> views;
+        try {
+            views = delegate.createAll(batch.stream().map(PendingCreate::command).toList());
+        } catch (RuntimeException ex) {
+            fallbacks.increment();
+            batch.forEach(this::createAlone);
+            return;
+        } catch (Error ex) {
+            batch.forEach(pending -> pending.result().completeExceptionally(ex));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(views.get(i));
+        }
+    }
+
+    private void createAlone(PendingCreate pending) {
+        try {
+            pending.result().complete(delegate.create(pending.command()));
+        } catch (RuntimeException | Error ex) {
+            pending.result().completeExceptionally(ex);
+        }
+    }
+
+    private record PendingCreate(String tenant, DeviceCreateCommand command, CompletableFuture<DeviceView> result) {}
+}
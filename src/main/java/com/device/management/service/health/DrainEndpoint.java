@@ -0,0 +1,48 @@
+package com.device.management.service.health;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/drain}: GET reports the drain state and current saturation, POST starts draining, DELETE
+ * accepts traffic again.
+ */
+@Endpoint(id = "drain")
+public class DrainEndpoint {
+
+    private final DrainMode drainMode;
+    private final SaturationMonitor saturationMonitor;
+
+    public DrainEndpoint(DrainMode drainMode, SaturationMonitor saturationMonitor) {
+        this.drainMode = drainMode;
+        this.saturationMonitor = saturationMonitor;
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("draining", drainMode.isDraining());
+        if (drainMode.since() != null) {
+            state.put("since", drainMode.since().toString());
+        }
+        state.put("saturation", saturationMonitor.current());
+        return state;
+    }
+
+    @WriteOperation
+    public Map<String, Object> drain() {
+        drainMode.start();
+        return state();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> resume() {
+        drainMode.stop();
+        return state();
+    }
+}
@@ -0,0 +1,48 @@
+package com.device.management.service.health;
+
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+
+/**
+ * Stops the instance from taking new work ahead of a shutdown or for maintenance: readiness turns to
+ * {@link ReadinessState#REFUSING_TRAFFIC}, so the orchestrator stops routing to it, and the
+ * {@link com.device.management.controller.filter.DrainModeFilter} answers requests that still arrive with 503.
+ * Calls already running are unaffected.
+ */
+public class DrainMode {
+
+    private final ApplicationEventPublisher publisher;
+    private volatile Instant since;
+
+    public DrainMode(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    public synchronized void start() {
+        if (since == null) {
+            since = Instant.now();
+            AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    public synchronized void stop() {
+        if (since != null) {
+            since = null;
+            AvailabilityChangeEvent.publish(publisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    public boolean isDraining() {
+        return since != null;
+    }
+
+    /**
+     * @return when draining started; {@code null} if not draining
+     */
+    public Instant since() {
+        return since;
+    }
+}
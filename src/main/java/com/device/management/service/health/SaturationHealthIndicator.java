@@ -0,0 +1,47 @@
+package com.device.management.service.health;
+
+import com.device.management.service.health.SaturationMonitor.Saturation;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.health.contributor.Status;
+
+/**
+ * Part of the readiness group: out of service once the saturation level reaches the limit, so that the load
+ * balancer sends new requests to other instances until this one has caught up, and up again only when the level
+ * has dropped below the recovery level. Without that gap, an instance hovering around the limit would flap in and
+ * out of the load balancer on every probe.
+ */
+public class SaturationHealthIndicator implements HealthIndicator {
+
+    private final SaturationMonitor monitor;
+    private final double limit;
+    private final double recovery;
+    private boolean saturated;
+
+    public SaturationHealthIndicator(SaturationMonitor monitor, double limit, double recovery) {
+        this.monitor = monitor;
+        this.limit = limit;
+        this.recovery = recovery;
+    }
+
+    @Override
+    public Health health() {
+        Saturation saturation = monitor.current();
+        return Health.status(saturated(saturation.level()) ? Status.OUT_OF_SERVICE : Status.UP)
+                .withDetail("level", saturation.level())
+                .withDetail("limit", limit)
+                .withDetail("recovery", recovery)
+                .withDetail("busiest", saturation.busiest())
+                .withDetail("components", saturation.components())
+                .build();
+    }
+
+    private synchronized boolean saturated(double level) {
+        if (level >= limit) {
+            saturated = true;
+        } else if (level < recovery) {
+            saturated = false;
+        }
+        return saturated;
+    }
+}
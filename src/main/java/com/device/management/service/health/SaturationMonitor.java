@@ -0,0 +1,53 @@
+package com.device.management.service.health;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Combines saturation signals into one level for autoscaling and readiness. Each signal is scaled so that 1.0 is
+ * its limit (connection waits, a full queue, the latency objective, the GC time budget); the level is the highest
+ * of them, because the instance is saturated as soon as any one resource is. Published as the
+ * {@code devices.saturation} gauge, and per signal as {@code devices.saturation.component}.
+ */
+public class SaturationMonitor {
+
+    /**
+     * @param busiest signal with the highest value
+     */
+    public record Saturation(double level, String busiest, Map<String, Double> components) {
+    }
+
+    private final Map<String, DoubleSupplier> signals;
+
+    public SaturationMonitor(Map<String, DoubleSupplier> signals, MeterRegistry meterRegistry) {
+        this.signals = new LinkedHashMap<>(signals);
+        Gauge.builder("devices.saturation", this, monitor -> monitor.current().level())
+                .description("Highest saturation signal; 1.0 means a resource is at its limit")
+                .register(meterRegistry);
+        this.signals.forEach((name, signal) -> Gauge.builder("devices.saturation.component", signal, DoubleSupplier::getAsDouble)
+                .description("Saturation signal relative to its limit")
+                .tag("component", name)
+                .strongReference(true)
+                .register(meterRegistry));
+    }
+
+    public Saturation current() {
+        Map<String, Double> components = new LinkedHashMap<>();
+        double level = 0;
+        String busiest = null;
+        for (Map.Entry<String, DoubleSupplier> signal : signals.entrySet()) {
+            double value = signal.getValue().getAsDouble();
+            components.put(signal.getKey(), value);
+            if (busiest == null || value > level) {
+                level = value;
+                busiest = signal.getKey();
+            }
+        }
+        return new Saturation(level, busiest, Collections.unmodifiableMap(components));
+    }
+}
@@ -0,0 +1,125 @@
+package com.device.management.service.health;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Predicate;
+
+/**
+ * The signals of the {@link SaturationMonitor}, each relative to its limit. Meters are looked up on every read,
+ * so a signal whose meters are not registered (no pool started yet, no call timed yet) reads 0.
+ */
+public final class SaturationSignals {
+
+    static final Duration GC_SAMPLE_INTERVAL = Duration.ofSeconds(5);
+
+    private SaturationSignals() {
+    }
+
+    /**
+     * Threads waiting for a connection relative to the pool size, or the recent p99 acquire wait relative to the
+     * threshold, whichever is higher. Busy connections alone are utilization, not saturation, and a single slow
+     * acquire is an outlier: the percentile only rises when waits are sustained. Needs the acquire timer to publish
+     * a 0.99 percentile, like {@link #latency}.
+     */
+    public static DoubleSupplier connectionPool(MeterRegistry registry, Duration waitThreshold) {
+        return () -> {
+            Gauge pending = registry.find("hikaricp.connections.pending").gauge();
+            Gauge max = registry.find("hikaricp.connections.max").gauge();
+            Timer acquire = registry.find("hikaricp.connections.acquire").timer();
+            double waiting = pending == null || max == null || max.value() <= 0 ? 0 : pending.value() / max.value();
+            double wait = acquire == null ? 0 : p99(acquire) / waitThreshold.toNanos();
+            return Math.max(waiting, wait);
+        };
+    }
+
+    /**
+     * Tasks queued relative to the queue capacity; at 1.0 further tasks are rejected.
+     */
+    public static DoubleSupplier queue(ThreadPoolTaskExecutor executor) {
+        return () -> executor.getQueueCapacity() <= 0 ? 0 : (double) executor.getQueueSize() / executor.getQueueCapacity();
+    }
+
+    /**
+     * Highest recent p99 among the included timers of that name (one per tag set), relative to the objective.
+     * Needs the timers to publish a 0.99 percentile ({@code management.metrics.distribution.percentiles}); the
+     * percentile covers the distribution expiry window.
+     */
+    public static DoubleSupplier latency(MeterRegistry registry, String timerName, Duration objective,
+                                         Predicate<Meter.Id> included) {
+        return () -> {
+            double p99 = 0;
+            for (Timer timer : registry.find(timerName).timers()) {
+                if (included.test(timer.getId())) {
+                    p99 = Math.max(p99, p99(timer));
+                }
+            }
+            return p99 / objective.toNanos();
+        };
+    }
+
+    /**
+     * Share of wall-clock time spent in garbage collection relative to the threshold, over the last sampling
+     * interval of at least {@link #GC_SAMPLE_INTERVAL}.
+     */
+    public static DoubleSupplier gcOverhead(double threshold) {
+        return new GcOverhead(ManagementFactory.getGarbageCollectorMXBeans(), threshold);
+    }
+
+    private static double p99(Timer timer) {
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.99) {
+                return percentile.value(TimeUnit.NANOSECONDS);
+            }
+        }
+        return 0;
+    }
+
+    static final class GcOverhead implements DoubleSupplier {
+
+        private final List<GarbageCollectorMXBean> collectors;
+        private final double threshold;
+        private long sampledAtNanos;
+        private long collectionMillis;
+        private double value;
+
+        GcOverhead(List<GarbageCollectorMXBean> collectors, double threshold) {
+            this.collectors = collectors;
+            this.threshold = threshold;
+            this.sampledAtNanos = System.nanoTime();
+            this.collectionMillis = collectionMillis();
+        }
+
+        @Override
+        public synchronized double getAsDouble() {
+            long now = System.nanoTime();
+            long elapsedNanos = now - sampledAtNanos;
+            if (elapsedNanos >= GC_SAMPLE_INTERVAL.toNanos()) {
+                long total = collectionMillis();
+                double share = TimeUnit.MILLISECONDS.toNanos(total - collectionMillis) / (double) elapsedNanos;
+                value = share / threshold;
+                sampledAtNanos = now;
+                collectionMillis = total;
+            }
+            return value;
+        }
+
+        private long collectionMillis() {
+            long total = 0;
+            for (GarbageCollectorMXBean collector : collectors) {
+                total += Math.max(collector.getCollectionTime(), 0);
+            }
+            return total;
+        }
+    }
+}
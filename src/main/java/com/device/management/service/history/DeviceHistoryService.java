@@ -0,0 +1,111 @@
+package com.device.management.service.history;
+
+import com.device.management.exception.InvalidRequestException;
+import com.device.management.repository.DeviceRepository;
+import com.device.management.repository.DeviceStateChangeRepository;
+import com.device.management.repository.entity.DeviceStateChange;
+import com.device.management.service.DeviceHistoryUseCase;
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.dto.StateChangeView;
+import com.device.management.service.dto.StateUtilization;
+import com.device.management.state.DeviceState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+@Service
+@Transactional(readOnly = true, timeoutString = "${devices.db-timeout.list-seconds:5}")
+public class DeviceHistoryService implements DeviceHistoryUseCase {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final DeviceRepository devices;
+    private final DeviceStateChangeRepository changes;
+    private final Clock clock;
+
+    @Autowired
+    public DeviceHistoryService(DeviceRepository devices, DeviceStateChangeRepository changes) {
+        this(devices, changes, Clock.systemUTC());
+    }
+
+    DeviceHistoryService(DeviceRepository devices, DeviceStateChangeRepository changes, Clock clock) {
+        this.devices = devices;
+        this.changes = changes;
+        this.clock = clock;
+    }
+
+    @Override
+    public HistoryPage history(UUID deviceId, String cursor, int size) {
+        requireDevice(deviceId);
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        // One extra row tells whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<DeviceStateChange> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = changes.findByDeviceIdOrderByChangedAtDescIdDesc(deviceId, limit);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rows = changes.findPageAfter(deviceId, after.changedAt(), after.id(), limit);
+        }
+        boolean hasNext = rows.size() > pageSize;
+        List<DeviceStateChange> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            DeviceStateChange last = page.getLast();
+            nextCursor = new HistoryCursor(last.getChangedAt(), last.getId()).encode();
+        }
+        var items = page.stream()
+                .map(change -> new StateChangeView(change.getFromState(), change.getToState(), change.getChangedAt()))
+                .toList();
+        return new HistoryPage(items, nextCursor);
+    }
+
+    @Override
+    public StateUtilization utilization(UUID deviceId, OffsetDateTime from, OffsetDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+        requireDevice(deviceId);
+        // Time after now has not happened yet
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        OffsetDateTime end = to.isAfter(now) ? now : to;
+
+        Map<DeviceState, Long> seconds = new EnumMap<>(DeviceState.class);
+        for (DeviceState state : DeviceState.values()) {
+            seconds.put(state, 0L);
+        }
+        DeviceState current = changes
+                .findFirstByDeviceIdAndChangedAtLessThanEqualOrderByChangedAtDescIdDesc(deviceId, from)
+                .map(DeviceStateChange::getToState)
+                .orElse(null);
+        OffsetDateTime since = from;
+        if (end.isAfter(from)) {
+            for (DeviceStateChange change : changes.findWithin(deviceId, from, end)) {
+                if (current != null) {
+                    seconds.merge(current, Duration.between(since, change.getChangedAt()).toSeconds(), Long::sum);
+                }
+                current = change.getToState();
+                since = change.getChangedAt();
+            }
+            if (current != null) {
+                seconds.merge(current, Duration.between(since, end).toSeconds(), Long::sum);
+            }
+        }
+        return new StateUtilization(from, to, seconds);
+    }
+
+    private void requireDevice(UUID deviceId) {
+        if (!devices.existsById(deviceId)) {
+            throw new NoSuchElementException("Device not found: " + deviceId);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.device.management.service.history;
+
+import com.device.management.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position in a device's history: the (changedAt, id) of the last entry returned.
+ */
+record HistoryCursor(OffsetDateTime changedAt, UUID id) {
+
+    String encode() {
+        String raw = changedAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new HistoryCursor(
+                    Instant.parse(raw.substring(0, separator)).atOffset(ZoneOffset.UTC),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new InvalidRequestException("Invalid history cursor: " + cursor, ex);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.device.management.service.idempotency;
+
+import com.device.management.service.dto.DeviceView;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a create made under an idempotency key: the fingerprint of the request and the response to replay.
+ */
+public record IdempotencyRecord(
+        String fingerprint,
+        DeviceView response,
+        Instant expiresAt
+) {}
@@ -0,0 +1,12 @@
+package com.device.management.service.idempotency;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+    /**
+     * The unexpired record stored under the tenant's key, if any. Keys of different tenants never collide.
+     */
+    Optional<IdempotencyRecord> find(String tenant, String key);
+
+    void save(String tenant, String key, IdempotencyRecord record);
+}
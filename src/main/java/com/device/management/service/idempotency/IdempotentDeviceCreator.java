@@ -0,0 +1,143 @@
+package com.device.management.service.idempotency;
+
+import com.device.management.exception.IdempotencyKeyReusedException;
+import com.device.management.exception.InvalidRequestException;
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.coalescing.SingleFlight;
+import com.device.management.service.dto.DeviceCreateCommand;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.service.tenancy.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Creates devices under a client-supplied idempotency key. A retried request with the same key and body gets
+ * the original response instead of creating another device; the same key with a different body is rejected.
+ * Concurrent requests with the same key are merged onto the first one in flight on this instance, and the
+ * optional table store extends the guarantee across instances. Keys are scoped to the tenant of the request.
+ */
+public class IdempotentDeviceCreator {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final DeviceUseCase useCase;
+    private final IdempotencyStore memory;
+    private final JdbcIdempotencyStore table;
+    private final TransactionTemplate transaction;
+    private final Duration ttl;
+    private final Clock clock;
+    private final String defaultTenant;
+    private final SingleFlight<TenantKey, IdempotencyRecord> inFlight;
+    private final Counter replays;
+
+    /**
+     * @param table       shared store, or {@code null} to keep records in memory only
+     * @param transaction transaction joining the create and the table insert; unused without a table
+     * @param defaultTenant tenant of keys used outside a request
+     */
+    public IdempotentDeviceCreator(DeviceUseCase useCase, IdempotencyStore memory, JdbcIdempotencyStore table,
+                                   TransactionTemplate transaction, Duration ttl, Clock clock, String defaultTenant,
+                                   MeterRegistry meterRegistry) {
+        this.useCase = useCase;
+        this.memory = memory;
+        this.table = table;
+        this.transaction = transaction;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.defaultTenant = defaultTenant;
+        this.inFlight = new SingleFlight<>("idempotent-create", meterRegistry);
+        this.replays = Counter.builder("devices.idempotency.replays")
+                .description("Creates answered with the response recorded for their idempotency key")
+                .register(meterRegistry);
+    }
+
+    public DeviceView create(String key, DeviceCreateCommand command) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(command);
+        TenantKey scoped = new TenantKey(Objects.requireNonNullElse(TenantContext.current(), defaultTenant), key);
+        AtomicReference<IdempotencyRecord> createdHere = new AtomicReference<>();
+        IdempotencyRecord record = inFlight.execute(scoped,
+                () -> find(scoped).orElseGet(() -> createOnce(scoped, command, fingerprint, createdHere)));
+        if (!record.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        // A retry, a follower of a coalesced create, or the loser of a race with another instance
+        if (record != createdHere.get()) {
+            replays.increment();
+        }
+        return record.response();
+    }
+
+    private Optional<IdempotencyRecord> find(TenantKey key) {
+        Optional<IdempotencyRecord> record = memory.find(key.tenant(), key.key());
+        if (record.isEmpty() && table != null) {
+            record = table.find(key.tenant(), key.key());
+            record.ifPresent(found -> memory.save(key.tenant(), key.key(), found));
+        }
+        return record;
+    }
+
+    private IdempotencyRecord createOnce(TenantKey key, DeviceCreateCommand command, String fingerprint,
+                                         AtomicReference<IdempotencyRecord> createdHere) {
+        IdempotencyRecord record;
+        if (table == null) {
+            record = new IdempotencyRecord(fingerprint, useCase.create(command), clock.instant().plus(ttl));
+        } else {
+            try {
+                record = transaction.execute(status -> {
+                    IdempotencyRecord created =
+                            new IdempotencyRecord(fingerprint, useCase.create(command), clock.instant().plus(ttl));
+                    table.save(key.tenant(), key.key(), created);
+                    return created;
+                });
+            } catch (DuplicateKeyException ex) {
+                // Another instance created under this key first; our create has been rolled back
+                return find(key).orElseThrow(() -> ex);
+            }
+        }
+        memory.save(key.tenant(), key.key(), record);
+        createdHere.set(record);
+        return record;
+    }
+
+    // Each field is hashed after its length, so no two different bodies share an input whatever their content
+    static String fingerprint(DeviceCreateCommand command) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, command.name());
+            update(digest, command.brand());
+            update(digest, command.state() != null ? command.state().name() : null);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void update(MessageDigest digest, String field) {
+        if (field == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private record TenantKey(String tenant, String key) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.device.management.service.idempotency;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU of recent idempotency records. Entries leave when they expire or when the store is full
+ * and they are the least recently used.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<Key, IdempotencyRecord> records;
+    private final Clock clock;
+
+    public InMemoryIdempotencyStore(int maxEntries, Clock clock) {
+        this.clock = clock;
+        this.records = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<IdempotencyRecord> find(String tenant, String key) {
+        Key scoped = new Key(tenant, key);
+        IdempotencyRecord record = records.get(scoped);
+        if (record != null && !record.expiresAt().isAfter(clock.instant())) {
+            records.remove(scoped);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(record);
+    }
+
+    @Override
+    public synchronized void save(String tenant, String key, IdempotencyRecord record) {
+        records.put(new Key(tenant, key), record);
+    }
+
+    synchronized int size() {
+        return records.size();
+    }
+
+    private record Key(String tenant, String key) {
+    }
+}
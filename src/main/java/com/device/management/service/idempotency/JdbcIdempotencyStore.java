@@ -0,0 +1,73 @@
+package com.device.management.service.idempotency;
+
+import com.device.management.service.dto.DeviceView;
+import com.device.management.state.DeviceState;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency records in the {@code idempotency_keys} table, shared by all instances. The primary key on the
+ * tenant and idempotency key is what serializes concurrent creates across instances: the second insert waits for the
+ * first transaction and then fails with a duplicate key, rolling back its own create.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final RowMapper<IdempotencyRecord> RECORD = (rs, rowNum) -> new IdempotencyRecord(
+            rs.getString("fingerprint"),
+            new DeviceView(
+                    rs.getObject("device_id", UUID.class),
+                    rs.getString("name"),
+                    rs.getString("brand"),
+                    DeviceState.fromCode(rs.getShort("state")),
+                    rs.getObject("creation_time", OffsetDateTime.class)),
+            rs.getObject("expires_at", OffsetDateTime.class).toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String tenant, String key) {
+        return jdbcTemplate.query("""
+                        SELECT fingerprint, device_id, name, brand, state, creation_time, expires_at
+                        FROM idempotency_keys WHERE tenant_id = ? AND idempotency_key = ? AND expires_at > ?""",
+                RECORD, tenant, key, now()).stream().findFirst();
+    }
+
+    /**
+     * Must run in the transaction of the create it records; throws {@code DuplicateKeyException} when
+     * another create holds the key.
+     */
+    @Override
+    public void save(String tenant, String key, IdempotencyRecord record) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE tenant_id = ? AND idempotency_key = ? AND expires_at <= ?",
+                tenant, key, now());
+        DeviceView response = record.response();
+        jdbcTemplate.update("""
+                        INSERT INTO idempotency_keys
+                            (tenant_id, idempotency_key, fingerprint, device_id, name, brand, state, creation_time, expires_at)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""",
+                tenant, key, record.fingerprint(), response.id(), response.name(), response.brand(),
+                response.state().code(), response.creationTime(), record.expiresAt().atOffset(ZoneOffset.UTC));
+    }
+
+    @Scheduled(fixedDelayString = "${devices.idempotency.purge-interval:1h}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", now());
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.now(clock);
+    }
+}
@@ -0,0 +1,197 @@
+package com.device.management.service.lifecycle;
+
+import com.device.management.service.DeviceHistoryUseCase;
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.health.DrainMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.server.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.ContextClosedEvent;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shutdown sequence of the application context:
+ * <ol>
+ *     <li>on close, drain mode: readiness refuses traffic and new API requests get 503, then the optional
+ *     pre-stop delay for load balancers to notice;</li>
+ *     <li>the web server's graceful shutdown waits for the HTTP requests in progress;</li>
+ *     <li>this lifecycle, in the next phase, waits for the tracked use case calls still running (scheduled or
+ *     asynchronous work), then flushes the registered background work stage by stage;</li>
+ *     <li>only then are the beans destroyed, the data source among them.</li>
+ * </ol>
+ * Waiting and flushing share the timeout. The time each step took is logged and the total recorded as the
+ * {@code devices.shutdown} timer, before metrics are flushed.
+ */
+public class GracefulShutdown implements SmartLifecycle, ApplicationListener<ContextClosedEvent> {
+
+    /**
+     * After the web server's graceful shutdown, before the web server stops.
+     */
+    public static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 512;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GracefulShutdown.class);
+
+    /**
+     * Flush order: work producers first, metrics last so that they include the shutdown itself.
+     */
+    public enum Stage { EXECUTORS, WRITES, LOGS, METRICS }
+
+    @FunctionalInterface
+    public interface Flush {
+        /**
+         * @param remaining what is left of the shutdown timeout
+         */
+        void flush(Duration remaining) throws Exception;
+    }
+
+    private record Registration(Stage stage, String name, Flush flush) {
+    }
+
+    private final ApplicationContext applicationContext;
+    private final DrainMode drainMode;
+    private final Duration timeout;
+    private final Duration preStopDelay;
+    private final Timer duration;
+    private final List<InFlightCalls> tracked = new CopyOnWriteArrayList<>();
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private volatile long closedAt;
+
+    public GracefulShutdown(ApplicationContext applicationContext, DrainMode drainMode, Duration timeout,
+                            Duration preStopDelay, MeterRegistry meterRegistry) {
+        this.applicationContext = applicationContext;
+        this.drainMode = drainMode;
+        this.timeout = timeout;
+        this.preStopDelay = preStopDelay;
+        this.duration = Timer.builder("devices.shutdown")
+                .description("Time from context close until background work was flushed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the use case, counting its calls so that shutdown waits for them
+     */
+    public DeviceUseCase track(DeviceUseCase useCase) {
+        InFlightDeviceUseCase inFlight = new InFlightDeviceUseCase(useCase);
+        tracked.add(inFlight);
+        return inFlight;
+    }
+
+    /**
+     * @return the history use case, counting its calls so that shutdown waits for them
+     */
+    public DeviceHistoryUseCase track(DeviceHistoryUseCase useCase) {
+        InFlightDeviceHistoryUseCase inFlight = new InFlightDeviceHistoryUseCase(useCase);
+        tracked.add(inFlight);
+        return inFlight;
+    }
+
+    /**
+     * Flushes the work on shutdown, after the calls in progress, in stage and then registration order.
+     */
+    public void flushOnShutdown(Stage stage, String name, Flush flush) {
+        registrations.add(new Registration(stage, name, flush));
+    }
+
+    @Override
+    public void onApplicationEvent(ContextClosedEvent event) {
+        if (event.getApplicationContext() != applicationContext) {
+            return;
+        }
+        closedAt = System.nanoTime();
+        drainMode.start();
+        if (preStopDelay.isPositive()) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(preStopDelay.toNanos());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        long begin = System.nanoTime();
+        long closed = closedAt == 0 ? begin : closedAt;
+        long deadline = begin + timeout.toNanos();
+
+        long stillRunning = 0;
+        try {
+            for (InFlightCalls useCase : tracked) {
+                if (!useCase.awaitIdle(remaining(deadline))) {
+                    stillRunning += useCase.inFlight();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        long callsDone = System.nanoTime();
+
+        Map<String, Long> flushMillis = new LinkedHashMap<>();
+        List<Registration> ordered = registrations.stream()
+                .sorted(Comparator.comparing(Registration::stage))
+                .toList();
+        boolean recorded = false;
+        for (Registration registration : ordered) {
+            if (registration.stage() == Stage.METRICS && !recorded) {
+                duration.record(System.nanoTime() - closed, TimeUnit.NANOSECONDS);
+                recorded = true;
+            }
+            long start = System.nanoTime();
+            try {
+                registration.flush().flush(remaining(deadline));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while flushing {} on shutdown", registration.name());
+            } catch (Exception ex) {
+                LOGGER.warn("Flushing {} on shutdown failed", registration.name(), ex);
+            }
+            flushMillis.put(registration.name(), millis(System.nanoTime() - start));
+        }
+        long end = System.nanoTime();
+        if (!recorded) {
+            duration.record(end - closed, TimeUnit.NANOSECONDS);
+        }
+        running = false;
+
+        LOGGER.info("Graceful shutdown took {} ms: draining and HTTP requests {} ms, use case calls {} ms "
+                        + "({} still running), flush {} ms {}",
+                millis(end - closed), millis(begin - closed), millis(callsDone - begin), stillRunning,
+                millis(end - callsDone), flushMillis);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private static Duration remaining(long deadline) {
+        return Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,44 @@
+package com.device.management.service.lifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Counts the calls in progress through a use case, so that shutdown can wait for them before the data source closes.
+ */
+public abstract class InFlightCalls {
+
+    private static final long POLL_MILLIS = 10;
+
+    // Striped: every call on every request thread updates it
+    private final LongAdder inFlight = new LongAdder();
+
+    public long inFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * @return {@code true} if no call was in progress any more within the timeout
+     */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.sum() > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+        }
+        return true;
+    }
+
+    protected <T> T count(Supplier<T> call) {
+        inFlight.increment();
+        try {
+            return call.get();
+        } finally {
+            inFlight.decrement();
+        }
+    }
+}
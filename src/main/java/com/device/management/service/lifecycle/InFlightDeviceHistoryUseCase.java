@@ -0,0 +1,30 @@
+package com.device.management.service.lifecycle;
+
+import com.device.management.service.DeviceHistoryUseCase;
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.dto.StateUtilization;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Counts the history calls in progress, like {@link InFlightDeviceUseCase} the device calls.
+ */
+public class InFlightDeviceHistoryUseCase extends InFlightCalls implements DeviceHistoryUseCase {
+
+    private final DeviceHistoryUseCase delegate;
+
+    public InFlightDeviceHistoryUseCase(DeviceHistoryUseCase delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public HistoryPage history(UUID deviceId, String cursor, int size) {
+        return count(() -> delegate.history(deviceId, cursor, size));
+    }
+
+    @Override
+    public StateUtilization utilization(UUID deviceId, OffsetDateTime from, OffsetDateTime to) {
+        return count(() -> delegate.utilization(deviceId, from, to));
+    }
+}
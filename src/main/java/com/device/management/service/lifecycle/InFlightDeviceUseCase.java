@@ -0,0 +1,63 @@
+package com.device.management.service.lifecycle;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Counts the use case calls in progress, so that shutdown can wait for them before the data source closes.
+ */
+public class InFlightDeviceUseCase extends InFlightCalls implements DeviceUseCase {
+
+    private final DeviceUseCase delegate;
+
+    public InFlightDeviceUseCase(DeviceUseCase delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public DeviceView create(DeviceCreateCommand deviceCreateCommand) {
+        return count(() -> delegate.create(deviceCreateCommand));
+    }
+
+    @Override
+    public List<DeviceView> createAll(List<DeviceCreateCommand> deviceCreateCommands) {
+        return count(() -> delegate.createAll(deviceCreateCommands));
+    }
+
+    @Override
+    public DeviceView updateFull(UUID id, DeviceCreateCommand deviceCreateCommand) {
+        return count(() -> delegate.updateFull(id, deviceCreateCommand));
+    }
+
+    @Override
+    public DeviceView updatePartial(UUID id, DeviceUpdateCommand deviceUpdateCommand) {
+        return count(() -> delegate.updatePartial(id, deviceUpdateCommand));
+    }
+
+    @Override
+    public List<BatchItemResult> updateBatch(Map<UUID, DeviceUpdateCommand> updates) {
+        return count(() -> delegate.updateBatch(updates));
+    }
+
+    @Override
+    public DeviceView get(UUID id) {
+        return count(() -> delegate.get(id));
+    }
+
+    @Override
+    public PageResult<DeviceView> list(DeviceFilter filter, PageRequest pageRequest) {
+        return count(() -> delegate.list(filter, pageRequest));
+    }
+
+    @Override
+    public void delete(UUID id) {
+        count(() -> {
+            delegate.delete(id);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.device.management.service.partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Creates the monthly range partitions of a table ahead of time, so that inserts never hit a month
+ * without a partition, and drops the partitions that fall out of the retention period, if one is set.
+ * Runs once at startup and then on the configured schedule; the partition layout itself lives in the
+ * {@code <table>_create_partitions} and {@code <table>_drop_partitions} database functions.
+ */
+public class PartitionMaintenance {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final int monthsAhead;
+    private final Duration retention;
+
+    public PartitionMaintenance(JdbcTemplate jdbcTemplate, String table, int monthsAhead, Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.monthsAhead = monthsAhead;
+        this.retention = retention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${devices.partitioning.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT " + table + "_create_partitions(?)", Integer.class, monthsAhead);
+        if (created != null && created > 0) {
+            LOGGER.info("Created {} {} partition(s), covering {} month(s) ahead", created, table, monthsAhead);
+        }
+        if (retention != null) {
+            Integer dropped = jdbcTemplate.queryForObject(
+                    "SELECT " + table + "_drop_partitions(CURRENT_TIMESTAMP - CAST(? AS BIGINT) * INTERVAL '1' SECOND)",
+                    Integer.class, retention.toSeconds());
+            if (dropped != null && dropped > 0) {
+                LOGGER.info("Dropped {} {} partition(s) older than {}", dropped, table, retention);
+            }
+        }
+    }
+}
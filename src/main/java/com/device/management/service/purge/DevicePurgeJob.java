@@ -0,0 +1,85 @@
+package com.device.management.service.purge;
+
+import com.device.management.config.PurgeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hard-deletes devices whose tombstone is older than the retention period, off the request path.
+ * Each batch is its own short transaction and batches are separated by a pause, so a mass
+ * decommissioning is purged gradually instead of locking many rows at once. Every instance runs the job;
+ * a batch skips the tombstones another instance's batch has locked, so concurrent runs split the work instead
+ * of waiting on each other.
+ * <p>
+ * With row-level security on, the application's role sees only the devices of the tenant its transaction declares.
+ * Each batch then runs in a transaction switched to the {@code devices_purge} role, whose policy exposes the
+ * tombstones of every tenant, and only those.
+ */
+public class DevicePurgeJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DevicePurgeJob.class);
+
+    private static final String PURGE_BATCH = "DELETE FROM devices WHERE id IN ("
+            + "SELECT id FROM devices WHERE deleted_at < CURRENT_TIMESTAMP - CAST(? AS BIGINT) * INTERVAL '1' SECOND "
+            + "ORDER BY deleted_at LIMIT ? FOR UPDATE SKIP LOCKED)";
+    private static final String PURGE_ROLE = "SET LOCAL ROLE devices_purge";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PurgeProperties properties;
+    private final boolean rowLevelSecurity;
+    private final Counter purged;
+
+    public DevicePurgeJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, PurgeProperties properties,
+                          boolean rowLevelSecurity, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.rowLevelSecurity = rowLevelSecurity;
+        this.purged = Counter.builder("devices.purged")
+                .description("Soft-deleted devices removed by the purge job")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${devices.purge.interval:5m}", fixedDelayString = "${devices.purge.interval:5m}")
+    public void purge() {
+        long total = 0;
+        for (int batch = 0; batch < properties.maxBatchesPerRun(); batch++) {
+            int deleted = purgeBatch();
+            purged.increment(deleted);
+            total += deleted;
+            if (deleted < properties.batchSize() || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            LOGGER.info("Purged {} soft-deleted device(s)", total);
+        }
+    }
+
+    private int purgeBatch() {
+        if (!rowLevelSecurity) {
+            return jdbcTemplate.update(PURGE_BATCH, properties.retention().toSeconds(), properties.batchSize());
+        }
+        Integer deleted = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(PURGE_ROLE);
+            return jdbcTemplate.update(PURGE_BATCH, properties.retention().toSeconds(), properties.batchSize());
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.batchPause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
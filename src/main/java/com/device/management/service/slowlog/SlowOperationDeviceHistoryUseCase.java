@@ -0,0 +1,45 @@
+package com.device.management.service.slowlog;
+
+import com.device.management.service.DeviceHistoryUseCase;
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.dto.StateUtilization;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.device.management.service.slowlog.SlowOperationDeviceUseCase.details;
+
+/**
+ * Records the history calls that take at least the threshold in the {@link SlowOperationLog}, like
+ * {@link SlowOperationDeviceUseCase} the device calls.
+ */
+public class SlowOperationDeviceHistoryUseCase implements DeviceHistoryUseCase {
+
+    private final DeviceHistoryUseCase delegate;
+    private final SlowOperationLog log;
+    private final long thresholdNanos;
+
+    public SlowOperationDeviceHistoryUseCase(DeviceHistoryUseCase delegate, SlowOperationLog log, Duration threshold) {
+        this.delegate = delegate;
+        this.log = log;
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public HistoryPage history(UUID deviceId, String cursor, int size) {
+        return SlowOperationDeviceUseCase.time(log, thresholdNanos, "history",
+                () -> delegate.history(deviceId, cursor, size),
+                () -> details("id", deviceId, "cursor", cursor, "size", size),
+                page -> details("items", page.items().size()));
+    }
+
+    @Override
+    public StateUtilization utilization(UUID deviceId, OffsetDateTime from, OffsetDateTime to) {
+        return SlowOperationDeviceUseCase.time(log, thresholdNanos, "utilization",
+                () -> delegate.utilization(deviceId, from, to),
+                () -> details("id", deviceId, "from", from, "to", to),
+                utilization -> Map.of());
+    }
+}
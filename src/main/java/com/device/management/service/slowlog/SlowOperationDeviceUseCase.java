@@ -0,0 +1,144 @@
+package com.device.management.service.slowlog;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.*;
+import com.device.management.service.slowlog.SlowOperationLog.SlowCall;
+import com.device.management.service.tenancy.TenantContext;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Records use case calls that take at least the threshold in the {@link SlowOperationLog}: the operation, the
+ * tenant, its arguments (for {@code list} the bound filter, page and sort) and the number of devices returned. Details are
+ * only collected once a call turned out to be slow.
+ */
+public class SlowOperationDeviceUseCase implements DeviceUseCase {
+
+    private final DeviceUseCase delegate;
+    private final SlowOperationLog log;
+    private final long thresholdNanos;
+
+    public SlowOperationDeviceUseCase(DeviceUseCase delegate, SlowOperationLog log, Duration threshold) {
+        this.delegate = delegate;
+        this.log = log;
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public DeviceView create(DeviceCreateCommand deviceCreateCommand) {
+        return time("create", () -> delegate.create(deviceCreateCommand),
+                () -> details("brand", deviceCreateCommand.brand(), "state", deviceCreateCommand.state()),
+                view -> details("id", view.id()));
+    }
+
+    @Override
+    public List<DeviceView> createAll(List<DeviceCreateCommand> deviceCreateCommands) {
+        return time("createAll", () -> delegate.createAll(deviceCreateCommands),
+                () -> details("requested", deviceCreateCommands.size()),
+                views -> details("items", views.size()));
+    }
+
+    @Override
+    public DeviceView updateFull(UUID id, DeviceCreateCommand deviceCreateCommand) {
+        return time("updateFull", () -> delegate.updateFull(id, deviceCreateCommand),
+                () -> details("id", id, "brand", deviceCreateCommand.brand(), "state", deviceCreateCommand.state()),
+                view -> Map.of());
+    }
+
+    @Override
+    public DeviceView updatePartial(UUID id, DeviceUpdateCommand deviceUpdateCommand) {
+        return time("updatePartial", () -> delegate.updatePartial(id, deviceUpdateCommand),
+                () -> details("id", id, "brand", deviceUpdateCommand.brand(), "state", deviceUpdateCommand.state()),
+                view -> Map.of());
+    }
+
+    @Override
+    public List<BatchItemResult> updateBatch(Map<UUID, DeviceUpdateCommand> updates) {
+        return time("updateBatch", () -> delegate.updateBatch(updates),
+                () -> details("requested", updates.size()),
+                results -> details("items", results.size()));
+    }
+
+    @Override
+    public DeviceView get(UUID id) {
+        return time("get", () -> delegate.get(id), () -> details("id", id), view -> Map.of());
+    }
+
+    @Override
+    public PageResult<DeviceView> list(DeviceFilter filter, PageRequest pageRequest) {
+        return time("list", () -> delegate.list(filter, pageRequest),
+                () -> details("brand", filter == null ? null : filter.brand(),
+                        "state", filter == null ? null : filter.state(),
+                        "page", pageRequest.page(),
+                        "size", pageRequest.size(),
+                        "sort", sort(pageRequest.sort())),
+                page -> details("items", page.items().size(), "total", page.totalItems()));
+    }
+
+    @Override
+    public void delete(UUID id) {
+        time("delete", () -> {
+            delegate.delete(id);
+            return null;
+        }, () -> details("id", id), ignored -> Map.of());
+    }
+
+    private <T> T time(String operation, Supplier<T> call, Supplier<Map<String, Object>> arguments,
+                       Function<T, Map<String, Object>> results) {
+        return time(log, thresholdNanos, operation, call, arguments, results);
+    }
+
+    static <T> T time(SlowOperationLog log, long thresholdNanos, String operation, Supplier<T> call,
+                      Supplier<Map<String, Object>> arguments, Function<T, Map<String, Object>> results) {
+        long start = System.nanoTime();
+        T result = null;
+        String outcome = "ok";
+        try {
+            result = call.get();
+            return result;
+        } catch (RuntimeException ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= thresholdNanos) {
+                Map<String, Object> details = details("tenant", TenantContext.current());
+                details.putAll(arguments.get());
+                if (result != null) {
+                    details.putAll(results.apply(result));
+                }
+                log.record(new SlowCall(operation, Duration.ofNanos(elapsed), details, outcome,
+                        SlowOperationLog.currentTraceId()));
+            }
+        }
+    }
+
+    /**
+     * Ordered details from alternating keys and values, leaving out absent values.
+     */
+    static Map<String, Object> details(Object... keysAndValues) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            if (keysAndValues[i + 1] != null) {
+                details.put((String) keysAndValues[i], keysAndValues[i + 1]);
+            }
+        }
+        return details;
+    }
+
+    private static String sort(List<SortOrder> sort) {
+        if (sort == null || sort.isEmpty()) {
+            return null;
+        }
+        return sort.stream()
+                .map(order -> order.property() + "," + order.direction().name().toLowerCase())
+                .collect(Collectors.joining(";"));
+    }
+}
@@ -0,0 +1,235 @@
+package com.device.management.service.slowlog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Writes slow use case calls and SQL statements to the {@code devices.slow} logger, one WARN event per entry
+ * with its details as {@code key=value} text and as key-value pairs. Callers only enqueue: a single writer thread formats the entries,
+ * normalizes the SQL, runs the optional {@code EXPLAIN} and logs. When the bounded queue is full the entry is
+ * dropped and counted, so a burst of slow calls never blocks request threads on logging.
+ */
+public class SlowOperationLog implements AutoCloseable {
+
+    static final String LOGGER_NAME = "devices.slow";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final int MAX_PARAMETER_LENGTH = 64;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    sealed interface Entry permits SlowCall, SlowStatement {
+    }
+
+    /**
+     * @param details arguments (filter, page, sort, ids) and row counts of the call, in logging order
+     * @param outcome {@code ok}, or the simple name of the exception thrown
+     */
+    public record SlowCall(String operation, Duration duration, Map<String, Object> details, String outcome,
+                           String traceId) implements Entry {
+    }
+
+    /**
+     * @param parameters bound values of the first (or only) execution of a batch
+     * @param rows       rows written; {@code null} for queries, whose result set is read after the statement
+     */
+    public record SlowStatement(String sql, List<ParameterSetOperation> parameters, int executions, Long rows,
+                                Duration duration, String outcome, String traceId) implements Entry {
+    }
+
+    private final BlockingQueue<Entry> queue;
+    private final boolean includeParameters;
+    private final StatementExplainer explainer;
+    private final BiConsumer<String, Map<String, Object>> sink;
+    private final Counter calls;
+    private final Counter statements;
+    private final Counter dropped;
+    private final Thread writer;
+
+    /**
+     * @param explainer runs {@code EXPLAIN} for slow queries; {@code null} to log without plans
+     */
+    public SlowOperationLog(int queueCapacity, boolean includeParameters, StatementExplainer explainer,
+                            MeterRegistry meterRegistry) {
+        this(queueCapacity, includeParameters, explainer, meterRegistry, SlowOperationLog::log);
+    }
+
+    SlowOperationLog(int queueCapacity, boolean includeParameters, StatementExplainer explainer,
+                     MeterRegistry meterRegistry, BiConsumer<String, Map<String, Object>> sink) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.includeParameters = includeParameters;
+        this.explainer = explainer;
+        this.sink = sink;
+        this.calls = entries(meterRegistry, "operation");
+        this.statements = entries(meterRegistry, "statement");
+        this.dropped = Counter.builder("devices.slow-log.dropped")
+                .description("Slow operation entries discarded because the log queue was full")
+                .register(meterRegistry);
+        this.writer = Thread.ofPlatform().name("devices-slow-log").daemon().start(this::run);
+    }
+
+    /**
+     * Enqueues the entry without blocking.
+     *
+     * @return {@code false} if the queue was full and the entry was dropped
+     */
+    public boolean record(Entry entry) {
+        (entry instanceof SlowCall ? calls : statements).increment();
+        if (queue.offer(entry)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * Whether the caller is the writer thread, whose own {@code EXPLAIN} statements must not be logged.
+     */
+    public boolean isWriterThread() {
+        return Thread.currentThread() == writer;
+    }
+
+    /**
+     * Trace of the current span, to correlate a statement with its use case call and request.
+     */
+    public static String currentTraceId() {
+        return MDC.get("traceId");
+    }
+
+    /**
+     * Writes what is already queued, without plans, and stops the writer.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                write(queue.take(), true);
+            }
+        } catch (InterruptedException ex) {
+            // close(): the pool may be shutting down, so skip EXPLAIN for the remaining entries
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                write(entry, false);
+            }
+        }
+    }
+
+    private void write(Entry entry, boolean explain) {
+        try {
+            switch (entry) {
+                case SlowCall call -> sink.accept("slow use case call", fields(call));
+                case SlowStatement statement -> sink.accept("slow SQL statement", fields(statement, explain));
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.debug("Could not write slow operation entry", ex);
+        }
+    }
+
+    static Map<String, Object> fields(SlowCall call) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("operation", call.operation());
+        fields.put("durationMs", call.duration().toMillis());
+        fields.put("outcome", call.outcome());
+        fields.putAll(call.details());
+        putIfPresent(fields, "traceId", call.traceId());
+        return fields;
+    }
+
+    Map<String, Object> fields(SlowStatement statement, boolean explain) {
+        String query = normalize(statement.sql());
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("query", query);
+        fields.put("durationMs", statement.duration().toMillis());
+        fields.put("outcome", statement.outcome());
+        if (includeParameters && !statement.parameters().isEmpty()) {
+            fields.put("parameters", format(statement.parameters()));
+        }
+        if (statement.executions() > 1) {
+            fields.put("executions", statement.executions());
+        }
+        putIfPresent(fields, "rows", statement.rows());
+        putIfPresent(fields, "traceId", statement.traceId());
+        if (explain && explainer != null) {
+            putIfPresent(fields, "plan", explainer.explain(query, statement.sql(), statement.parameters()));
+        }
+        return fields;
+    }
+
+    /**
+     * Statement text with literals replaced by {@code ?}, parameter lists of any length folded to one
+     * {@code ?} and whitespace collapsed, so that occurrences of the same statement read (and group) alike.
+     */
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = PARAMETER_LIST.matcher(normalized).replaceAll("?");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    private static String format(List<ParameterSetOperation> parameters) {
+        StringJoiner values = new StringJoiner(", ", "[", "]");
+        for (ParameterSetOperation parameter : parameters) {
+            Object[] args = parameter.getArgs();
+            if (ParameterSetOperation.isSetNullParameterOperation(parameter) || args.length < 2) {
+                values.add("null");
+                continue;
+            }
+            String value = String.valueOf(args[1]);
+            values.add(value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value);
+        }
+        return values.toString();
+    }
+
+    private static void putIfPresent(Map<String, Object> fields, String key, Object value) {
+        if (value != null) {
+            fields.put(key, value);
+        }
+    }
+
+    // Fields in the message for plain-text output, and as key-value pairs for structured output
+    private static void log(String message, Map<String, Object> fields) {
+        StringBuilder text = new StringBuilder(message).append(':');
+        LoggingEventBuilder event = LOGGER.atWarn();
+        fields.forEach((key, value) -> {
+            String rendered = String.valueOf(value);
+            text.append(' ').append(key).append('=');
+            if (rendered.chars().anyMatch(Character::isWhitespace)) {
+                text.append('"').append(rendered.replace("\"", "\\\"")).append('"');
+            } else {
+                text.append(rendered);
+            }
+            event.addKeyValue(key, value);
+        });
+        event.setMessage(text.toString()).log();
+    }
+
+    private static Counter entries(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("devices.slow-log.entries")
+                .description("Use case calls and SQL statements above their slow-log threshold")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
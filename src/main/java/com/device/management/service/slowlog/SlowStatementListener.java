@@ -0,0 +1,77 @@
+package com.device.management.service.slowlog;
+
+import com.device.management.service.slowlog.SlowOperationLog.SlowStatement;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Records JDBC statements whose execution took at least the threshold in the {@link SlowOperationLog}, with
+ * their bound values and the rows written. The time is that of the execute call only: reading a query's result
+ * set afterwards is not included.
+ */
+public class SlowStatementListener implements QueryExecutionListener {
+
+    private final Supplier<SlowOperationLog> slowOperationLog;
+    private final long thresholdMillis;
+
+    public SlowStatementListener(Supplier<SlowOperationLog> slowOperationLog, Duration threshold) {
+        this.slowOperationLog = slowOperationLog;
+        this.thresholdMillis = threshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        SlowOperationLog log = slowOperationLog.get();
+        if (log.isWriterThread()) {
+            return;
+        }
+        Duration duration = Duration.ofMillis(execInfo.getElapsedTime());
+        String outcome = execInfo.isSuccess() ? "ok" : execInfo.getThrowable().getClass().getSimpleName();
+        Long rows = rows(execInfo.getResult());
+        String traceId = SlowOperationLog.currentTraceId();
+        for (QueryInfo query : queryInfoList) {
+            List<List<ParameterSetOperation>> executions = query.getParametersList();
+            List<ParameterSetOperation> parameters = executions.isEmpty() ? List.of() : List.copyOf(executions.getFirst());
+            log.record(new SlowStatement(query.getQuery(), parameters, Math.max(1, executions.size()), rows,
+                    duration, outcome, traceId));
+        }
+    }
+
+    /**
+     * Update count of {@code executeUpdate} or the sum over {@code executeBatch}; {@code null} for a result set.
+     */
+    static Long rows(Object result) {
+        return switch (result) {
+            case Integer count -> count.longValue();
+            case Long count -> count;
+            case int[] counts -> {
+                long sum = 0;
+                for (int count : counts) {
+                    sum += Math.max(count, 0);
+                }
+                yield sum;
+            }
+            case long[] counts -> {
+                long sum = 0;
+                for (long count : counts) {
+                    sum += Math.max(count, 0);
+                }
+                yield sum;
+            }
+            case null, default -> null;
+        };
+    }
+}
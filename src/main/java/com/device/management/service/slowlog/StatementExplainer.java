@@ -0,0 +1,78 @@
+package com.device.management.service.slowlog;
+
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Fetches the plan of a slow query with plain {@code EXPLAIN} (never {@code ANALYZE}, which would run the query
+ * again) and the original bound values, on a pooled connection of its own. Each normalized query is explained
+ * at most once per interval, so a recurring slow query costs one extra connection use, not one per occurrence.
+ * Only {@code SELECT} statements are explained.
+ */
+public class StatementExplainer {
+
+    private static final int MAX_TRACKED_QUERIES = 1_000;
+    private static final int TIMEOUT_SECONDS = 5;
+
+    private final Supplier<DataSource> dataSource;
+    private final long intervalNanos;
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+
+    public StatementExplainer(Supplier<DataSource> dataSource, Duration interval) {
+        this.dataSource = dataSource;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * @param query normalized form of {@code sql}, which identifies it for the interval
+     * @return the plan, one line per plan row; {@code null} if the statement is not a query, was explained
+     * within the interval or could not be explained
+     */
+    public String explain(String query, String sql, List<ParameterSetOperation> parameters) {
+        if (!sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select") || !due(query)) {
+            return null;
+        }
+        try (Connection connection = dataSource.get().getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            statement.setQueryTimeout(TIMEOUT_SECONDS);
+            for (ParameterSetOperation parameter : parameters) {
+                parameter.getMethod().invoke(statement, parameter.getArgs());
+            }
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.add(rows.getString(1));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException | IllegalAccessException | InvocationTargetException ex) {
+            return "EXPLAIN failed: " + ex;
+        }
+    }
+
+    private boolean due(String query) {
+        long now = System.nanoTime();
+        if (lastExplained.size() >= MAX_TRACKED_QUERIES) {
+            lastExplained.clear();
+        }
+        Long last = lastExplained.get(query);
+        if (last != null && now - last < intervalNanos) {
+            return false;
+        }
+        lastExplained.put(query, now);
+        return true;
+    }
+}
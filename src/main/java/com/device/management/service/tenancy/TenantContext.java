@@ -0,0 +1,64 @@
+package com.device.management.service.tenancy;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Tenant of the work on the current thread. Set by the
+ * {@link com.device.management.controller.filter.TenantFilter} for API requests and carried to the async query
+ * executor by context propagation; background threads run without one and fall back to the default tenant where a
+ * tenant is needed.
+ */
+public final class TenantContext {
+
+    /**
+     * Context propagation key, and the MDC key of the tenant in log events.
+     */
+    public static final String KEY = "tenant";
+
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,62}");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * @return the tenant of the current thread, or {@code null} if none is set
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs the call as the tenant and then restores the tenant the thread had before.
+     */
+    public static <T> T call(String tenant, Supplier<T> call) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Letters, digits, {@code _} and {@code -}, up to 63 characters, starting with a letter or digit: safe as a
+     * metric tag, a log field and a PostgreSQL setting value.
+     */
+    public static boolean isValid(String tenant) {
+        return tenant != null && TENANT_ID.matcher(tenant).matches();
+    }
+}
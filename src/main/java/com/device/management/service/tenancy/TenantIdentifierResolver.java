@@ -0,0 +1,27 @@
+package com.device.management.service.tenancy;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Tenant of each Hibernate session, read when the session opens (at transaction begin). Hibernate writes it into
+ * the {@code @TenantId} column of new devices and restricts every device query and load by id to it.
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    private final String defaultTenant;
+
+    public TenantIdentifierResolver(String defaultTenant) {
+        this.defaultTenant = defaultTenant;
+    }
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String tenant = TenantContext.current();
+        return tenant != null ? tenant : defaultTenant;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return true;
+    }
+}
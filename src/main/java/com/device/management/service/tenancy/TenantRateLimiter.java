@@ -0,0 +1,101 @@
+package com.device.management.service.tenancy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per tenant: each tenant may send {@code burst} requests at once and then {@code permitsPerSecond}
+ * on average, independently of the others, so one tenant's burst of large list queries cannot take the
+ * capacity shared by all of them. At most {@code maxTenants} buckets are kept, whatever tenant ids requests
+ * carry: a new tenant past the bound first drops the buckets refilled to their burst, which are no different from
+ * new ones, and then the least recently used quarter.
+ */
+public class TenantRateLimiter {
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final int maxTenants;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public TenantRateLimiter(double permitsPerSecond, int burst, int maxTenants) {
+        this(permitsPerSecond, burst, maxTenants, System::nanoTime);
+    }
+
+    TenantRateLimiter(double permitsPerSecond, int burst, int maxTenants, LongSupplier nanoClock) {
+        this.permitsPerNano = permitsPerSecond / 1e9;
+        this.burst = burst > 0 ? burst : Math.max(1, Math.ceil(permitsPerSecond));
+        this.maxTenants = Math.max(1, maxTenants);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a permit for the tenant.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the tenant's next permit
+     */
+    public long tryAcquire(String tenant) {
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.get(tenant);
+        if (bucket == null) {
+            if (buckets.size() >= maxTenants) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(tenant, ignored -> new Bucket(burst, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    int tenants() {
+        return buckets.size();
+    }
+
+    private synchronized void evict(long now) {
+        if (buckets.size() < maxTenants) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        int excess = buckets.size() - maxTenants * 3 / 4;
+        if (excess > 0) {
+            // Sorted on a snapshot: requests keep updating the buckets meanwhile
+            buckets.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue().refilledAt()))
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(buckets::remove);
+        }
+    }
+
+    private final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        private synchronized long tryAcquire(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / permitsPerNano);
+        }
+
+        private synchronized boolean isFull(long now) {
+            return tokens + (now - refilledAt) * permitsPerNano >= burst;
+        }
+
+        private synchronized long refilledAt() {
+            return refilledAt;
+        }
+    }
+}
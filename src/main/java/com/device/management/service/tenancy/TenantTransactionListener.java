@@ -0,0 +1,31 @@
+package com.device.management.service.tenancy;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * With row-level security on, declares the tenant of each new transaction to PostgreSQL as the transaction-local
+ * {@code devices.tenant_id} setting, which the {@code devices} policies compare {@code tenant_id} with. Costs one
+ * statement per transaction. A connection used outside a transaction has no tenant and sees no devices.
+ */
+public class TenantTransactionListener implements TransactionExecutionListener {
+
+    static final String SET_TENANT = "SELECT set_config('devices.tenant_id', ?, true)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String defaultTenant;
+
+    public TenantTransactionListener(JdbcTemplate jdbcTemplate, String defaultTenant) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultTenant = defaultTenant;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure == null) {
+            String tenant = TenantContext.current();
+            jdbcTemplate.queryForObject(SET_TENANT, String.class, tenant != null ? tenant : defaultTenant);
+        }
+    }
+}
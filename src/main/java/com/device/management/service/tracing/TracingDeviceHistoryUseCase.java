@@ -0,0 +1,38 @@
+package com.device.management.service.tracing;
+
+import com.device.management.service.DeviceHistoryUseCase;
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.dto.StateUtilization;
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Observes the history calls as {@code devices.use-case} observations, like {@link TracingDeviceUseCase} the
+ * device calls, so that they share its spans and timer, tagged {@code history} and {@code utilization}.
+ */
+public class TracingDeviceHistoryUseCase implements DeviceHistoryUseCase {
+
+    private final DeviceHistoryUseCase delegate;
+    private final ObservationRegistry registry;
+
+    public TracingDeviceHistoryUseCase(DeviceHistoryUseCase delegate, ObservationRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public HistoryPage history(UUID deviceId, String cursor, int size) {
+        return TracingDeviceUseCase.observe(registry, "DeviceHistoryUseCase", "history", KeyValues.empty(),
+                () -> delegate.history(deviceId, cursor, size),
+                page -> TracingDeviceUseCase.items(page.items().size()));
+    }
+
+    @Override
+    public StateUtilization utilization(UUID deviceId, OffsetDateTime from, OffsetDateTime to) {
+        return TracingDeviceUseCase.observe(registry, "DeviceHistoryUseCase", "utilization", KeyValues.empty(),
+                () -> delegate.utilization(deviceId, from, to), utilization -> KeyValues.empty());
+    }
+}
@@ -0,0 +1,119 @@
+package com.device.management.service.tracing;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.*;
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Observes every use case call as a {@code devices.use-case} observation, which becomes a span (child of the
+ * controller span, parent of the JDBC spans) and a timer. Low-cardinality tags name the operation and, for
+ * {@code list}, the filter branch; the number of devices handled and the list total are span-only tags.
+ */
+public class TracingDeviceUseCase implements DeviceUseCase {
+
+    static final String NAME = "devices.use-case";
+
+    private final DeviceUseCase delegate;
+    private final ObservationRegistry registry;
+
+    public TracingDeviceUseCase(DeviceUseCase delegate, ObservationRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public DeviceView create(DeviceCreateCommand deviceCreateCommand) {
+        return observe("create", KeyValues.empty(), () -> delegate.create(deviceCreateCommand), view -> items(1));
+    }
+
+    @Override
+    public List<DeviceView> createAll(List<DeviceCreateCommand> deviceCreateCommands) {
+        return observe("createAll", KeyValues.empty(), () -> delegate.createAll(deviceCreateCommands),
+                views -> items(views.size()));
+    }
+
+    @Override
+    public DeviceView updateFull(UUID id, DeviceCreateCommand deviceCreateCommand) {
+        return observe("updateFull", KeyValues.empty(), () -> delegate.updateFull(id, deviceCreateCommand),
+                view -> items(1));
+    }
+
+    @Override
+    public DeviceView updatePartial(UUID id, DeviceUpdateCommand deviceUpdateCommand) {
+        return observe("updatePartial", KeyValues.empty(), () -> delegate.updatePartial(id, deviceUpdateCommand),
+                view -> items(1));
+    }
+
+    @Override
+    public List<BatchItemResult> updateBatch(Map<UUID, DeviceUpdateCommand> updates) {
+        return observe("updateBatch", KeyValues.empty(), () -> delegate.updateBatch(updates),
+                results -> items(results.size()));
+    }
+
+    @Override
+    public DeviceView get(UUID id) {
+        return observe("get", KeyValues.empty(), () -> delegate.get(id), view -> items(1));
+    }
+
+    @Override
+    public PageResult<DeviceView> list(DeviceFilter filter, PageRequest pageRequest) {
+        return observe("list", KeyValues.of("devices.filter", filterBranch(filter)),
+                () -> delegate.list(filter, pageRequest),
+                page -> items(page.items().size()).and("devices.total", Long.toString(page.totalItems())));
+    }
+
+    @Override
+    public void delete(UUID id) {
+        observe("delete", KeyValues.empty(), () -> {
+            delegate.delete(id);
+            return null;
+        }, ignored -> items(1));
+    }
+
+    /**
+     * Repository query chosen by the service for the filter; an unknown brand matches without a device query.
+     */
+    static String filterBranch(DeviceFilter filter) {
+        boolean brand = filter != null && filter.brand() != null;
+        boolean state = filter != null && filter.state() != null;
+        if (brand && state) {
+            return "brand-state";
+        }
+        return brand ? "brand" : state ? "state" : "none";
+    }
+
+    private <T> T observe(String operation, KeyValues tags, Supplier<T> call, Function<T, KeyValues> resultTags) {
+        return observe(registry, "DeviceUseCase", operation, tags, call, resultTags);
+    }
+
+    static <T> T observe(ObservationRegistry registry, String useCase, String operation, KeyValues tags,
+                         Supplier<T> call, Function<T, KeyValues> resultTags) {
+        Observation observation = Observation.createNotStarted(NAME, registry)
+                .contextualName(useCase + "#" + operation)
+                .lowCardinalityKeyValue("devices.operation", operation)
+                .lowCardinalityKeyValues(tags)
+                .start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            T result = call.get();
+            observation.highCardinalityKeyValues(resultTags.apply(result));
+            return result;
+        } catch (RuntimeException ex) {
+            observation.error(ex);
+            throw ex;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    static KeyValues items(int count) {
+        return KeyValues.of("devices.items", Integer.toString(count));
+    }
+}
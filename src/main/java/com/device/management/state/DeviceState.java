@@ -1,7 +1,33 @@
 package com.device.management.state;
 
 public enum DeviceState {
-    AVAILABLE,
-    IN_USE,
-    INACTIVE
+    AVAILABLE((short) 0),
+    IN_USE((short) 1),
+    INACTIVE((short) 2);
+
+    private static final DeviceState[] BY_CODE = new DeviceState[values().length];
+
+    static {
+        for (DeviceState state : values()) {
+            BY_CODE[state.code] = state;
+        }
+    }
+
+    // Stable storage code, independent of declaration order
+    private final short code;
+
+    DeviceState(short code) {
+        this.code = code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static DeviceState fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown device state code: " + code);
+        }
+        return BY_CODE[code];
+    }
 }
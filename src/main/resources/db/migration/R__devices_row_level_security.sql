@@ -0,0 +1,49 @@
+-- Optional PostgreSQL row-level security on devices (devices.tenancy.row-level-security). Flyway re-applies this
+-- repeatable migration whenever the ${row_level_security} placeholder changes, which switches it on or off.
+-- Each application transaction declares its tenant as the transaction-local devices.tenant_id setting
+-- (TenantTransactionListener); statements without it see and change no devices.
+-- FORCE applies the policies to the table owner too, so later migrations changing device rows see none either: a
+-- data migration declares the tenant it changes (SET LOCAL devices.tenant_id), or spans every tenant between
+-- ALTER TABLE devices NO FORCE ROW LEVEL SECURITY and ALTER TABLE devices FORCE ROW LEVEL SECURITY.
+
+DROP POLICY IF EXISTS devices_tenant_isolation ON devices;
+CREATE POLICY devices_tenant_isolation ON devices
+    USING (tenant_id = current_setting('devices.tenant_id', true))
+    WITH CHECK (tenant_id = current_setting('devices.tenant_id', true));
+
+-- Earlier versions let every role read and delete the tombstones of all tenants
+DROP POLICY IF EXISTS devices_select_tombstones ON devices;
+DROP POLICY IF EXISTS devices_delete_tombstones ON devices;
+DROP POLICY IF EXISTS devices_purge_tombstones ON devices;
+
+-- The purge job removes tombstones of every tenant without declaring one. It switches to the NOLOGIN role
+-- devices_purge for its batches (SET LOCAL ROLE), the only role that sees tombstones across tenants. The migrating
+-- role, normally the application's, may switch to it but must not inherit its policy, or every transaction would
+-- see the tombstones. It is granted devices_purge through the NOINHERIT role devices_purge_switch: membership
+-- through it allows SET ROLE, and inheritance stops at it (PostgreSQL 13 and later; a plain GRANT of devices_purge
+-- would be inherited). Creating the roles needs CREATEROLE; otherwise create and grant them beforehand.
+DO $$
+BEGIN
+    IF '${row_level_security}' = 'true' THEN
+        IF NOT EXISTS (SELECT FROM pg_roles WHERE rolname = 'devices_purge') THEN
+            CREATE ROLE devices_purge NOLOGIN;
+        END IF;
+        IF NOT EXISTS (SELECT FROM pg_roles WHERE rolname = 'devices_purge_switch') THEN
+            CREATE ROLE devices_purge_switch NOLOGIN NOINHERIT;
+        END IF;
+        GRANT devices_purge TO devices_purge_switch;
+        GRANT devices_purge_switch TO CURRENT_USER;
+        EXECUTE format('GRANT USAGE ON SCHEMA %I TO devices_purge', current_schema());
+        -- UPDATE for the row locks of the batch's FOR UPDATE SKIP LOCKED
+        GRANT SELECT, UPDATE, DELETE ON devices TO devices_purge;
+        CREATE POLICY devices_purge_tombstones ON devices TO devices_purge
+            USING (deleted_at IS NOT NULL);
+        -- FORCE applies the policies to the table owner as well, which is usually the application's own role
+        ALTER TABLE devices ENABLE ROW LEVEL SECURITY;
+        ALTER TABLE devices FORCE ROW LEVEL SECURITY;
+    ELSE
+        ALTER TABLE devices NO FORCE ROW LEVEL SECURITY;
+        ALTER TABLE devices DISABLE ROW LEVEL SECURITY;
+    END IF;
+END;
+$$;
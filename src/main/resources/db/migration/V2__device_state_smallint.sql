@@ -0,0 +1,66 @@
+-- Store devices.state as a SMALLINT code (AVAILABLE=0, IN_USE=1, INACTIVE=2) instead of VARCHAR(20).
+-- Runs outside a transaction (see the .conf file) so that the backfill commits in batches and no
+-- statement holds a table lock for longer than a catalog update.
+
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS state_code SMALLINT;
+
+-- Keeps state_code in sync for rows written while the migration runs
+CREATE OR REPLACE FUNCTION devices_sync_state_code() RETURNS trigger AS $$
+BEGIN
+    NEW.state_code := CASE NEW.state WHEN 'AVAILABLE' THEN 0 WHEN 'IN_USE' THEN 1 WHEN 'INACTIVE' THEN 2 END;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS devices_sync_state_code ON devices;
+CREATE TRIGGER devices_sync_state_code
+    BEFORE INSERT OR UPDATE OF state ON devices
+    FOR EACH ROW EXECUTE FUNCTION devices_sync_state_code();
+
+-- Backfill in primary key order, one short transaction per batch
+CREATE OR REPLACE PROCEDURE devices_backfill_state_code(batch_size INTEGER) AS $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    batch_last UUID;
+BEGIN
+    LOOP
+        SELECT id INTO batch_last
+        FROM (SELECT id FROM devices WHERE id > last_id ORDER BY id LIMIT batch_size) batch
+        ORDER BY id DESC
+        LIMIT 1;
+        EXIT WHEN batch_last IS NULL;
+
+        UPDATE devices
+        SET state_code = CASE state WHEN 'AVAILABLE' THEN 0 WHEN 'IN_USE' THEN 1 WHEN 'INACTIVE' THEN 2 END
+        WHERE id > last_id AND id <= batch_last AND state_code IS NULL;
+
+        last_id := batch_last;
+        COMMIT;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+CALL devices_backfill_state_code(10000);
+DROP PROCEDURE devices_backfill_state_code(INTEGER);
+
+-- Validated CHECK constraints only take a SHARE UPDATE EXCLUSIVE lock, and SET NOT NULL reuses
+-- the validated IS NOT NULL check instead of scanning the table again
+ALTER TABLE devices ADD CONSTRAINT devices_state_code_check CHECK (state_code IN (0, 1, 2)) NOT VALID;
+ALTER TABLE devices VALIDATE CONSTRAINT devices_state_code_check;
+ALTER TABLE devices ADD CONSTRAINT devices_state_code_not_null CHECK (state_code IS NOT NULL) NOT VALID;
+ALTER TABLE devices VALIDATE CONSTRAINT devices_state_code_not_null;
+ALTER TABLE devices ALTER COLUMN state_code SET NOT NULL;
+ALTER TABLE devices DROP CONSTRAINT devices_state_code_not_null;
+
+-- Swap the columns atomically; dropping a column does not rewrite the table
+DO $$
+BEGIN
+    DROP TRIGGER devices_sync_state_code ON devices;
+    DROP FUNCTION devices_sync_state_code();
+    ALTER TABLE devices DROP COLUMN state;
+    ALTER TABLE devices RENAME COLUMN state_code TO state;
+    ALTER TABLE devices RENAME CONSTRAINT devices_state_code_check TO state_check;
+END;
+$$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS devices_state_creation_time_idx ON devices (state, creation_time DESC);
@@ -0,0 +1,76 @@
+-- Move devices.brand into a brands dictionary keyed by the case-folded brand; devices reference it by id.
+-- Runs outside a transaction (see the .conf file), following the same online steps as V2.
+
+CREATE TABLE IF NOT EXISTS brands (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name TEXT NOT NULL,
+    brand_key TEXT NOT NULL,
+    CONSTRAINT brands_brand_key_unique UNIQUE (brand_key)
+);
+
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS brand_id INTEGER;
+
+-- Registers the brand of rows written while the migration runs
+CREATE OR REPLACE FUNCTION devices_sync_brand_id() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO brands (name, brand_key) VALUES (NEW.brand, lower(NEW.brand)) ON CONFLICT (brand_key) DO NOTHING;
+    SELECT id INTO NEW.brand_id FROM brands WHERE brand_key = lower(NEW.brand);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS devices_sync_brand_id ON devices;
+CREATE TRIGGER devices_sync_brand_id
+    BEFORE INSERT OR UPDATE OF brand ON devices
+    FOR EACH ROW EXECUTE FUNCTION devices_sync_brand_id();
+
+-- The first spelling in sort order becomes the canonical name of each brand
+INSERT INTO brands (name, brand_key)
+SELECT DISTINCT ON (lower(brand)) brand, lower(brand)
+FROM devices
+ORDER BY lower(brand), brand
+ON CONFLICT (brand_key) DO NOTHING;
+
+CREATE OR REPLACE PROCEDURE devices_backfill_brand_id(batch_size INTEGER) AS $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    batch_last UUID;
+BEGIN
+    LOOP
+        SELECT id INTO batch_last
+        FROM (SELECT id FROM devices WHERE id > last_id ORDER BY id LIMIT batch_size) batch
+        ORDER BY id DESC
+        LIMIT 1;
+        EXIT WHEN batch_last IS NULL;
+
+        UPDATE devices d
+        SET brand_id = b.id
+        FROM brands b
+        WHERE b.brand_key = lower(d.brand)
+          AND d.id > last_id AND d.id <= batch_last AND d.brand_id IS NULL;
+
+        last_id := batch_last;
+        COMMIT;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+CALL devices_backfill_brand_id(10000);
+DROP PROCEDURE devices_backfill_brand_id(INTEGER);
+
+ALTER TABLE devices ADD CONSTRAINT devices_brand_id_fkey FOREIGN KEY (brand_id) REFERENCES brands (id) NOT VALID;
+ALTER TABLE devices VALIDATE CONSTRAINT devices_brand_id_fkey;
+ALTER TABLE devices ADD CONSTRAINT devices_brand_id_not_null CHECK (brand_id IS NOT NULL) NOT VALID;
+ALTER TABLE devices VALIDATE CONSTRAINT devices_brand_id_not_null;
+ALTER TABLE devices ALTER COLUMN brand_id SET NOT NULL;
+ALTER TABLE devices DROP CONSTRAINT devices_brand_id_not_null;
+
+DO $$
+BEGIN
+    DROP TRIGGER devices_sync_brand_id ON devices;
+    DROP FUNCTION devices_sync_brand_id();
+    ALTER TABLE devices DROP COLUMN brand;
+END;
+$$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS devices_brand_id_creation_time_idx ON devices (brand_id, creation_time DESC);
@@ -0,0 +1,22 @@
+-- Soft deletion: deleted rows keep a deleted_at tombstone until the purge job removes them.
+-- Runs outside a transaction (see the .conf file). ${concurrently} is CONCURRENTLY by default and empty
+-- for the partitioned layout, where PostgreSQL cannot build or drop a partitioned index concurrently.
+
+-- Nullable without a default, so adding the column only updates the catalog
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP WITH TIME ZONE;
+
+-- Live-row indexes serving every DeviceRepository query, which filter on deleted_at IS NULL
+CREATE INDEX ${concurrently} IF NOT EXISTS devices_live_state_creation_time_idx
+    ON devices (state, creation_time DESC) WHERE deleted_at IS NULL;
+CREATE INDEX ${concurrently} IF NOT EXISTS devices_live_brand_id_creation_time_idx
+    ON devices (brand_id, creation_time DESC) WHERE deleted_at IS NULL;
+CREATE INDEX ${concurrently} IF NOT EXISTS devices_live_creation_time_idx
+    ON devices (creation_time DESC) WHERE deleted_at IS NULL;
+
+-- Tombstones only, for the purge job
+CREATE INDEX ${concurrently} IF NOT EXISTS devices_deleted_at_idx
+    ON devices (deleted_at) WHERE deleted_at IS NOT NULL;
+
+DROP INDEX ${concurrently} IF EXISTS devices_state_creation_time_idx;
+DROP INDEX ${concurrently} IF EXISTS devices_brand_id_creation_time_idx;
+DROP INDEX ${concurrently} IF EXISTS devices_creation_time_idx;
@@ -0,0 +1,92 @@
+-- Append-only history of device state changes, range-partitioned by month of changed_at so that
+-- expired history is removed by dropping whole partitions. Runs outside a transaction (see the .conf
+-- file) so that the baseline backfill commits in batches.
+-- device_id has no foreign key: history outlives the purge of deleted devices.
+
+CREATE TABLE IF NOT EXISTS device_state_changes (
+    id UUID NOT NULL,
+    device_id UUID NOT NULL,
+    from_state SMALLINT,
+    to_state SMALLINT NOT NULL,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT device_state_changes_pkey PRIMARY KEY (id, changed_at),
+    CONSTRAINT device_state_changes_state_check CHECK (to_state IN (0, 1, 2) AND (from_state IS NULL OR from_state IN (0, 1, 2)))
+) PARTITION BY RANGE (changed_at);
+
+-- Keyset paging of a device's history, newest first
+CREATE INDEX IF NOT EXISTS device_state_changes_device_idx
+    ON device_state_changes (device_id, changed_at DESC, id DESC);
+
+-- Creates the monthly partitions from the month of "since" (default: current month) up to months_ahead
+-- months after the current one. Returns the number of partitions created.
+CREATE OR REPLACE FUNCTION device_state_changes_create_partitions(months_ahead INTEGER, since TIMESTAMP WITH TIME ZONE DEFAULT NULL)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start TIMESTAMP WITH TIME ZONE := date_trunc('month', coalesce(since, now()));
+    last_start TIMESTAMP WITH TIME ZONE := date_trunc('month', now()) + make_interval(months => months_ahead);
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= last_start LOOP
+        partition_name := 'device_state_changes_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF device_state_changes FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, month_start + INTERVAL '1 month');
+            created := created + 1;
+        END IF;
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Drops the monthly partitions that end on or before older_than. Returns the number of partitions dropped.
+CREATE OR REPLACE FUNCTION device_state_changes_drop_partitions(older_than TIMESTAMP WITH TIME ZONE)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_name TEXT;
+    dropped INTEGER := 0;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'device_state_changes'::regclass
+          AND c.relname ~ '^device_state_changes_\d{4}_\d{2}$'
+          AND to_timestamp(right(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month' <= older_than
+    LOOP
+        EXECUTE format('DROP TABLE %I', partition_name);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT device_state_changes_create_partitions(3);
+
+-- Baseline: one entry per live device recording its state when history tracking started
+CREATE OR REPLACE PROCEDURE device_state_changes_backfill_baseline(batch_size INTEGER) AS $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    batch_last UUID;
+    started TIMESTAMP WITH TIME ZONE := now();
+BEGIN
+    LOOP
+        SELECT id INTO batch_last
+        FROM (SELECT id FROM devices WHERE id > last_id ORDER BY id LIMIT batch_size) batch
+        ORDER BY id DESC LIMIT 1;
+        EXIT WHEN batch_last IS NULL;
+
+        INSERT INTO device_state_changes (id, device_id, from_state, to_state, changed_at)
+        SELECT gen_random_uuid(), d.id, NULL, d.state, started
+        FROM devices d
+        WHERE d.id > last_id AND d.id <= batch_last AND d.deleted_at IS NULL
+          AND NOT EXISTS (SELECT 1 FROM device_state_changes c WHERE c.device_id = d.id);
+        COMMIT;
+        last_id := batch_last;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+CALL device_state_changes_backfill_baseline(10000);
+DROP PROCEDURE device_state_changes_backfill_baseline(INTEGER);
@@ -0,0 +1,15 @@
+-- Responses of creates made under an Idempotency-Key, shared by all instances (devices.idempotency.table-enabled).
+-- Rows past expires_at are ignored and removed by the application.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key TEXT PRIMARY KEY,
+    fingerprint TEXT NOT NULL,
+    device_id UUID NOT NULL,
+    name TEXT NOT NULL,
+    brand TEXT NOT NULL,
+    state SMALLINT NOT NULL,
+    creation_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idempotency_keys_expires_at_idx ON idempotency_keys (expires_at);
@@ -0,0 +1,26 @@
+-- Tenant dimension on devices and on idempotency records. Runs outside a transaction (see the .conf file).
+-- ${concurrently} is CONCURRENTLY by default and empty for the partitioned layout, as in V4.
+
+-- A constant default only updates the catalog: existing rows read as the 'default' tenant without a rewrite.
+-- The default also covers inserts by instances still running the previous version during a rolling deploy.
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS tenant_id TEXT NOT NULL DEFAULT 'default';
+
+-- Tenant-leading live-row indexes: every device query compares tenant_id, so each tenant's lists and counts
+-- read only its own range of the index
+CREATE INDEX ${concurrently} IF NOT EXISTS devices_live_tenant_state_creation_time_idx
+    ON devices (tenant_id, state, creation_time DESC) WHERE deleted_at IS NULL;
+CREATE INDEX ${concurrently} IF NOT EXISTS devices_live_tenant_brand_id_creation_time_idx
+    ON devices (tenant_id, brand_id, creation_time DESC) WHERE deleted_at IS NULL;
+CREATE INDEX ${concurrently} IF NOT EXISTS devices_live_tenant_creation_time_idx
+    ON devices (tenant_id, creation_time DESC) WHERE deleted_at IS NULL;
+
+DROP INDEX ${concurrently} IF EXISTS devices_live_state_creation_time_idx;
+DROP INDEX ${concurrently} IF EXISTS devices_live_brand_id_creation_time_idx;
+DROP INDEX ${concurrently} IF EXISTS devices_live_creation_time_idx;
+
+-- Idempotency keys are chosen by clients, so two tenants may use the same one. The table only holds a day of
+-- records, so rebuilding its primary key is short; both steps run as one statement.
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS tenant_id TEXT NOT NULL DEFAULT 'default';
+ALTER TABLE idempotency_keys
+    DROP CONSTRAINT idempotency_keys_pkey,
+    ADD CONSTRAINT idempotency_keys_pkey PRIMARY KEY (tenant_id, idempotency_key);
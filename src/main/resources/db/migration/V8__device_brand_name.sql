@@ -0,0 +1,4 @@
+-- The brand of each device as the client spelled it. The brands dictionary matches brands case-insensitively and
+-- keeps the first spelling registered, so it cannot return another device's spelling. Nullable without a default,
+-- which only updates the catalog: rows written before this version read the dictionary's spelling until updated.
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS brand_name TEXT;
@@ -0,0 +1,51 @@
+-- A DEFAULT partition for the state history, so that a change written for a month without its partition, when
+-- the maintenance job has fallen behind, still commits instead of failing the device write it belongs to.
+CREATE TABLE IF NOT EXISTS device_state_changes_default PARTITION OF device_state_changes DEFAULT;
+
+-- Creates the partition of the month starting at month_start, moving that month's rows out of the DEFAULT
+-- partition: PostgreSQL refuses a partition whose range the DEFAULT partition holds rows of. Returns whether
+-- the partition was created.
+CREATE OR REPLACE FUNCTION device_state_changes_create_partition(month_start TIMESTAMP WITH TIME ZONE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT := 'device_state_changes_' || to_char(month_start, 'YYYY_MM');
+    month_end TIMESTAMP WITH TIME ZONE := month_start + INTERVAL '1 month';
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE device_state_changes INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM device_state_changes_default WHERE changed_at >= %L AND changed_at < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved', month_start, month_end, partition_name);
+    EXECUTE format('ALTER TABLE device_state_changes ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, month_end);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creates the monthly partitions from the month of "since" (default: current month) up to months_ahead
+-- months after the current one, and those of any month the DEFAULT partition holds rows of. Returns the
+-- number of partitions created.
+CREATE OR REPLACE FUNCTION device_state_changes_create_partitions(months_ahead INTEGER, since TIMESTAMP WITH TIME ZONE DEFAULT NULL)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start TIMESTAMP WITH TIME ZONE := date_trunc('month', coalesce(since, now()));
+    last_start TIMESTAMP WITH TIME ZONE := date_trunc('month', now()) + make_interval(months => months_ahead);
+    stray_month TIMESTAMP WITH TIME ZONE;
+    created INTEGER := 0;
+BEGIN
+    FOR stray_month IN SELECT DISTINCT date_trunc('month', changed_at) FROM device_state_changes_default LOOP
+        IF device_state_changes_create_partition(stray_month) THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+    WHILE month_start <= last_start LOOP
+        IF device_state_changes_create_partition(month_start) THEN
+            created := created + 1;
+        END IF;
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,110 @@
+-- Optional: converts devices into a table range-partitioned by month of creation_time.
+-- Enabled by the "partitioned" profile, which adds this location to Flyway. The copy runs in one
+-- transaction and blocks writes (not reads) to devices until it commits; run it in a maintenance window.
+
+-- Creates the monthly partitions from the month of "since" (default: current month) up to months_ahead
+-- months after the current one. Returns the number of partitions created. Also used by the maintenance job.
+CREATE OR REPLACE FUNCTION devices_create_partitions(months_ahead INTEGER, since TIMESTAMP DEFAULT NULL)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', coalesce(since, now()::timestamp));
+    last_start TIMESTAMP := date_trunc('month', now()::timestamp) + make_interval(months => months_ahead);
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= last_start LOOP
+        partition_name := 'devices_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF devices FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, month_start + INTERVAL '1 month');
+            created := created + 1;
+        END IF;
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+LOCK TABLE devices IN EXCLUSIVE MODE;
+
+ALTER TABLE devices RENAME TO devices_unpartitioned;
+ALTER TABLE devices_unpartitioned RENAME CONSTRAINT devices_pkey TO devices_unpartitioned_pkey;
+
+-- The primary key of a partitioned table must contain the partition key
+CREATE TABLE devices (
+    LIKE devices_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STATISTICS,
+    CONSTRAINT devices_pkey PRIMARY KEY (id, creation_time)
+) PARTITION BY RANGE (creation_time);
+
+-- Out of order, row-level security may be forced on the table: the owner copies every tenant's rows past it. The
+-- flag moves to the new table, where it has no effect until row-level security is enabled after the copy.
+DO $$
+BEGIN
+    IF (SELECT relforcerowsecurity FROM pg_class WHERE oid = 'devices_unpartitioned'::regclass) THEN
+        ALTER TABLE devices FORCE ROW LEVEL SECURITY;
+        ALTER TABLE devices_unpartitioned NO FORCE ROW LEVEL SECURITY;
+    END IF;
+END;
+$$;
+
+SELECT devices_create_partitions(3, (SELECT min(creation_time) FROM devices_unpartitioned));
+
+INSERT INTO devices SELECT * FROM devices_unpartitioned;
+
+-- Carry over foreign keys, secondary indexes, grants and row-level security policies under their existing names
+DO $$
+DECLARE
+    item RECORD;
+BEGIN
+    FOR item IN
+        SELECT conname, pg_get_constraintdef(oid) AS definition
+        FROM pg_constraint
+        WHERE conrelid = 'devices_unpartitioned'::regclass AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE devices ADD CONSTRAINT %I %s', item.conname, item.definition);
+    END LOOP;
+
+    FOR item IN
+        SELECT c.relname, pg_get_indexdef(i.indexrelid) AS definition
+        FROM pg_index i
+        JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE i.indrelid = 'devices_unpartitioned'::regclass AND NOT i.indisprimary
+    LOOP
+        EXECUTE format('DROP INDEX %I', item.relname);
+        EXECUTE regexp_replace(item.definition, ' ON (\S+\.)?devices_unpartitioned ', ' ON devices ');
+    END LOOP;
+
+    FOR item IN
+        SELECT acl.privilege_type,
+               CASE WHEN acl.grantee = 0 THEN 'PUBLIC' ELSE quote_ident(pg_get_userbyid(acl.grantee)) END AS grantee
+        FROM pg_class c, aclexplode(c.relacl) acl
+        WHERE c.oid = 'devices_unpartitioned'::regclass AND acl.grantee <> c.relowner
+    LOOP
+        EXECUTE format('GRANT %s ON devices TO %s', item.privilege_type, item.grantee);
+    END LOOP;
+
+    FOR item IN
+        SELECT policyname, permissive, cmd, qual, with_check,
+               (SELECT string_agg(CASE WHEN role = 'public' THEN 'PUBLIC' ELSE quote_ident(role) END, ', ')
+                FROM unnest(roles) role) AS roles
+        FROM pg_policies
+        WHERE schemaname = current_schema() AND tablename = 'devices_unpartitioned'
+    LOOP
+        EXECUTE format('CREATE POLICY %I ON devices AS %s FOR %s TO %s', item.policyname, item.permissive,
+                       item.cmd, item.roles)
+                || coalesce(' USING (' || item.qual || ')', '')
+                || coalesce(' WITH CHECK (' || item.with_check || ')', '');
+    END LOOP;
+
+    IF (SELECT relrowsecurity FROM pg_class WHERE oid = 'devices_unpartitioned'::regclass) THEN
+        ALTER TABLE devices ENABLE ROW LEVEL SECURITY;
+    END IF;
+END;
+$$;
+
+-- Lets an unfiltered page walk the partitions newest first
+CREATE INDEX IF NOT EXISTS devices_creation_time_idx ON devices (creation_time DESC);
+
+DROP TABLE devices_unpartitioned;
+
+ANALYZE devices;
@@ -0,0 +1,121 @@
+package com.device.management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Response compression is done by the embedded web server, so these requests go over HTTP. The JDK client does not
+ * decompress, which shows the {@code Content-Encoding} the server chose.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "devices.purge.enabled=false")
+@ActiveProfiles("test")
+public class CompressionIntegrationTest {
+
+    private static final String TENANT = "compression";
+    private static final int DEVICES = 30;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    private String deviceId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        HttpResponse<byte[]> page = send(request("/devices?size=1").build());
+        if (objectMapper.readTree(page.body()).get("totalElements").asInt() >= DEVICES) {
+            deviceId = objectMapper.readTree(page.body()).get("content").get(0).get("id").asString();
+            return;
+        }
+        for (int i = 0; i < DEVICES; i++) {
+            HttpResponse<byte[]> created = send(request("/devices")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"name\":\"Compressed device " + i + "\",\"brand\":\"Compression Brand\",\"state\":\"AVAILABLE\"}"))
+                    .build());
+            assertEquals(201, created.statusCode());
+            deviceId = objectMapper.readTree(created.body()).get("id").asString();
+        }
+    }
+
+    @Test
+    @DisplayName("a page above min-response-size is gzip compressed when the client accepts it")
+    void largePage_gzip() throws Exception {
+        HttpResponse<byte[]> response = send(request("/devices?size=" + DEVICES)
+                .header("Accept-Encoding", "gzip")
+                .build());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        JsonNode page = objectMapper.readTree(gunzip(response.body()));
+        assertEquals(DEVICES, page.get("content").size());
+    }
+
+    @Test
+    @DisplayName("the same page is not compressed for a client that does not accept gzip")
+    void largePage_noAcceptEncoding_identity() throws Exception {
+        HttpResponse<byte[]> response = send(request("/devices?size=" + DEVICES).build());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+        assertTrue(response.body().length > 2048);
+    }
+
+    @Test
+    @DisplayName("a small page below min-response-size is sent uncompressed, with its length")
+    void smallPage_identity() throws Exception {
+        HttpResponse<byte[]> response = send(request("/devices?size=1")
+                .header("Accept-Encoding", "gzip")
+                .build());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(response.body().length, response.headers().firstValueAsLong("Content-Length").orElse(-1));
+        assertEquals(1, objectMapper.readTree(response.body()).get("content").size());
+    }
+
+    @Test
+    @DisplayName("a single device below min-response-size is sent uncompressed")
+    void smallResponse_identity() throws Exception {
+        HttpResponse<byte[]> response = send(request("/devices/" + deviceId)
+                .header("Accept-Encoding", "gzip")
+                .build());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(deviceId, objectMapper.readTree(response.body()).get("id").asString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).header("X-Tenant-Id", TENANT);
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
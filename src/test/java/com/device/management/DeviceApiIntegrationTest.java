@@ -0,0 +1,153 @@
+package com.device.management;
+
+import com.device.management.controller.request.DeviceRequest;
+import com.device.management.controller.request.DeviceUpdateRequest;
+import com.device.management.state.DeviceState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * End-to-end pass through the API on the embedded database. Free of mocks, so it also runs as a native test
+ * ({@code mvn -PnativeTest test}).
+ */
+@Tag("native")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class DeviceApiIntegrationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("a device can be created, read, listed, updated, traced and deleted through the API")
+    void deviceLifecycle() throws Exception {
+        MvcResult created = mockMvc.perform(post("/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceRequest("Lifecycle", "Lifecycle Brand", DeviceState.AVAILABLE))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        JsonNode device = objectMapper.readTree(created.getResponse().getContentAsString());
+        String id = device.get("id").asString();
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices/{id}", id)).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.brand").value("Lifecycle Brand"));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices").param("brand", "lifecycle brand")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(id));
+
+        mockMvc.perform(patch("/devices/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceUpdateRequest(null, null, DeviceState.IN_USE))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("IN_USE"));
+        mockMvc.perform(patch("/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(id, new DeviceUpdateRequest("Renamed", null, null)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(409));
+
+        mockMvc.perform(get("/devices/{id}/history", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].toState").value("IN_USE"))
+                .andExpect(jsonPath("$.items[1].toState").value("AVAILABLE"));
+
+        mockMvc.perform(delete("/devices/{id}", id))
+                .andExpect(status().isConflict());
+        mockMvc.perform(patch("/devices/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceUpdateRequest(null, null, DeviceState.INACTIVE))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/devices/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices/{id}", id)).andReturn()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("each device keeps the brand spelling it was created or updated with, even changes of case only")
+    void brandSpelling_keptPerDevice() throws Exception {
+        String brand = "Spelled " + UUID.randomUUID();
+        mockMvc.perform(post("/devices")
+                        .header("X-Tenant-Id", "spelling-a")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceRequest("First", brand, DeviceState.AVAILABLE))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.brand").value(brand));
+
+        MvcResult created = mockMvc.perform(post("/devices")
+                        .header("X-Tenant-Id", "spelling-b")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceRequest("Second", brand.toLowerCase(), DeviceState.AVAILABLE))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.brand").value(brand.toLowerCase()))
+                .andReturn();
+        String id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asString();
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices")
+                        .header("X-Tenant-Id", "spelling-b")
+                        .param("brand", brand.toUpperCase())).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].brand").value(brand.toLowerCase()));
+
+        mockMvc.perform(put("/devices/{id}", id)
+                        .header("X-Tenant-Id", "spelling-b")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceRequest("Renamed", brand.toUpperCase(), DeviceState.INACTIVE))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.brand").value(brand.toUpperCase()));
+        mockMvc.perform(patch("/devices/{id}", id)
+                        .header("X-Tenant-Id", "spelling-b")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceUpdateRequest(null, brand, null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.brand").value(brand));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices/{id}", id)
+                        .header("X-Tenant-Id", "spelling-b")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.brand").value(brand));
+    }
+
+    @Test
+    @DisplayName("sort=brand orders devices by brand name, not by the order the brands were registered in")
+    void list_sortByBrand_alphabetical() throws Exception {
+        String tenant = "brand-sort-" + UUID.randomUUID();
+        String suffix = " " + UUID.randomUUID();
+        for (String brand : List.of("Sorted C", "Sorted A", "Sorted B")) {
+            mockMvc.perform(post("/devices")
+                            .header("X-Tenant-Id", tenant)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new DeviceRequest("Sorted", brand + suffix, DeviceState.AVAILABLE))))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult listed = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices")
+                        .header("X-Tenant-Id", tenant)
+                        .param("sort", "brand,asc")).andReturn()))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode content = objectMapper.readTree(listed.getResponse().getContentAsString()).get("content");
+        assertEquals(List.of("Sorted A" + suffix, "Sorted B" + suffix, "Sorted C" + suffix),
+                content.valueStream().map(device -> device.get("brand").asString()).toList());
+    }
+}
@@ -1,9 +1,11 @@
 package com.device.management;
 
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+@Tag("native")
 @SpringBootTest
 @ActiveProfiles("test")
 public class DeviceManagementApplicationTest {
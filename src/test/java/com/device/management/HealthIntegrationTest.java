@@ -0,0 +1,67 @@
+package com.device.management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "devices.purge.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class HealthIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("readiness covers the database and saturation; liveness only the process")
+    void probes_reportComponents() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components.db.status").value("UP"))
+                .andExpect(jsonPath("$.components.saturation.details.busiest").exists())
+                .andExpect(jsonPath("$.components.saturation.details.components.connection-pool").exists());
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components.db").doesNotExist());
+        mockMvc.perform(get("/actuator/metrics/devices.saturation"))
+                .andExpect(status().isOk());
+        // Input of the connection-pool signal
+        mockMvc.perform(get("/actuator/metrics/hikaricp.connections.pending"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("drain mode takes the instance out of readiness and turns new API requests away until resumed")
+    void drain_refusesNewWork() throws Exception {
+        try {
+            mockMvc.perform(post("/actuator/drain"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.draining").value(true));
+
+            mockMvc.perform(get("/actuator/health/readiness"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.status").value("OUT_OF_SERVICE"));
+            mockMvc.perform(get("/devices"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "5"))
+                    .andExpect(header().string("Connection", "close"));
+            mockMvc.perform(get("/actuator/health/liveness"))
+                    .andExpect(status().isOk());
+        } finally {
+            mockMvc.perform(delete("/actuator/drain"))
+                    .andExpect(jsonPath("$.draining").value(false));
+        }
+
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk());
+    }
+}
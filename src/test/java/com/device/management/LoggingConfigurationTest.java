@@ -0,0 +1,42 @@
+package com.device.management;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.device.management.service.DeviceManagementService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The logging pipeline installed by {@code logback-spring.xml}.
+ */
+@SpringBootTest(properties = "devices.purge.enabled=false")
+@ActiveProfiles("test")
+public class LoggingConfigurationTest {
+
+    @Test
+    @DisplayName("the root logger writes through a non-blocking asynchronous appender without caller data")
+    void root_logsThroughNonBlockingAsyncAppender() {
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+
+        Appender<ILoggingEvent> appender = root.getAppender("ASYNC");
+        AsyncAppender async = assertInstanceOf(AsyncAppender.class, appender);
+        assertTrue(async.isStarted());
+        assertTrue(async.isNeverBlock());
+        assertFalse(async.isIncludeCallerData());
+        assertEquals(0, async.getDiscardingThreshold());
+        assertNotNull(async.getAppender("CONSOLE"));
+    }
+
+    @Test
+    @DisplayName("per-request service logging is off at the default level")
+    void serviceDebug_disabledByDefault() {
+        assertFalse(LoggerFactory.getLogger(DeviceManagementService.class).isDebugEnabled());
+    }
+}
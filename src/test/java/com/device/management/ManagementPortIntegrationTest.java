@@ -0,0 +1,54 @@
+package com.device.management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The actuator, and with it the unauthenticated drain endpoint, listens on the management port only, as configured
+ * in {@code application.properties}; the test profile moves it back onto the application port for MockMvc.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"devices.purge.enabled=false", "management.server.port=0"})
+@ActiveProfiles("test")
+public class ManagementPortIntegrationTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    @DisplayName("a client of the API port cannot drain the instance")
+    void apiPort_cannotDrain() throws Exception {
+        assertNotEquals(port, managementPort);
+
+        assertEquals(404, send(port, "POST", "/actuator/drain").statusCode());
+        assertEquals(404, send(port, "GET", "/actuator/health/readiness").statusCode());
+
+        HttpResponse<String> state = send(managementPort, "GET", "/actuator/drain");
+        assertEquals(200, state.statusCode());
+        assertTrue(state.body().contains("\"draining\":false"), state.body());
+        assertEquals(200, send(port, "GET", "/devices").statusCode());
+    }
+
+    private HttpResponse<String> send(int port, String method, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .method(method, HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
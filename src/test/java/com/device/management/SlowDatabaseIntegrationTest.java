@@ -0,0 +1,142 @@
+package com.device.management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads against a database that does not answer, here because every pooled connection is held: the servlet threads
+ * hand the reads to the query executor and stay free, reads beyond its queue are refused at once and the queued
+ * ones end at the per-request timeout, all with 503, long before the pool would give up on them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "devices.purge.enabled=false",
+        "server.tomcat.threads.max=4",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=30000",
+        "devices.async.core-pool-size=2",
+        "devices.async.max-pool-size=2",
+        "devices.async.queue-capacity=20",
+        "devices.async.timeout-seconds=2"
+})
+@ActiveProfiles("test")
+public class SlowDatabaseIntegrationTest {
+
+    private static final int EXECUTOR_CAPACITY = 2 + 20;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("deviceQueryExecutor")
+    private ThreadPoolTaskExecutor queryExecutor;
+
+    @Test
+    @DisplayName("with the database held, servlet threads stay free and reads fail fast with 503")
+    void databaseHeld_servletThreadsFree_readsFailFast() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        try {
+            held.add(dataSource.getConnection());
+            held.add(dataSource.getConnection());
+
+            // Far more pending reads than the 4 servlet threads
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResponse<String>>> pending = new ArrayList<>();
+            for (int i = 0; i < EXECUTOR_CAPACITY; i++) {
+                pending.add(sendAsync("/devices/" + UUID.randomUUID()));
+            }
+            awaitExecutorFull();
+
+            for (int i = 0; i < 10; i++) {
+                long busy = busyServletThreads();
+                assertTrue(busy <= 1, "busy servlet threads: " + busy);
+                Thread.sleep(20);
+            }
+            assertEquals(200, send("/actuator/health/liveness").statusCode());
+
+            long rejectedStart = System.nanoTime();
+            HttpResponse<String> rejected = send("/devices/" + UUID.randomUUID());
+            assertEquals(503, rejected.statusCode());
+            assertEquals("Too many concurrent requests", rejected.body());
+            assertTrue(elapsed(rejectedStart).compareTo(Duration.ofSeconds(1)) < 0, elapsed(rejectedStart).toString());
+
+            for (CompletableFuture<HttpResponse<String>> response : pending) {
+                assertEquals(503, response.get(10, TimeUnit.SECONDS).statusCode());
+            }
+            // The per-request timeout, not the 30s the pool would wait for a connection
+            assertTrue(elapsed(start).compareTo(Duration.ofSeconds(6)) < 0, elapsed(start).toString());
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+
+    private void awaitExecutorFull() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queryExecutor.getActiveCount() + queryExecutor.getQueueSize() < EXECUTOR_CAPACITY
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(EXECUTOR_CAPACITY, queryExecutor.getActiveCount() + queryExecutor.getQueueSize());
+    }
+
+    /**
+     * Servlet threads inside application code, those of servers of other cached test contexts included. Counted
+     * from their stacks rather than Tomcat's {@code tomcat.threads.busy}: Tomcat's MBean registry is JVM-wide, and
+     * a context started earlier without it disables it for every later one.
+     */
+    private static long busyServletThreads() {
+        List<StackTraceElement[]> servletThreads = Thread.getAllStackTraces().entrySet().stream()
+                .filter(thread -> thread.getKey().getName().startsWith("http-nio-")
+                        && thread.getKey().getName().contains("-exec-"))
+                .map(Map.Entry::getValue)
+                .toList();
+        assertFalse(servletThreads.isEmpty(), "no servlet threads found");
+        return servletThreads.stream()
+                .filter(stack -> Arrays.stream(stack)
+                        .anyMatch(frame -> frame.getClassName().startsWith("com.device.management.")))
+                .count();
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendAsync(String path) {
+        return client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> send(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static Duration elapsed(long start) {
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+}
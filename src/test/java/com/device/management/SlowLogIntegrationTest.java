@@ -0,0 +1,51 @@
+package com.device.management;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.DeviceCreateCommand;
+import com.device.management.service.dto.DeviceFilter;
+import com.device.management.service.dto.PageRequest;
+import com.device.management.state.DeviceState;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * With zero thresholds every use case call and every statement issued through the proxied data source is slow.
+ */
+@SpringBootTest(properties = {"devices.purge.enabled=false",
+        "devices.slow-log.operation-threshold=0ms", "devices.slow-log.statement-threshold=0ms"})
+@ActiveProfiles("test")
+public class SlowLogIntegrationTest {
+
+    @Autowired
+    private DeviceUseCase useCase;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("use case calls and their JDBC statements reach the slow-operation log")
+    void list_recordsCallAndStatements() {
+        String brand = "Slow " + UUID.randomUUID();
+        useCase.create(new DeviceCreateCommand("Slow", brand, DeviceState.AVAILABLE));
+        double calls = entries("operation");
+        double statements = entries("statement");
+
+        useCase.list(new DeviceFilter(brand, null), new PageRequest(0, 20, List.of()));
+
+        assertTrue(entries("operation") >= calls + 1);
+        assertTrue(entries("statement") >= statements + 1);
+    }
+
+    private double entries(String type) {
+        return meterRegistry.get("devices.slow-log.entries").tag("type", type).counter().count();
+    }
+}
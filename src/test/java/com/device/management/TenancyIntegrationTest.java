@@ -0,0 +1,115 @@
+package com.device.management;
+
+import com.device.management.controller.request.DeviceRequest;
+import com.device.management.controller.request.DeviceUpdateRequest;
+import com.device.management.state.DeviceState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "devices.purge.enabled=false",
+        "devices.tenancy.allowed=tenant-a,tenant-b,noisy,quiet",
+        "devices.tenancy.rate-limit=1",
+        "devices.tenancy.rate-limit-burst=20"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TenancyIntegrationTest {
+
+    private static final String TENANT = "X-Tenant-Id";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("devices, lists, history and idempotency keys of one tenant are invisible to the others")
+    void tenants_isolated() throws Exception {
+        String deviceA = create("tenant-a");
+        String deviceB = create("tenant-b");
+        assertNotEquals(deviceA, deviceB);
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices").header(TENANT, "tenant-a")
+                        .param("brand", "Tenancy Brand")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(deviceA));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices").param("brand", "Tenancy Brand")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices/{id}", deviceA).header(TENANT, "tenant-b")).andReturn()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/devices/{id}/history", deviceA).header(TENANT, "tenant-b"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/devices/{id}", deviceA).header(TENANT, "tenant-b")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceUpdateRequest(null, null, DeviceState.IN_USE))))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/devices/{id}", deviceA).header(TENANT, "tenant-b"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices/{id}", deviceA).header(TENANT, "tenant-a")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("AVAILABLE"));
+    }
+
+    @Test
+    @DisplayName("malformed and unknown tenants are rejected; actuator requests need no tenant")
+    void unknownTenant_rejected() throws Exception {
+        mockMvc.perform(get("/devices").header(TENANT, "tenant a"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/devices").header(TENANT, "tenant-x"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown tenant: tenant-x"));
+        mockMvc.perform(get("/actuator/health/liveness").header(TENANT, "tenant-x"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("a tenant over its rate limit gets 429 while other tenants are still served")
+    void rateLimit_perTenant() throws Exception {
+        int throttled = 0;
+        for (int i = 0; i < 30; i++) {
+            int status = mockMvc.perform(get("/devices/{id}/history", "00000000-0000-0000-0000-000000000000")
+                    .header(TENANT, "noisy")).andReturn().getResponse().getStatus();
+            if (status == 429) {
+                throttled++;
+            }
+        }
+        assertTrue(throttled > 0);
+
+        mockMvc.perform(get("/devices/{id}/history", "00000000-0000-0000-0000-000000000000").header(TENANT, "quiet"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/devices/{id}/history", "00000000-0000-0000-0000-000000000000").header(TENANT, "noisy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        mockMvc.perform(get("/actuator/metrics/devices.tenancy.throttled").param("tag", "tenant:noisy"))
+                .andExpect(status().isOk());
+    }
+
+    // The same idempotency key and body in both tenants, which must still create two devices
+    private String create(String tenant) throws Exception {
+        MvcResult created = mockMvc.perform(post("/devices").header(TENANT, tenant)
+                        .header("Idempotency-Key", "tenancy-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new DeviceRequest("Tenancy", "Tenancy Brand", DeviceState.AVAILABLE))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asString();
+    }
+}
@@ -0,0 +1,118 @@
+package com.device.management;
+
+import com.device.management.controller.request.DeviceRequest;
+import com.device.management.state.DeviceState;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.micrometer.tracing.test.autoconfigure.AutoConfigureTracing;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Spans of a request as exported, captured by an in-memory exporter with every trace sampled.
+ */
+@SpringBootTest(properties = {"management.tracing.sampling.probability=1.0", "devices.purge.enabled=false"})
+@AutoConfigureMockMvc
+@AutoConfigureTracing
+@ActiveProfiles("test")
+public class TracingIntegrationTest {
+
+    @TestConfiguration
+    static class InMemoryExport {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter exporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Test
+    @DisplayName("GET /devices is traced from the request through controller and use case down to each JDBC statement")
+    void list_spansControllerUseCaseAndJdbc() throws Exception {
+        String brand = "Traced " + UUID.randomUUID();
+        mockMvc.perform(post("/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceRequest("Traced", brand, DeviceState.AVAILABLE))))
+                .andExpect(status().isCreated());
+        flush();
+        exporter.reset();
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices").param("brand", brand)).andReturn()))
+                .andExpect(status().isOk());
+        List<SpanData> spans = flush();
+
+        Map<String, SpanData> byName = spans.stream()
+                .collect(Collectors.toMap(SpanData::getName, Function.identity(), (first, second) -> first));
+        SpanData controller = byName.get("DeviceManagementController#list");
+        SpanData useCase = byName.get("DeviceUseCase#list");
+        assertNotNull(controller, () -> "no controller span in " + names(spans));
+        assertNotNull(useCase, () -> "no use case span in " + names(spans));
+        assertEquals(byName.get("http get /devices").getSpanId(), controller.getParentSpanId());
+        assertEquals(controller.getSpanId(), useCase.getParentSpanId());
+        assertEquals("brand", useCase.getAttributes().get(AttributeKey.stringKey("devices.filter")));
+        assertEquals("1", useCase.getAttributes().get(AttributeKey.stringKey("devices.items")));
+
+        List<SpanData> queries = spans.stream()
+                .filter(span -> span.getAttributes().get(AttributeKey.stringKey("jdbc.query[0]")) != null)
+                .toList();
+        assertFalse(queries.isEmpty(), () -> "no JDBC statement spans in " + names(spans));
+        assertTrue(spans.stream().allMatch(span -> span.getTraceId().equals(controller.getTraceId())));
+        assertTrue(queries.stream().allMatch(query -> descendsFrom(query, useCase, spans)));
+        assertEquals("1", byName.get("result-set").getAttributes().get(AttributeKey.stringKey("jdbc.row-count")));
+    }
+
+    private List<SpanData> flush() {
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+        return exporter.getFinishedSpanItems();
+    }
+
+    private static boolean descendsFrom(SpanData span, SpanData ancestor, List<SpanData> spans) {
+        String parent = span.getParentSpanId();
+        while (parent != null) {
+            if (parent.equals(ancestor.getSpanId())) {
+                return true;
+            }
+            String current = parent;
+            parent = spans.stream().filter(candidate -> candidate.getSpanId().equals(current))
+                    .map(SpanData::getParentSpanId).findFirst().orElse(null);
+        }
+        return false;
+    }
+
+    private static List<String> names(List<SpanData> spans) {
+        return spans.stream().map(SpanData::getName).toList();
+    }
+}
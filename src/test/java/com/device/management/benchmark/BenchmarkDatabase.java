@@ -0,0 +1,28 @@
+package com.device.management.benchmark;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+/**
+ * Points a Spring Boot benchmark at PostgreSQL when {@code -Dbench.jdbc.url} is given, migrated by Flyway as in
+ * production; otherwise the test profile's in-memory H2 database stands in.
+ */
+public final class BenchmarkDatabase {
+
+    public static final String URL = System.getProperty("bench.jdbc.url");
+
+    private BenchmarkDatabase() {
+    }
+
+    public static void register(DynamicPropertyRegistry registry) {
+        if (URL != null) {
+            registry.add("spring.datasource.url", () -> URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("bench.jdbc.user", ""));
+            registry.add("spring.datasource.password", () -> System.getProperty("bench.jdbc.password", ""));
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+            registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+            registry.add("spring.flyway.enabled", () -> "true");
+        }
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+}
@@ -0,0 +1,81 @@
+package com.device.management.benchmark;
+
+import com.device.management.controller.response.DeviceResponse;
+import com.device.management.state.DeviceState;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Serialization time and bytes-on-wire of a device page in each negotiable encoding.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class EncodingBenchmarkTest {
+
+    private static final String[] BRANDS = {"Apple", "Samsung", "Google", "Xiaomi", "Motorola", "Nokia"};
+
+    private static final Map<String, ObjectMapper> MAPPERS = Map.of(
+            "json", JsonMapper.builder().build(),
+            "cbor", CBORMapper.builder().build(),
+            "smile", SmileMapper.builder().build());
+
+    @ParameterizedTest(name = "page of {0} devices")
+    @ValueSource(ints = {20, 100, 1_000, 10_000})
+    void serializePage(int devices) {
+        Page<DeviceResponse> page = page(devices);
+        int iterations = Math.max(20, 200_000 / devices);
+
+        int jsonBytes = 0;
+        for (String format : List.of("json", "cbor", "smile")) {
+            ObjectMapper mapper = MAPPERS.get(format);
+            int bytes = 0;
+            for (int i = 0; i < iterations; i++) {
+                bytes = mapper.writeValueAsBytes(page).length;
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                mapper.writeValueAsBytes(page);
+            }
+            double micros = (System.nanoTime() - start) / 1_000.0 / iterations;
+            if (format.equals("json")) {
+                jsonBytes = bytes;
+            }
+            System.out.printf("encoding=%-5s devices=%6d bytes=%9d (%5.1f%% of json) serialize=%10.1f us%n",
+                    format, devices, bytes, 100.0 * bytes / jsonBytes, micros);
+            assertTrue(bytes > 0);
+        }
+    }
+
+    private static Page<DeviceResponse> page(int devices) {
+        Random random = new Random(42);
+        OffsetDateTime base = OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        List<DeviceResponse> items = new ArrayList<>(devices);
+        for (int i = 0; i < devices; i++) {
+            items.add(new DeviceResponse(
+                    new UUID(random.nextLong(), random.nextLong()),
+                    "Device " + i,
+                    BRANDS[random.nextInt(BRANDS.length)],
+                    DeviceState.values()[random.nextInt(DeviceState.values().length)],
+                    base.plusSeconds(random.nextInt(31_536_000))));
+        }
+        return new PageImpl<>(items, PageRequest.of(0, devices), devices * 10L);
+    }
+}
@@ -0,0 +1,86 @@
+package com.device.management.benchmark;
+
+import com.device.management.service.DeviceManagementService;
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.DeviceCreateCommand;
+import com.device.management.service.groupcommit.GroupCommitDeviceUseCase;
+import com.device.management.state.DeviceState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Create throughput with one transaction per request versus group commit, driven by concurrent callers.
+ * Defaults to the in-memory H2 test database; commit cost only shows on a durable database, e.g.
+ * {@code mvn test -Pbenchmark -Dtest=GroupCommitBenchmarkTest
+ * -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/devicemanagementdb -Dbench.jdbc.user=admin
+ * -Dbench.jdbc.password=secret -Dbench.threads=64 -Dbench.creates=200}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+public class GroupCommitBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 32);
+    private static final int CREATES = Integer.getInteger("bench.creates", 200);
+    private static final int BRANDS = 20;
+
+    @Autowired
+    private DeviceManagementService service;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "16");
+    }
+
+    @Test
+    void createThroughput() throws Exception {
+        run("per-request", service);
+        try (GroupCommitDeviceUseCase groupCommit = new GroupCommitDeviceUseCase(
+                service, 64, Duration.ofMillis(2), 10_000, 4, new SimpleMeterRegistry())) {
+            run("group-commit", groupCommit);
+        }
+    }
+
+    private void run(String mode, DeviceUseCase useCase) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(callers.submit(() -> {
+                    for (int i = 0; i < CREATES; i++) {
+                        useCase.create(new DeviceCreateCommand("Device " + thread + "-" + i, "Brand " + (i % BRANDS),
+                                DeviceState.AVAILABLE));
+                    }
+                    return CREATES;
+                }));
+            }
+            int created = 0;
+            for (Future<Integer> result : results) {
+                created += result.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("mode=%-12s threads=%d creates=%d creates/s=%.0f%n", mode, THREADS, created, created / seconds);
+            assertEquals(THREADS * CREATES, created);
+        } finally {
+            callers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.device.management.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Connection and table handling shared by the benchmarks that measure storage layouts directly over JDBC, without
+ * the application: the database of {@link BenchmarkDatabase#URL} or an in-memory H2 database, scratch tables that
+ * are recreated per run and dropped afterwards, batched inserts and sizes (PostgreSQL only). The row count is
+ * {@code -Dbench.rows}.
+ */
+final class JdbcBenchmark implements AutoCloseable {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    @FunctionalInterface
+    interface Row {
+        /**
+         * Binds the parameters of row {@code i}, counted from 1.
+         */
+        void bind(PreparedStatement insert, int i) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface Query {
+        void run() throws SQLException;
+    }
+
+    private final Connection connection;
+
+    private JdbcBenchmark(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @param h2Database name of the in-memory database used when no {@code bench.jdbc.url} is given
+     */
+    static JdbcBenchmark open(String h2Database) throws SQLException {
+        Connection connection = BenchmarkDatabase.URL != null
+                ? DriverManager.getConnection(BenchmarkDatabase.URL, System.getProperty("bench.jdbc.user", ""),
+                System.getProperty("bench.jdbc.password", ""))
+                : DriverManager.getConnection("jdbc:h2:mem:" + h2Database + ";DB_CLOSE_DELAY=-1", "sa", "");
+        connection.setAutoCommit(false);
+        return new JdbcBenchmark(connection);
+    }
+
+    static int rows(int defaultRows) {
+        return Integer.getInteger("bench.rows", defaultRows);
+    }
+
+    static boolean postgres() {
+        return BenchmarkDatabase.URL != null && BenchmarkDatabase.URL.startsWith("jdbc:postgresql:");
+    }
+
+    Connection connection() {
+        return connection;
+    }
+
+    /**
+     * Runs the statements in one transaction.
+     */
+    void execute(String... statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+        connection.commit();
+    }
+
+    /**
+     * Drops the table if a previous run left it behind, then runs the statements creating it.
+     */
+    void recreate(String table, String... statements) throws SQLException {
+        execute("DROP TABLE IF EXISTS " + table);
+        execute(statements);
+    }
+
+    /**
+     * Inserts the rows in batches, committing each one.
+     */
+    void insert(String insertSql, int rows, Row row) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(insertSql)) {
+            for (int i = 1; i <= rows; i++) {
+                row.bind(insert, i);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    /**
+     * Refreshes the planner statistics on PostgreSQL.
+     */
+    void analyze(String table) throws SQLException {
+        if (postgres()) {
+            execute("ANALYZE " + table);
+        }
+    }
+
+    long queryLong(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * On-disk size of a table or index, {@code n/a} outside PostgreSQL.
+     */
+    String size(String relation) throws SQLException {
+        if (!postgres()) {
+            return "n/a";
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_size_pretty(pg_relation_size('" + relation + "'))")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    /**
+     * Mean time of the query over the iterations.
+     */
+    static double millisPerRun(int iterations, Query query) throws SQLException {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / iterations;
+    }
+
+    void drop(String table) throws SQLException {
+        execute("DROP TABLE " + table);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
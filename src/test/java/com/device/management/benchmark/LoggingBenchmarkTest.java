@@ -0,0 +1,179 @@
+package com.device.management.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.device.management.loadtest.DeviceDistribution;
+import com.device.management.loadtest.LoadGenerator;
+import com.device.management.loadtest.LoadReport;
+import com.device.management.loadtest.WorkloadMix;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Request throughput with verbose logging on: every SQL statement ({@code org.hibernate.SQL}) and the
+ * application's DEBUG output go to a file, either through a synchronous appender with a text pattern (what
+ * slf4j-simple or a plain console appender do) or through the asynchronous buffer with JSON lines used by
+ * {@code logback-spring.xml}. A run without the verbose loggers is the baseline. Defaults to the in-memory H2 test
+ * database, e.g. {@code mvn test -Pbenchmark -Dtest=LoggingBenchmarkTest -Dload.users=32}; add
+ * {@code -Dbench.jdbc.url=...} for PostgreSQL.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "devices.purge.enabled=false")
+@ActiveProfiles("test")
+public class LoggingBenchmarkTest {
+
+    private static final List<String> VERBOSE_LOGGERS = List.of("org.hibernate.SQL", "com.device.management");
+    private static final String MIX = System.getProperty("load.mix", "balanced");
+    private static final int USERS = Integer.getInteger("load.users", 16);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT20S"));
+    private static final Path OUTPUT = Paths.get("target", "logging-benchmark");
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> Integer.toString(Math.max(10, USERS)));
+        // One line per statement, so that lines written compare with events logged
+        registry.add("spring.jpa.properties.hibernate.format_sql", () -> "false");
+    }
+
+    @Test
+    void throughputWithLogging() throws Exception {
+        Files.createDirectories(OUTPUT);
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        // JIT and connection pool warm-up, so that the first mode is not penalised
+        new LoadGenerator(URI.create("http://localhost:" + port), settings(WARMUP.multipliedBy(2))).run();
+
+        run("off", null);
+        run("sync-text", fileAppender(context, "sync-text", textEncoder(context)));
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("async-json");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.addAppender(fileAppender(context, "async-json", jsonEncoder(context)));
+        async.start();
+        run("async-json", async);
+    }
+
+    private void run(String mode, Appender<ILoggingEvent> appender) throws Exception {
+        EventCounter events = new EventCounter();
+        events.start();
+        if (appender != null) {
+            for (String name : VERBOSE_LOGGERS) {
+                Logger logger = (Logger) LoggerFactory.getLogger(name);
+                logger.setLevel(Level.DEBUG);
+                logger.setAdditive(false);
+                logger.addAppender(appender);
+                logger.addAppender(events);
+            }
+        }
+        LoadReport report;
+        try {
+            report = new LoadGenerator(URI.create("http://localhost:" + port), settings(WARMUP)).run();
+        } finally {
+            if (appender != null) {
+                for (String name : VERBOSE_LOGGERS) {
+                    Logger logger = (Logger) LoggerFactory.getLogger(name);
+                    logger.detachAppender(appender);
+                    logger.detachAppender(events);
+                    logger.setLevel(null);
+                    logger.setAdditive(true);
+                }
+                appender.stop();
+            }
+        }
+
+        report.print(System.out, mode);
+        // Fewer lines than events: the asynchronous buffer was full and dropped the difference
+        System.out.printf(Locale.ROOT, "  log events=%d lines=%d%n", events.count.sum(), lines(OUTPUT.resolve(mode + ".log")));
+        report.write(OUTPUT, String.format(Locale.ROOT, "%s-%s-%du-%s",
+                BenchmarkDatabase.URL == null ? "h2" : "postgres", MIX, USERS, mode));
+        assertTrue(report.calls() > 0);
+    }
+
+    private static LoadGenerator.Settings settings(Duration warmup) {
+        return new LoadGenerator.Settings(WorkloadMix.parse(MIX),
+                new DeviceDistribution(50, 1.1, "AVAILABLE=60,IN_USE=30,INACTIVE=10"),
+                USERS, 1_000, warmup, DURATION, 0, 42L);
+    }
+
+    private static FileAppender<ILoggingEvent> fileAppender(LoggerContext context, String name,
+                                                            Encoder<ILoggingEvent> encoder) {
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName(name + "-file");
+        file.setFile(OUTPUT.resolve(name + ".log").toString());
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+        return file;
+    }
+
+    private static Encoder<ILoggingEvent> textEncoder(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private static Encoder<ILoggingEvent> jsonEncoder(LoggerContext context) {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("logstash");
+        encoder.start();
+        return encoder;
+    }
+
+    private static long lines(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.count();
+        }
+    }
+
+    private static final class EventCounter extends AppenderBase<ILoggingEvent> {
+
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            count.increment();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.device.management.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Startup time, resident memory after load and steady-state GET throughput of the packaged jar on the JVM
+ * versus the native executable, for whichever of the two is present in {@code target}. Linux only (RSS is read
+ * from {@code /proc}), e.g. {@code mvn -Pnative native:compile} then
+ * {@code mvn test -Pbenchmark -Dtest=NativeComparisonBenchmarkTest
+ * -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/devicemanagementdb -Dbench.jdbc.user=admin
+ * -Dbench.jdbc.password=secret}.
+ */
+@Tag("benchmark")
+public class NativeComparisonBenchmarkTest {
+
+    private static final String URL = System.getProperty("bench.jdbc.url", "");
+    private static final String USER = System.getProperty("bench.jdbc.user", "admin");
+    private static final String PASSWORD = System.getProperty("bench.jdbc.password", "");
+    private static final String JVM_OPTIONS = System.getProperty("bench.jvm.options", "");
+    private static final int THREADS = Integer.getInteger("bench.threads", 8);
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 20_000);
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void jvmVersusNative() throws Exception {
+        assumeTrue(URL.startsWith("jdbc:postgresql:"), "runs against PostgreSQL");
+        assumeTrue(Files.isDirectory(Paths.get("/proc/self")), "RSS is read from /proc");
+        Path jar = find("deviceManagement-.*\\.jar");
+        Path binary = find("deviceManagement");
+        assumeTrue(jar != null || binary != null, "package the jar or compile the native executable first");
+
+        if (jar != null) {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            if (!JVM_OPTIONS.isBlank()) {
+                command.addAll(List.of(JVM_OPTIONS.trim().split("\\s+")));
+            }
+            command.addAll(List.of("-jar", jar.toString()));
+            measure("jvm", command);
+        }
+        if (binary != null) {
+            measure("native", List.of(binary.toString()));
+        }
+    }
+
+    private void measure(String mode, List<String> launch) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(launch);
+        command.addAll(List.of("--server.port=" + port, "--management.server.port=0",
+                "--spring.datasource.url=" + URL,
+                "--spring.datasource.username=" + USER,
+                "--spring.datasource.password=" + PASSWORD));
+        long begin = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try {
+            long startupMillis = awaitStarted(process, begin);
+            // Keep draining the log so the application never blocks on a full pipe
+            Thread.ofVirtual().start(() -> drain(process));
+
+            String base = "http://localhost:" + port + "/devices";
+            String id = create(base);
+            load(base + "/" + id, REQUESTS / 4);
+            long start = System.nanoTime();
+            load(base + "/" + id, REQUESTS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("mode=%-6s startup=%d ms rss=%d MB throughput=%.0f req/s%n",
+                    mode, startupMillis, rssKilobytes(process.pid()) / 1024, REQUESTS / seconds);
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static long awaitStarted(Process process, long begin) throws IOException, InterruptedException {
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String line;
+        while ((line = output.readLine()) != null) {
+            if (line.contains("Started DeviceManagementApplication")) {
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+            }
+        }
+        throw new IllegalStateException("Application exited before it started: " + process.waitFor());
+    }
+
+    private String create(String base) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"name\":\"Benchmark\",\"brand\":\"Benchmark\",\"state\":\"AVAILABLE\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode());
+        Matcher id = ID.matcher(response.body());
+        assertTrue(id.find());
+        return id.group(1);
+    }
+
+    private void load(String url, int requests) throws Exception {
+        HttpRequest get = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(callers.submit(() -> {
+                    for (int i = 0; i < requests / THREADS; i++) {
+                        assertEquals(200, client.send(get, HttpResponse.BodyHandlers.discarding()).statusCode());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    private static long rssKilobytes(long pid) throws IOException {
+        try (Stream<String> lines = Files.lines(Paths.get("/proc", Long.toString(pid), "status"))) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1);
+        }
+    }
+
+    private static void drain(Process process) {
+        try {
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+        } catch (IOException ignored) {
+            // the process was stopped
+        }
+    }
+
+    private static Path find(String fileNamePattern) throws IOException {
+        Path target = Paths.get("target");
+        if (!Files.isDirectory(target)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().matches(fileNamePattern))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.device.management.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * List-filter latency (first page and count, as issued by {@code DeviceRepository}) on a plain versus a
+ * monthly range-partitioned devices table. Needs PostgreSQL, e.g.
+ * {@code mvn test -Pbenchmark -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/devicemanagementdb
+ * -Dbench.jdbc.user=admin -Dbench.jdbc.password=secret -Dbench.rows=5000000 -Dbench.months=36}.
+ */
+@Tag("benchmark")
+public class PartitionedListBenchmarkTest {
+
+    private static final int ROWS = JdbcBenchmark.rows(500_000);
+    private static final int MONTHS = Integer.getInteger("bench.months", 24);
+    private static final int ITERATIONS = 20;
+
+    private static final String[][] QUERIES = {
+            {"findAll", "SELECT * FROM %s ORDER BY creation_time DESC LIMIT 20"},
+            {"findByState", "SELECT * FROM %s WHERE state = 1 ORDER BY creation_time DESC LIMIT 20"},
+            {"findByBrandId", "SELECT * FROM %s WHERE brand_id = 7 ORDER BY creation_time DESC LIMIT 20"},
+            {"findByBrandIdAndState", "SELECT * FROM %s WHERE brand_id = 7 AND state = 1 ORDER BY creation_time DESC LIMIT 20"},
+            {"countByState", "SELECT COUNT(*) FROM %s WHERE state = 1"},
+    };
+
+    @Test
+    void listFilters() throws SQLException {
+        assumeTrue(JdbcBenchmark.postgres(), "table partitioning needs PostgreSQL");
+        try (JdbcBenchmark db = JdbcBenchmark.open("partitionbench")) {
+            run(db, "bench_devices_plain", false);
+            run(db, "bench_devices_partitioned", true);
+        }
+    }
+
+    private void run(JdbcBenchmark db, String table, boolean partitioned) throws SQLException {
+        LocalDateTime firstMonth = LocalDateTime.now(ZoneOffset.UTC).withDayOfMonth(1).toLocalDate().atStartOfDay()
+                .minusMonths(MONTHS - 1);
+        List<String> ddl = new ArrayList<>();
+        ddl.add("CREATE TABLE " + table + " (id UUID NOT NULL, name TEXT NOT NULL, brand_id INTEGER NOT NULL, "
+                + "state SMALLINT NOT NULL, creation_time TIMESTAMP NOT NULL, version BIGINT, "
+                + "PRIMARY KEY (id, creation_time))" + (partitioned ? " PARTITION BY RANGE (creation_time)" : ""));
+        if (partitioned) {
+            for (int month = 0; month < MONTHS; month++) {
+                LocalDateTime from = firstMonth.plusMonths(month);
+                ddl.add(String.format("CREATE TABLE %s_%d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        table, month, table, from, from.plusMonths(1)));
+            }
+        }
+        ddl.add("CREATE INDEX " + table + "_state_idx ON " + table + " (state, creation_time DESC)");
+        ddl.add("CREATE INDEX " + table + "_brand_idx ON " + table + " (brand_id, creation_time DESC)");
+        ddl.add("CREATE INDEX " + table + "_time_idx ON " + table + " (creation_time DESC)");
+        db.recreate(table, ddl.toArray(String[]::new));
+
+        Instant start = firstMonth.toInstant(ZoneOffset.UTC);
+        long span = LocalDateTime.now(ZoneOffset.UTC).toInstant(ZoneOffset.UTC).getEpochSecond() - start.getEpochSecond();
+        db.insert("INSERT INTO " + table + " (id, name, brand_id, state, creation_time, version) VALUES (?, ?, ?, ?, ?, 0)",
+                ROWS, (insert, i) -> {
+                    insert.setObject(1, new UUID(i, i));
+                    insert.setString(2, "Device " + i);
+                    insert.setInt(3, i % 200);
+                    insert.setShort(4, (short) (i % 3));
+                    insert.setTimestamp(5, Timestamp.from(start.plusSeconds(span * i / ROWS - 1)));
+                });
+        db.analyze(table);
+
+        for (String[] query : QUERIES) {
+            String sql = String.format(query[1], table);
+            long[] rows = new long[1];
+            double millis = JdbcBenchmark.millisPerRun(ITERATIONS, () -> {
+                try (Statement statement = db.connection().createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+                    while (rs.next()) {
+                        rows[0]++;
+                    }
+                }
+            });
+            System.out.printf("table=%-9s rows=%d query=%-21s %.2f ms%n",
+                    partitioned ? "partition" : "plain", ROWS, query[0], millis);
+            assertTrue(rows[0] > 0);
+        }
+        db.drop(table);
+    }
+}
@@ -0,0 +1,142 @@
+package com.device.management.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Time from JVM launch to "Started" for the packaged jar: default settings, the fast-startup profile, AOT
+ * initialization (when the jar was built with {@code -Pfast-startup}) and a class-data-sharing archive from a
+ * training run (the AOT cache on JDK 25+, a dynamic CDS archive before). Runs after packaging, e.g.
+ * {@code mvn verify -Pfast-startup -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/devicemanagementdb
+ * -Dbench.jdbc.user=admin -Dbench.jdbc.password=secret}; {@code -Dbench.jvm.options} adds options to every start.
+ * <p>
+ * Opt-in: surefire never runs it, only failsafe in the {@code fast-startup} profile, and there it fails instead of
+ * skipping when the PostgreSQL URL or the jar is missing, so that a misconfigured run does not pass silently.
+ */
+@Tag("benchmark")
+public class StartupBenchmarkTest {
+
+    private static final String URL = System.getProperty("bench.jdbc.url", "");
+    private static final String USER = System.getProperty("bench.jdbc.user", "admin");
+    private static final String PASSWORD = System.getProperty("bench.jdbc.password", "");
+    private static final int RUNS = Integer.getInteger("bench.startup.runs", 3);
+    private static final String JVM_OPTIONS = System.getProperty("bench.jvm.options", "");
+    private static final String AOT_INITIALIZER =
+            "BOOT-INF/classes/com/device/management/DeviceManagementApplication__ApplicationContextInitializer.class";
+
+    @Test
+    void startupTime(@TempDir Path workDir) throws Exception {
+        assertTrue(URL.startsWith("jdbc:postgresql:"), "startup runs against PostgreSQL: set -Dbench.jdbc.url");
+        Path jar = packagedJar();
+        assertNotNull(jar, "package the application first (mvn verify -Pfast-startup)");
+        boolean aot;
+        try (JarFile file = new JarFile(jar.toFile())) {
+            aot = file.getEntry(AOT_INITIALIZER) != null;
+        }
+        Path app = extract(jar, workDir);
+
+        // First start applies the migrations; it is not measured
+        start(app, List.of());
+        report("default", app, List.of());
+        List<String> fastStartup = new ArrayList<>(List.of("-Dspring.profiles.active=fast-startup"));
+        report("fast-startup profile", app, fastStartup);
+        if (aot) {
+            fastStartup.add("-Dspring.aot.enabled=true");
+            report("fast-startup + AOT", app, fastStartup);
+        }
+
+        Path archive = workDir.resolve("app.aot");
+        boolean aotCache = Runtime.version().feature() >= 25;
+        List<String> training = new ArrayList<>(fastStartup);
+        training.add(aotCache ? "-XX:AOTCacheOutput=" + archive : "-XX:ArchiveClassesAtExit=" + archive);
+        training.add("-Dspring.context.exit=onRefresh");
+        Process trainingRun = run(app, training);
+        trainingRun.getInputStream().transferTo(OutputStream.nullOutputStream());
+        assertEquals(0, trainingRun.waitFor());
+        assertTrue(Files.exists(archive));
+        List<String> withArchive = new ArrayList<>(fastStartup);
+        withArchive.add(aotCache ? "-XX:AOTCache=" + archive : "-XX:SharedArchiveFile=" + archive);
+        report(aot ? "fast-startup + AOT + CDS" : "fast-startup + CDS", app, withArchive);
+    }
+
+    private void report(String mode, Path app, List<String> jvmOptions) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            millis[i] = start(app, jvmOptions);
+        }
+        Arrays.sort(millis);
+        System.out.printf("mode=%-26s runs=%d median=%d ms min=%d ms%n", mode, RUNS, millis[RUNS / 2], millis[0]);
+    }
+
+    private long start(Path app, List<String> jvmOptions) throws Exception {
+        long begin = System.nanoTime();
+        Process process = run(app, jvmOptions);
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.contains("Started DeviceManagementApplication")) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+                }
+            }
+            throw new IllegalStateException("Application exited before it started: " + process.waitFor());
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private Process run(Path app, List<String> jvmOptions) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (!JVM_OPTIONS.isBlank()) {
+            command.addAll(List.of(JVM_OPTIONS.trim().split("\\s+")));
+        }
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-jar", app.toString(), "--server.port=0", "--management.server.port=0",
+                "--spring.datasource.url=" + URL,
+                "--spring.datasource.username=" + USER,
+                "--spring.datasource.password=" + PASSWORD));
+        return new ProcessBuilder(command).redirectErrorStream(true).start();
+    }
+
+    // Class-data sharing needs the application on a plain class path rather than nested in the fat jar
+    private static Path extract(Path jar, Path workDir) throws Exception {
+        Path destination = workDir.resolve("application");
+        Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Djarmode=tools", "-jar", jar.toString(), "extract", "--destination", destination.toString())
+                .inheritIO().start();
+        assertEquals(0, process.waitFor());
+        return destination.resolve(jar.getFileName());
+    }
+
+    private static Path packagedJar() throws IOException {
+        Path target = Paths.get("target");
+        if (!Files.isDirectory(target)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().matches("deviceManagement-.*\\.jar"))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.device.management.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Table/index size and state-filter scan time for VARCHAR versus SMALLINT state storage.
+ * Sizes are reported on PostgreSQL only, e.g.
+ * {@code mvn test -Pbenchmark -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/devicemanagementdb
+ * -Dbench.jdbc.user=admin -Dbench.jdbc.password=secret -Dbench.rows=5000000}.
+ */
+@Tag("benchmark")
+public class StateEncodingBenchmarkTest {
+
+    private static final int ROWS = JdbcBenchmark.rows(200_000);
+    private static final String[] STATES = {"AVAILABLE", "IN_USE", "INACTIVE"};
+
+    @Test
+    void stateStorage() throws SQLException {
+        try (JdbcBenchmark db = JdbcBenchmark.open("statebench")) {
+            run(db, "bench_state_text", "VARCHAR(20)", false);
+            run(db, "bench_state_code", "SMALLINT", true);
+        }
+    }
+
+    private void run(JdbcBenchmark db, String table, String stateType, boolean coded) throws SQLException {
+        db.recreate(table,
+                "CREATE TABLE " + table + " (id UUID PRIMARY KEY, name TEXT NOT NULL, brand TEXT NOT NULL, "
+                        + "state " + stateType + " NOT NULL, creation_time TIMESTAMP NOT NULL)",
+                "CREATE INDEX " + table + "_state_idx ON " + table + " (state, creation_time DESC)");
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        db.insert("INSERT INTO " + table + " (id, name, brand, state, creation_time) VALUES (?, ?, ?, ?, ?)", ROWS,
+                (insert, i) -> {
+                    insert.setObject(1, new UUID(i, i));
+                    insert.setString(2, "Device " + i);
+                    insert.setString(3, "Brand " + (i % 200));
+                    if (coded) {
+                        insert.setShort(4, (short) (i % STATES.length));
+                    } else {
+                        insert.setString(4, STATES[i % STATES.length]);
+                    }
+                    insert.setTimestamp(5, Timestamp.from(base.plusSeconds(i)));
+                });
+        db.analyze(table);
+
+        Object inUse = coded ? (Object) (short) 1 : "IN_USE";
+        long[] rows = new long[1];
+        double millis = JdbcBenchmark.millisPerRun(20, () -> {
+            try (PreparedStatement count = db.connection().prepareStatement(
+                    "SELECT COUNT(*) FROM " + table + " WHERE state = ?")) {
+                count.setObject(1, inUse);
+                try (ResultSet rs = count.executeQuery()) {
+                    rs.next();
+                    rows[0] = rs.getLong(1);
+                }
+            }
+        });
+        System.out.printf("state=%-11s rows=%d findByState-count=%.1f ms table=%s index=%s%n",
+                stateType, ROWS, millis, db.size(table), db.size(table + "_state_idx"));
+        assertTrue(rows[0] > 0);
+        db.drop(table);
+    }
+}
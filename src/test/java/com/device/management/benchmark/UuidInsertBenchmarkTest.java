@@ -0,0 +1,49 @@
+package com.device.management.benchmark;
+
+import org.hibernate.id.uuid.UuidVersion7Strategy;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Insert throughput and primary key index size for random (v4) versus time-ordered (v7) UUID keys.
+ * Defaults to an in-memory H2 database; point it at PostgreSQL to get index sizes, e.g.
+ * {@code mvn test -Pbenchmark -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/devicemanagementdb
+ * -Dbench.jdbc.user=admin -Dbench.jdbc.password=secret -Dbench.rows=5000000}.
+ */
+@Tag("benchmark")
+public class UuidInsertBenchmarkTest {
+
+    private static final int ROWS = JdbcBenchmark.rows(200_000);
+
+    @Test
+    void insertThroughput() throws SQLException {
+        try (JdbcBenchmark db = JdbcBenchmark.open("uuidbench")) {
+            run(db, "uuid_v4", UUID::randomUUID);
+            run(db, "uuid_v7", () -> UuidVersion7Strategy.INSTANCE.generateUuid(null));
+        }
+    }
+
+    private void run(JdbcBenchmark db, String keys, Supplier<UUID> ids) throws SQLException {
+        String table = "bench_" + keys;
+        db.recreate(table, "CREATE TABLE " + table + " (id UUID PRIMARY KEY, name TEXT NOT NULL, brand TEXT NOT NULL)");
+
+        long start = System.nanoTime();
+        db.insert("INSERT INTO " + table + " (id, name, brand) VALUES (?, ?, ?)", ROWS, (insert, i) -> {
+            insert.setObject(1, ids.get());
+            insert.setString(2, "Device " + i);
+            insert.setString(3, "Brand " + (i % 200));
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("keys=%s rows=%d inserts/s=%.0f pkey=%s%n",
+                keys, ROWS, ROWS / seconds, db.size(table + "_pkey"));
+        assertEquals(ROWS, db.queryLong("SELECT COUNT(*) FROM " + table));
+        db.drop(table);
+    }
+}
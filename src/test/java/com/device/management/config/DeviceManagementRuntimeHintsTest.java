@@ -0,0 +1,39 @@
+package com.device.management.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.domain.PageImpl;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeviceManagementRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    DeviceManagementRuntimeHintsTest() {
+        new DeviceManagementRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("every migration of the partitioned layout is included in the native image")
+    void partitioningMigrations_registered() throws Exception {
+        Resource[] migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/partitioning/*");
+        assertTrue(migrations.length > 0);
+        for (Resource migration : migrations) {
+            String path = "db/partitioning/" + migration.getFilename();
+            assertTrue(RuntimeHintsPredicates.resource().forResource(path).test(hints), path);
+        }
+    }
+
+    @Test
+    @DisplayName("list pages can be serialized in a native image")
+    void pageImpl_registered() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(PageImpl.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+    }
+}
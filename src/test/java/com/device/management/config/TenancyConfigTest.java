@@ -0,0 +1,59 @@
+package com.device.management.config;
+
+import com.device.management.service.tenancy.TenantContext;
+import io.micrometer.context.ContextRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenancyConfigTest {
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        MDC.remove(TenantContext.KEY);
+    }
+
+    @Test
+    @DisplayName("the query executor's decorator carries the tenant and its MDC field, and clears both afterwards")
+    void contextPropagation_carriesTenantAndMdc() throws Exception {
+        new TenancyConfig().tenantContextPropagation().afterSingletonsInstantiated();
+        TenantContext.set("acme");
+        MDC.put(TenantContext.KEY, "acme");
+        String[] seen = new String[2];
+        Runnable task = new ContextPropagatingTaskDecorator().decorate(() -> {
+            seen[0] = TenantContext.current();
+            seen[1] = MDC.get(TenantContext.KEY);
+        });
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(task).get(5, TimeUnit.SECONDS);
+            assertArrayEquals(new String[] {"acme", "acme"}, seen);
+
+            String[] after = executor.submit(() -> new String[] {TenantContext.current(), MDC.get(TenantContext.KEY)})
+                    .get(5, TimeUnit.SECONDS);
+            assertArrayEquals(new String[] {null, null}, after);
+        }
+    }
+
+    @Test
+    @DisplayName("the tenant accessor is registered once, however many contexts start")
+    void registerTenantAccessor_once() {
+        ContextRegistry registry = new ContextRegistry();
+
+        TenancyConfig.registerTenantAccessor(registry);
+        TenancyConfig.registerTenantAccessor(registry);
+
+        assertEquals(1, registry.getThreadLocalAccessors().stream()
+                .filter(accessor -> TenantContext.KEY.equals(accessor.key()))
+                .count());
+    }
+}
@@ -0,0 +1,98 @@
+package com.device.management.controller;
+
+import com.device.management.exception.GlobalExceptionHandler;
+import com.device.management.exception.InvalidRequestException;
+import com.device.management.mapper.ApiMapper;
+import com.device.management.service.DeviceHistoryUseCase;
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.dto.StateChangeView;
+import com.device.management.service.dto.StateUtilization;
+import com.device.management.state.DeviceState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static com.device.management.TestConstants.*;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class DeviceHistoryControllerTest {
+
+    private MockMvc mockMvc;
+    private DeviceHistoryUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = Mockito.mock(DeviceHistoryUseCase.class);
+        DeviceHistoryController controller = new DeviceHistoryController(useCase, Mappers.getMapper(ApiMapper.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("GET /devices/{id}/history returns the page and next cursor")
+    void history_http_success() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        OffsetDateTime changedAt = OffsetDateTime.parse(CREATION_TIME);
+        when(useCase.history(id, "abc", 10)).thenReturn(new HistoryPage(
+                List.of(new StateChangeView(DeviceState.AVAILABLE, DeviceState.IN_USE, changedAt)), "next"));
+
+        mockMvc.perform(get("/devices/{id}/history", id).param("cursor", "abc").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].fromState", is("AVAILABLE")))
+                .andExpect(jsonPath("$.items[0].toState", is("IN_USE")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @Test
+    @DisplayName("GET /devices/{id}/history returns 400 for an invalid cursor")
+    void history_http_invalidCursor() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        when(useCase.history(id, "bad", 20)).thenThrow(new InvalidRequestException("Invalid history cursor: bad"));
+
+        mockMvc.perform(get("/devices/{id}/history", id).param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /devices/{id}/utilization returns seconds per state for the window")
+    void utilization_http_success() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        OffsetDateTime from = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2026-01-02T00:00:00Z");
+        when(useCase.utilization(eq(id), any(), any())).thenReturn(new StateUtilization(from, to,
+                Map.of(DeviceState.AVAILABLE, 3600L, DeviceState.IN_USE, 82800L, DeviceState.INACTIVE, 0L)));
+
+        mockMvc.perform(get("/devices/{id}/utilization", id)
+                        .param("from", "2026-01-01T00:00:00Z")
+                        .param("to", "2026-01-02T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.secondsInState.IN_USE", is(82800)));
+    }
+
+    @Test
+    @DisplayName("GET /devices/{id}/utilization returns 404 when device not found")
+    void utilization_http_notFound() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        when(useCase.utilization(eq(id), any(), any())).thenThrow(new NoSuchElementException("Device not found"));
+
+        mockMvc.perform(get("/devices/{id}/utilization", id))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -3,30 +3,51 @@ package com.device.management.controller;
 
 import com.device.management.controller.request.DeviceRequest;
 import com.device.management.controller.request.DeviceUpdateRequest;
+import com.device.management.controller.response.BatchItemResponse;
 import com.device.management.controller.response.DeviceResponse;
 import com.device.management.exception.GlobalExceptionHandler;
+import com.device.management.exception.IdempotencyKeyReusedException;
+import com.device.management.exception.InvalidRequestException;
 import com.device.management.mapper.ApiMapper;
 import com.device.management.service.DeviceUseCase;
+import com.device.management.service.async.AsyncDeviceQueries;
+import com.device.management.service.batch.BatchDeviceUpdater;
+import com.device.management.service.coalescing.CoalescedCallException;
+import com.device.management.service.idempotency.IdempotentDeviceCreator;
 import com.device.management.service.dto.*;
 import com.device.management.state.DeviceState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
 import static com.device.management.TestConstants.*;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
@@ -41,14 +62,18 @@ public class DeviceManagementControllerTest {
     private MockMvc mockMvc;
     private DeviceUseCase useCase;
     private ApiMapper apiMapper;
+    private IdempotentDeviceCreator idempotentCreator;
 
     @BeforeEach
     void setUp() {
         useCase = Mockito.mock(DeviceUseCase.class);
         apiMapper = Mockito.mock(ApiMapper.class);
-        DeviceManagementController controller = new DeviceManagementController(useCase, apiMapper);
+        AsyncDeviceQueries queries = new AsyncDeviceQueries(useCase, new TaskExecutorAdapter(Runnable::run), Duration.ofSeconds(5));
+        idempotentCreator = Mockito.mock(IdempotentDeviceCreator.class);
+        DeviceManagementController controller = new DeviceManagementController(
+                useCase, queries, idempotentCreator, new BatchDeviceUpdater(useCase, 500, 2), apiMapper);
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
-                .setControllerAdvice(new GlobalExceptionHandler())
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .build();
     }
@@ -93,6 +118,45 @@ public class DeviceManagementControllerTest {
                 .andExpect(jsonPath("$.creationTime", notNullValue()));
     }
 
+    @Test
+    @DisplayName("POST /devices with an Idempotency-Key creates through the idempotent creator")
+    void createDevice_http_withIdempotencyKey() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        DeviceCreateCommand command = new DeviceCreateCommand(DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE);
+        DeviceView view = new DeviceView(id, DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE, OffsetDateTime.parse(CREATION_TIME));
+        when(apiMapper.toCreateCommand(any(DeviceRequest.class))).thenReturn(command);
+        when(idempotentCreator.create("retry-1", command)).thenReturn(view);
+        when(apiMapper.toResponse(view)).thenReturn(
+                new DeviceResponse(view.id(), view.name(), view.brand(), view.state(), view.creationTime()));
+
+        String body = objectMapper.writeValueAsString(new DeviceRequest(DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE));
+
+        mockMvc.perform(post("/devices")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(id.toString())));
+        Mockito.verifyNoInteractions(useCase);
+    }
+
+    @Test
+    @DisplayName("POST /devices returns 422 when the Idempotency-Key was used for a different body")
+    void createDevice_http_idempotencyKeyReused() throws Exception {
+        DeviceCreateCommand command = new DeviceCreateCommand(DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE);
+        when(apiMapper.toCreateCommand(any(DeviceRequest.class))).thenReturn(command);
+        when(idempotentCreator.create("retry-1", command))
+                .thenThrow(new IdempotencyKeyReusedException("retry-1"));
+
+        String body = objectMapper.writeValueAsString(new DeviceRequest(DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE));
+
+        mockMvc.perform(post("/devices")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isUnprocessableContent());
+    }
+
     @Test
     @DisplayName("POST /devices with missing fields returns 400 Bad Request")
     void createDevice_http_validation_error() throws Exception {
@@ -139,6 +203,18 @@ public class DeviceManagementControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    @DisplayName("DELETE /devices/{id} returns 504 when the database time budget is exceeded")
+    void deleteDevice_http_databaseTimeout() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        doThrow(new QueryTimeoutException("canceling statement due to user request"))
+                .when(useCase).delete(id);
+
+        mockMvc.perform(delete("/devices/{id}", id))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(content().string("Database time budget exceeded"));
+    }
+
     @Test
     @DisplayName("GET /devices/{id} returns 200 with device body")
     void getDevice_http_success() throws Exception {
@@ -161,7 +237,11 @@ public class DeviceManagementControllerTest {
                             deviceView.creationTime());
                 });
 
-        mockMvc.perform(get("/devices/{id}", id))
+        MvcResult mvcResult = mockMvc.perform(get("/devices/{id}", id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(id.toString())))
                 .andExpect(jsonPath("$.name", is(name)))
@@ -170,13 +250,147 @@ public class DeviceManagementControllerTest {
                 .andExpect(jsonPath("$.creationTime", notNullValue()));
     }
 
+    @Test
+    @DisplayName("GET /devices/{id} with Accept application/cbor returns CBOR encoded device")
+    void getDevice_http_cbor() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        OffsetDateTime createdAt = OffsetDateTime.parse(CREATION_TIME);
+        DeviceResponse response = new DeviceResponse(id, DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE, createdAt);
+
+        DeviceView view = new DeviceView(id, DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE, createdAt);
+        when(useCase.get(id)).thenReturn(view);
+        when(apiMapper.toResponse(view)).thenReturn(response);
+
+        MvcResult mvcResult = mockMvc.perform(get("/devices/{id}", id).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        DeviceResponse decoded = CBORMapper.builder().build().readValue(body, DeviceResponse.class);
+        assertEquals(id, decoded.id());
+        assertEquals(DEVICE_NAME, decoded.name());
+        assertEquals(DEVICE_BRAND, decoded.brand());
+        assertEquals(DeviceState.AVAILABLE, decoded.state());
+        assertEquals(createdAt.toInstant(), decoded.creationTime().toInstant());
+    }
+
+    @Test
+    @DisplayName("GET /devices with Accept application/x-jackson-smile returns a Smile encoded page")
+    void list_http_smile() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        OffsetDateTime createdAt = OffsetDateTime.parse(CREATION_TIME);
+        DeviceView view = new DeviceView(id, DEVICE_NAME, DEVICE_BRAND, DeviceState.IN_USE, createdAt);
+        when(useCase.list(any(DeviceFilter.class), any()))
+                .thenReturn(new PageResult<>(List.of(view), 0, 20, 1, 1, true, true));
+        when(apiMapper.toResponse(view))
+                .thenReturn(new DeviceResponse(id, DEVICE_NAME, DEVICE_BRAND, DeviceState.IN_USE, createdAt));
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        MvcResult mvcResult = mockMvc.perform(get("/devices").accept(smile))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = SmileMapper.builder().build().readTree(body);
+        assertEquals(1, page.get("totalElements").asInt());
+        assertEquals(DEVICE_NAME, page.get("content").get(0).get("name").asString());
+        assertEquals(DeviceState.IN_USE.name(), page.get("content").get(0).get("state").asString());
+    }
+
+    @Test
+    @DisplayName("errors are plain text whatever the Accept header")
+    void getDevice_http_smileNotFound_plainText() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        when(useCase.get(id)).thenThrow(new NoSuchElementException("Device not found"));
+
+        MvcResult mvcResult = mockMvc.perform(get("/devices/{id}", id)
+                        .accept(MediaType.parseMediaType("application/x-jackson-smile")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().string("Device not found"));
+    }
+
+    @Test
+    @DisplayName("an IllegalArgumentException, such as an unknown state code in a corrupt row, is left to the container as a 500")
+    void getDevice_http_illegalArgument_notBadRequest() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        when(useCase.get(id)).thenThrow(new IllegalArgumentException("Unknown device state code: 7"));
+
+        MvcResult mvcResult = mockMvc.perform(get("/devices/{id}", id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        ServletException ex = assertThrows(ServletException.class, () -> mockMvc.perform(asyncDispatch(mvcResult)));
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+    }
+
+    @Test
+    @DisplayName("an InvalidRequestException is a 400 with its message")
+    void getDevice_http_invalidRequest_badRequest() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        when(useCase.get(id)).thenThrow(new InvalidRequestException("Bad request detail"));
+
+        MvcResult mvcResult = mockMvc.perform(get("/devices/{id}", id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Bad request detail"));
+    }
+
+    @Test
+    @DisplayName("a follower of a failed coalesced read gets the answer of the leader's exception")
+    void getDevice_http_coalescedFailure_unwrapped() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        when(useCase.get(id)).thenThrow(new CoalescedCallException(new NoSuchElementException("Device not found")));
+
+        MvcResult mvcResult = mockMvc.perform(get("/devices/{id}", id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Device not found"));
+    }
+
+    @Test
+    @DisplayName("a follower of a coalesced read failing with an unmapped exception is left to the container")
+    void getDevice_http_coalescedUnmapped_serverError() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        when(useCase.get(id)).thenThrow(new CoalescedCallException(new IllegalArgumentException("Unknown device state code: 7")));
+
+        MvcResult mvcResult = mockMvc.perform(get("/devices/{id}", id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        ServletException ex = assertThrows(ServletException.class, () -> mockMvc.perform(asyncDispatch(mvcResult)));
+        assertInstanceOf(CoalescedCallException.class, ex.getCause());
+    }
+
     @Test
     @DisplayName("GET /devices/{id} returns 404 when device not found")
     void getDevice_http_notFound() throws Exception {
         UUID id = UUID.fromString(DEVICE_ID);
         when(useCase.get(id)).thenThrow(new NoSuchElementException("Device not found"));
 
-        mockMvc.perform(get("/devices/{id}", id))
+        MvcResult mvcResult = mockMvc.perform(get("/devices/{id}", id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isNotFound());
     }
 
@@ -304,6 +518,73 @@ public class DeviceManagementControllerTest {
                 .andExpect(content().string("Cannot update name/brand while device is IN_USE"));
     }
 
+    @Test
+    @DisplayName("PATCH /devices returns a result per item in request order")
+    void updateBatch_returnsPerItemResults() throws Exception {
+        UUID updatedId = UUID.fromString(DEVICE_ID);
+        UUID conflictId = UUID.randomUUID();
+        DeviceUpdateRequest stateOnly = new DeviceUpdateRequest(null, null, DeviceState.INACTIVE);
+        DeviceUpdateRequest rename = new DeviceUpdateRequest(NEW_DEVICE_NAME, null, null);
+        DeviceUpdateCommand stateOnlyCommand = new DeviceUpdateCommand(null, null, DeviceState.INACTIVE);
+        DeviceUpdateCommand renameCommand = new DeviceUpdateCommand(NEW_DEVICE_NAME, null, null);
+        Mockito.when(apiMapper.toUpdateCommand(stateOnly)).thenReturn(stateOnlyCommand);
+        Mockito.when(apiMapper.toUpdateCommand(rename)).thenReturn(renameCommand);
+
+        Map<UUID, DeviceUpdateCommand> commands = new LinkedHashMap<>();
+        commands.put(updatedId, stateOnlyCommand);
+        commands.put(conflictId, renameCommand);
+        DeviceView view = new DeviceView(updatedId, DEVICE_NAME, DEVICE_BRAND, DeviceState.INACTIVE, OffsetDateTime.parse(CREATION_TIME));
+        BatchItemResult updated = BatchItemResult.updated(updatedId, view);
+        BatchItemResult conflict = BatchItemResult.conflict(conflictId, "Cannot update name/brand while device is IN_USE");
+        Mockito.when(useCase.updateBatch(commands)).thenReturn(List.of(updated, conflict));
+        Mockito.when(apiMapper.toResponse(updated)).thenReturn(new BatchItemResponse(updatedId, 200,
+                new DeviceResponse(updatedId, DEVICE_NAME, DEVICE_BRAND, DeviceState.INACTIVE, OffsetDateTime.parse(CREATION_TIME)), null));
+        Mockito.when(apiMapper.toResponse(conflict)).thenReturn(new BatchItemResponse(conflictId, 409, null, conflict.error()));
+
+        Map<UUID, DeviceUpdateRequest> body = new LinkedHashMap<>();
+        body.put(updatedId, stateOnly);
+        body.put(conflictId, rename);
+        mockMvc.perform(patch("/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(updatedId.toString()))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].device.state").value(DeviceState.INACTIVE.name()))
+                .andExpect(jsonPath("$[1].id").value(conflictId.toString()))
+                .andExpect(jsonPath("$[1].status").value(409))
+                .andExpect(jsonPath("$[1].error").value("Cannot update name/brand while device is IN_USE"));
+    }
+
+    @Test
+    @DisplayName("PATCH /devices returns 400 when the batch exceeds the configured maximum")
+    void updateBatch_tooLarge_returnsBadRequest() throws Exception {
+        Map<UUID, DeviceUpdateRequest> body = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            body.put(UUID.randomUUID(), new DeviceUpdateRequest(null, null, DeviceState.INACTIVE));
+        }
+
+        mockMvc.perform(patch("/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(useCase);
+    }
+
+    @Test
+    @DisplayName("PATCH /devices returns 400 when a device id appears twice, in any letter case")
+    void updateBatch_duplicateId_returnsBadRequest() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        String body = "{\"" + id + "\":{\"state\":\"INACTIVE\"},"
+                + "\"" + id.toString().toUpperCase() + "\":{\"name\":\"" + NEW_DEVICE_NAME + "\"}}";
+
+        mockMvc.perform(patch("/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(useCase);
+    }
+
     @Test
     @DisplayName("PATCH /devices/{id} update partial no changes returns 200 ok")
     void updatePartial_noChanges_success() throws Exception {
@@ -384,7 +665,11 @@ public class DeviceManagementControllerTest {
                         DeviceState.AVAILABLE,
                         OffsetDateTime.parse(NEW_CREATION_TIME)));
 
-        mockMvc.perform(get("/devices"))
+        MvcResult mvcResult = mockMvc.perform(get("/devices"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content.length()").value(2))
                 .andExpect(jsonPath("$.content[0].name").value(DEVICE_NAME))
@@ -422,10 +707,14 @@ public class DeviceManagementControllerTest {
                         DeviceState.INACTIVE,
                         OffsetDateTime.parse(NEW_CREATION_TIME)));
 
-        mockMvc.perform(get("/devices")
+        MvcResult mvcResult = mockMvc.perform(get("/devices")
                         .param("page", "1")
                         .param("size", "5")
                         .param("sort", "creationTime,desc"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].name").value(NEW_DEVICE_NAME))
                 .andExpect(jsonPath("$.totalElements").value(6))
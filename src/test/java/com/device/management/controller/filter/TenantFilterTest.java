@@ -0,0 +1,64 @@
+package com.device.management.controller.filter;
+
+import com.device.management.service.tenancy.TenantRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantFilterTest {
+
+    private static final String HEADER = "X-Tenant-Id";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("throttled requests of many unlisted tenants share the 'other' tag")
+    void throttled_manyTenants_boundedMeters() throws Exception {
+        TenantFilter filter = new TenantFilter(HEADER, "default", Set.of(), new TenantRateLimiter(1, 1, 100), registry);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(200, send(filter, "tenant-" + i));
+            assertEquals(429, send(filter, "tenant-" + i));
+        }
+        assertEquals(200, send(filter, null));
+        assertEquals(429, send(filter, null));
+
+        assertEquals(2, registry.find("devices.tenancy.throttled").counters().size());
+        assertEquals(1_000, counter(TenantFilter.OTHER_TENANTS).count());
+        assertEquals(1, counter("default").count());
+    }
+
+    @Test
+    @DisplayName("throttled requests of allowed tenants are counted per tenant")
+    void throttled_allowedTenant_taggedByName() throws Exception {
+        TenantFilter filter = new TenantFilter(HEADER, "default", Set.of("default", "tenant-a"),
+                new TenantRateLimiter(1, 1, 100), registry);
+
+        send(filter, "tenant-a");
+        assertEquals(429, send(filter, "tenant-a"));
+
+        assertEquals(1, counter("tenant-a").count());
+    }
+
+    private Counter counter(String tenant) {
+        return registry.get("devices.tenancy.throttled").tag("tenant", tenant).counter();
+    }
+
+    private static int send(TenantFilter filter, String tenant) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/devices");
+        if (tenant != null) {
+            request.addHeader(HEADER, tenant);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,78 @@
+package com.device.management.loadtest;
+
+import com.device.management.state.DeviceState;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Shape of generated devices: brands {@code Brand-0001..} with Zipf-skewed popularity and states in a
+ * fixed ratio such as {@code AVAILABLE=70,IN_USE=25,INACTIVE=5}.
+ */
+public final class DeviceDistribution {
+
+    private final int brands;
+    private final ZipfDistribution brandRank;
+    private final DeviceState[] states;
+    private final double[] stateCumulative;
+
+    public DeviceDistribution(int brands, double brandSkew, String stateRatio) {
+        this.brands = brands;
+        this.brandRank = new ZipfDistribution(brands, brandSkew);
+        Map<DeviceState, Double> ratio = parseRatio(stateRatio);
+        this.states = ratio.keySet().toArray(DeviceState[]::new);
+        this.stateCumulative = new double[states.length];
+        double total = ratio.values().stream().mapToDouble(Double::doubleValue).sum();
+        double running = 0;
+        for (int i = 0; i < states.length; i++) {
+            running += ratio.get(states[i]) / total;
+            stateCumulative[i] = running;
+        }
+    }
+
+    public String brand(SplittableRandom random) {
+        return brandName(brandRank(random));
+    }
+
+    public int brandRank(SplittableRandom random) {
+        return brandRank.sample(random);
+    }
+
+    public DeviceState state(SplittableRandom random) {
+        double point = random.nextDouble();
+        for (int i = 0; i < states.length; i++) {
+            if (point < stateCumulative[i]) {
+                return states[i];
+            }
+        }
+        return states[states.length - 1];
+    }
+
+    public int brands() {
+        return brands;
+    }
+
+    public static String brandName(int rank) {
+        return String.format(Locale.ROOT, "Brand-%04d", rank + 1);
+    }
+
+    private static Map<DeviceState, Double> parseRatio(String spec) {
+        Map<DeviceState, Double> ratio = new EnumMap<>(DeviceState.class);
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected STATE=weight but got: " + entry);
+            }
+            double weight = Double.parseDouble(pair[1].trim());
+            if (weight > 0) {
+                ratio.put(DeviceState.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (ratio.isEmpty()) {
+            throw new IllegalArgumentException("State ratio has no states: " + spec);
+        }
+        return ratio;
+    }
+}
@@ -0,0 +1,47 @@
+package com.device.management.loadtest;
+
+import com.device.management.state.DeviceState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeviceDistributionTest {
+
+    @Test
+    @DisplayName("brands follow a Zipf skew: the first brand is drawn most, a zero exponent is uniform")
+    void brand_isZipfSkewed() {
+        ZipfDistribution zipf = new ZipfDistribution(10, 1.0);
+        assertEquals(1 / 2.9289682540, zipf.probability(0), 1e-6);
+        assertEquals(zipf.probability(0) / 2, zipf.probability(1), 1e-9);
+        assertEquals(0.25, new ZipfDistribution(4, 0).probability(3), 1e-9);
+
+        DeviceDistribution distribution = new DeviceDistribution(10, 1.0, "AVAILABLE=1");
+        Map<String, Integer> counts = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 50_000; i++) {
+            counts.merge(distribution.brand(random), 1, Integer::sum);
+        }
+        assertEquals(50_000 * zipf.probability(0), counts.get("Brand-0001"), 750);
+        assertTrue(counts.get("Brand-0001") > counts.get("Brand-0010") * 8);
+    }
+
+    @Test
+    @DisplayName("states follow the configured ratio and omit states with no weight")
+    void state_followsRatio() {
+        DeviceDistribution distribution = new DeviceDistribution(1, 0, "available=3,in_use=1,inactive=0");
+        Map<DeviceState, Integer> counts = new EnumMap<>(DeviceState.class);
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 40_000; i++) {
+            counts.merge(distribution.state(random), 1, Integer::sum);
+        }
+        assertFalse(counts.containsKey(DeviceState.INACTIVE));
+        assertEquals(10_000, counts.get(DeviceState.IN_USE), 500);
+        assertThrows(IllegalArgumentException.class, () -> new DeviceDistribution(1, 0, "BROKEN=1"));
+    }
+}
@@ -0,0 +1,250 @@
+package com.device.management.loadtest;
+
+import com.device.management.repository.entity.Brand;
+import com.device.management.state.DeviceState;
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads generated devices straight into the devices table, bypassing the API: {@code COPY} on PostgreSQL,
+ * batched inserts elsewhere (H2). Rows are produced in fixed-size chunks, each from its own random stream derived
+ * from the seed and the chunk number, so the same settings load the same devices whatever the thread count.
+ * Chunks are spread over the worker threads and each commits on its own. Every device belongs to the tenant of the
+ * settings; on PostgreSQL each transaction declares it, as the application does, so that the load passes
+ * row-level security when it is on. PostgreSQL refuses {@code COPY FROM} into a table under row-level security, so
+ * there each chunk is copied into a temporary table first and moved over with {@code INSERT ... SELECT}.
+ */
+public final class DeviceSeeder {
+
+    static final int CHUNK_SIZE = 10_000;
+
+    private static final String COLUMNS = "id, name, brand_id, state, creation_time, version, tenant_id";
+
+    /**
+     * @param until   newest creation time; devices are created uniformly within {@code spread} before it
+     * @param tenant  tenant of every device
+     */
+    public record Settings(long devices, DeviceDistribution distribution, Instant until, Duration spread,
+                           int threads, long seed, String tenant) {
+    }
+
+    private final DataSource dataSource;
+
+    public DeviceSeeder(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return number of devices loaded
+     */
+    public long seed(Settings settings) throws Exception {
+        int[] brandIds = registerBrands(settings.distribution().brands());
+        boolean postgres;
+        boolean rowLevelSecurity;
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+            rowLevelSecurity = postgres && rowLevelSecurity(connection);
+            if (postgres) {
+                createPartitions(connection, settings.until().minus(settings.spread()));
+            }
+        }
+
+        long chunks = (settings.devices() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        AtomicLong nextChunk = new AtomicLong();
+        AtomicLong loaded = new AtomicLong();
+        try (ExecutorService workers = Executors.newFixedThreadPool(settings.threads())) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int worker = 0; worker < settings.threads(); worker++) {
+                results.add(workers.submit(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        connection.setAutoCommit(false);
+                        if (rowLevelSecurity) {
+                            createStaging(connection);
+                        }
+                        for (long chunk = nextChunk.getAndIncrement(); chunk < chunks; chunk = nextChunk.getAndIncrement()) {
+                            List<Row> rows = generate(settings, brandIds, chunk);
+                            if (postgres) {
+                                declareTenant(connection, settings.tenant());
+                                copy(connection, rows, settings.tenant(), rowLevelSecurity);
+                            } else {
+                                insert(connection, rows, settings.tenant());
+                            }
+                            connection.commit();
+                            loaded.addAndGet(rows.size());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        if (postgres) {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE devices");
+            }
+        }
+        return loaded.get();
+    }
+
+    static List<Row> generate(Settings settings, int[] brandIds, long chunk) {
+        // Stream per chunk: rows depend on the seed and their position only, not on which worker wrote them
+        SplittableRandom random = new SplittableRandom(settings.seed() * 0x9E3779B97F4A7C15L + chunk);
+        long first = chunk * CHUNK_SIZE;
+        long last = Math.min(first + CHUNK_SIZE, settings.devices());
+        long spreadMillis = settings.spread().toMillis();
+        long untilMillis = settings.until().toEpochMilli();
+        DeviceDistribution distribution = settings.distribution();
+        List<Row> rows = new ArrayList<>((int) (last - first));
+        for (long n = first; n < last; n++) {
+            Instant created = Instant.ofEpochMilli(untilMillis - random.nextLong(spreadMillis + 1));
+            int brand = distribution.brandRank(random);
+            rows.add(new Row(uuidV7(created, random), "Device " + (n + 1), brandIds[brand],
+                    distribution.state(random), created));
+        }
+        return rows;
+    }
+
+    // Time-ordered like the ids the application generates, so index locality matches production data
+    static UUID uuidV7(Instant created, SplittableRandom random) {
+        long mostSignificant = (created.toEpochMilli() << 16) | 0x7000L | (random.nextLong() & 0xFFFL);
+        long leastSignificant = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private int[] registerBrands(int brands) throws SQLException {
+        int[] ids = new int[brands];
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement find = connection.prepareStatement("SELECT id FROM brands WHERE brand_key = ?");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO brands (name, brand_key) VALUES (?, ?)")) {
+            for (int rank = 0; rank < brands; rank++) {
+                String name = DeviceDistribution.brandName(rank);
+                find.setString(1, Brand.keyOf(name));
+                Integer id = firstId(find);
+                if (id == null) {
+                    insert.setString(1, name);
+                    insert.setString(2, Brand.keyOf(name));
+                    insert.executeUpdate();
+                    id = firstId(find);
+                }
+                ids[rank] = id;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+        return ids;
+    }
+
+    private static Integer firstId(PreparedStatement find) throws SQLException {
+        try (ResultSet rs = find.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : null;
+        }
+    }
+
+    private static boolean rowLevelSecurity(Connection connection) throws SQLException {
+        try (Statement check = connection.createStatement();
+             ResultSet rs = check.executeQuery("SELECT relrowsecurity FROM pg_class WHERE oid = 'devices'::regclass")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    // Emptied by every commit, so each chunk starts from an empty table
+    private static void createStaging(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMPORARY TABLE devices_seed (LIKE devices) ON COMMIT DELETE ROWS");
+        }
+        connection.commit();
+    }
+
+    // Partitioned table (see db/partitioning): make sure a partition covers the oldest creation time
+    private static void createPartitions(Connection connection, Instant oldest) throws SQLException {
+        try (Statement check = connection.createStatement();
+             ResultSet rs = check.executeQuery("SELECT to_regproc('devices_create_partitions') IS NOT NULL")) {
+            if (!rs.next() || !rs.getBoolean(1)) {
+                return;
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT devices_create_partitions(1, ?)")) {
+            statement.setTimestamp(1, Timestamp.from(oldest));
+            statement.execute();
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    // Transaction-local, like TenantTransactionListener
+    private static void declareTenant(Connection connection, String tenant) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT set_config('devices.tenant_id', ?, true)")) {
+            statement.setString(1, tenant);
+            statement.execute();
+        }
+    }
+
+    private static void copy(Connection connection, List<Row> rows, String tenant, boolean staged) throws SQLException {
+        StringBuilder csv = new StringBuilder(rows.size() * 96);
+        ZoneId zone = ZoneId.systemDefault();
+        for (Row row : rows) {
+            csv.append(row.id()).append(',')
+                    .append(row.name()).append(',')
+                    .append(row.brandId()).append(',')
+                    .append(row.state().code()).append(',')
+                    .append(LocalDateTime.ofInstant(row.created(), zone)).append(",0,")
+                    .append(tenant).append('\n');
+        }
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn("COPY " + (staged ? "devices_seed" : "devices")
+                    + " (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)", new StringReader(csv.toString()));
+        } catch (IOException ex) {
+            throw new SQLException(ex);
+        }
+        if (staged) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO devices (" + COLUMNS + ") SELECT " + COLUMNS + " FROM devices_seed");
+            }
+        }
+    }
+
+    private static void insert(Connection connection, List<Row> rows, String tenant) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO devices (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, 0, ?)")) {
+            for (Row row : rows) {
+                insert.setObject(1, row.id());
+                insert.setString(2, row.name());
+                insert.setInt(3, row.brandId());
+                insert.setShort(4, row.state().code());
+                insert.setTimestamp(5, Timestamp.from(row.created()));
+                insert.setString(6, tenant);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    record Row(UUID id, String name, int brandId, DeviceState state, Instant created) {
+    }
+}
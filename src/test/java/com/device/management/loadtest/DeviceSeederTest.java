@@ -0,0 +1,135 @@
+package com.device.management.loadtest;
+
+import com.device.management.postgres.TestPostgres;
+import com.device.management.state.DeviceState;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeviceSeederTest {
+
+    private static final Instant UNTIL = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Duration SPREAD = Duration.ofDays(365);
+
+    @Test
+    @DisplayName("seed loads the requested devices with the configured shape through batched inserts")
+    void seed_loadsDevices() throws Exception {
+        JdbcDataSource dataSource = database("seeded");
+
+        long loaded = new DeviceSeeder(dataSource).seed(settings(25_000, 4, 1L));
+
+        assertEquals(25_000, loaded);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertEquals(25_000, single(statement, "SELECT COUNT(*) FROM devices"));
+            assertEquals(20, single(statement, "SELECT COUNT(*) FROM brands"));
+            assertEquals(25_000, single(statement, "SELECT COUNT(*) FROM devices WHERE tenant_id = 'seeded'"));
+            assertEquals(0, single(statement, "SELECT COUNT(*) FROM devices WHERE state = " + DeviceState.INACTIVE.code()));
+            assertEquals(5_000, single(statement, "SELECT COUNT(*) FROM devices WHERE state = " + DeviceState.IN_USE.code()), 400);
+            try (ResultSet rs = statement.executeQuery("SELECT MIN(creation_time), MAX(creation_time) FROM devices")) {
+                rs.next();
+                assertFalse(rs.getTimestamp(1).toInstant().isBefore(UNTIL.minus(SPREAD)));
+                assertFalse(rs.getTimestamp(2).toInstant().isAfter(UNTIL));
+                assertTrue(rs.getTimestamp(2).toInstant().isAfter(UNTIL.minus(Duration.ofDays(1))));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("seed produces the same devices for the same seed regardless of thread count")
+    void seed_isDeterministic() throws Exception {
+        JdbcDataSource first = database("first");
+        JdbcDataSource second = database("second");
+        JdbcDataSource other = database("other");
+
+        new DeviceSeeder(first).seed(settings(12_345, 1, 7L));
+        new DeviceSeeder(second).seed(settings(12_345, 3, 7L));
+        new DeviceSeeder(other).seed(settings(12_345, 3, 8L));
+
+        assertEquals(dump(first), dump(second));
+        assertNotEquals(dump(first), dump(other));
+    }
+
+    @Test
+    @DisplayName("on PostgreSQL with row-level security the COPY runs as the tenant and its devices are visible to it")
+    void seed_rowLevelSecurity_copiesIntoTenant() throws Exception {
+        DataSource dataSource = TestPostgres.newDatabase("devices_app");
+        TestPostgres.flyway(dataSource, "classpath:db/migration")
+                .placeholders(Map.of("concurrently", "CONCURRENTLY", "row_level_security", "true")).load().migrate();
+
+        assertEquals(5_000, new DeviceSeeder(dataSource).seed(settings(5_000, 2, 1L)));
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            assertEquals(0, single(statement, "SELECT COUNT(*) FROM devices"));
+            statement.execute("SELECT set_config('devices.tenant_id', 'seeded', true)");
+            assertEquals(5_000, single(statement, "SELECT COUNT(*) FROM devices"));
+            connection.rollback();
+        }
+    }
+
+    @Test
+    @DisplayName("generated ids are version 7 UUIDs carrying the creation time")
+    void generate_usesTimeOrderedIds() {
+        List<DeviceSeeder.Row> rows = DeviceSeeder.generate(settings(100, 1, 3L), new int[20], 0);
+
+        assertEquals(100, rows.size());
+        for (DeviceSeeder.Row row : rows) {
+            assertEquals(7, row.id().version());
+            assertEquals(2, row.id().variant());
+            assertEquals(row.created().toEpochMilli(), row.id().getMostSignificantBits() >>> 16);
+        }
+    }
+
+    private static DeviceSeeder.Settings settings(long devices, int threads, long seed) {
+        return new DeviceSeeder.Settings(devices, new DeviceDistribution(20, 1.0, "AVAILABLE=4,IN_USE=1"),
+                UNTIL, SPREAD, threads, seed, "seeded");
+    }
+
+    private static JdbcDataSource database(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:seeder-" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE brands (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "name VARCHAR(255) NOT NULL, brand_key VARCHAR(255) NOT NULL UNIQUE)");
+            statement.execute("CREATE TABLE devices (id UUID PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                    + "brand_id INTEGER NOT NULL REFERENCES brands (id), state SMALLINT NOT NULL, "
+                    + "creation_time TIMESTAMP NOT NULL, version BIGINT, deleted_at TIMESTAMP WITH TIME ZONE, "
+                    + "tenant_id VARCHAR(255) NOT NULL)");
+        }
+        return dataSource;
+    }
+
+    private static List<String> dump(JdbcDataSource dataSource) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT d.id, d.name, b.name, d.state, d.creation_time "
+                     + "FROM devices d JOIN brands b ON b.id = d.brand_id ORDER BY d.id")) {
+            while (rs.next()) {
+                rows.add(rs.getString(1) + "|" + rs.getString(2) + "|" + rs.getString(3) + "|" + rs.getShort(4)
+                        + "|" + rs.getTimestamp(5));
+            }
+        }
+        return rows;
+    }
+
+    private static long single(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.device.management.loadtest;
+
+import com.device.management.state.DeviceState;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives the device API over HTTP with a number of concurrent users, each picking its next call from the
+ * workload mix with its own random stream split off the seed, so the same settings issue the same sequence of
+ * operations and payloads per user (which existing device a call targets still depends on timing). Users run closed-loop (next call when the previous one answers) unless a target rate is set;
+ * then each user paces its calls and latency is measured from the intended start, which keeps a stalled server
+ * from hiding its queueing delay.
+ */
+public final class LoadGenerator {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * @param initialDevices devices created before the run so that reads, updates and deletes have targets
+     * @param ratePerSecond  total target rate across all users; 0 or less runs closed-loop
+     */
+    public record Settings(WorkloadMix mix, DeviceDistribution devices, int users, int initialDevices,
+                           Duration warmup, Duration duration, double ratePerSecond, long seed) {
+    }
+
+    private final URI devicesUri;
+    private final Settings settings;
+    private final HttpClient client;
+    private final DevicePool pool = new DevicePool();
+
+    public LoadGenerator(URI baseUri, Settings settings) {
+        this.devicesUri = baseUri.resolve("/devices");
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    public LoadReport run() throws Exception {
+        SplittableRandom seedStream = new SplittableRandom(settings.seed());
+        populate(seedStream.split());
+        List<SplittableRandom> userStreams = new ArrayList<>();
+        for (int user = 0; user < settings.users(); user++) {
+            userStreams.add(seedStream.split());
+        }
+        if (!settings.warmup().isZero()) {
+            drive(userStreams, settings.warmup(), new LoadReport());
+        }
+        LoadReport report = new LoadReport();
+        long start = System.nanoTime();
+        drive(userStreams, settings.duration(), report);
+        report.finish(Duration.ofNanos(System.nanoTime() - start));
+        return report;
+    }
+
+    private void populate(SplittableRandom random) throws Exception {
+        LoadReport ignored = new LoadReport();
+        int remaining = settings.initialDevices();
+        List<SplittableRandom> streams = new ArrayList<>();
+        for (int user = 0; user < settings.users(); user++) {
+            streams.add(random.split());
+        }
+        forEachUser(streams, (user, stream) -> {
+            for (int i = user; i < remaining; i += settings.users()) {
+                create(stream, settings.devices().brand(stream), ignored, 0, System.nanoTime());
+            }
+        });
+    }
+
+    private void drive(List<SplittableRandom> streams, Duration duration, LoadReport report) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long intervalNanos = settings.ratePerSecond() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) * settings.users() / settings.ratePerSecond())
+                : 0;
+        forEachUser(streams, (user, random) -> {
+            long intended = System.nanoTime();
+            while (System.nanoTime() < deadline) {
+                if (intervalNanos > 0) {
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                } else {
+                    intended = System.nanoTime();
+                }
+                call(settings.mix().next(random), random, report, TimeUnit.NANOSECONDS.toMicros(intervalNanos), intended);
+                intended += intervalNanos;
+            }
+        });
+    }
+
+    private void call(Operation operation, SplittableRandom random, LoadReport report, long intervalMicros,
+                      long intended) throws InterruptedException {
+        DeviceDistribution devices = settings.devices();
+        String id = switch (operation) {
+            case GET, PATCH -> pool.pick(random);
+            case DELETE -> pool.take(random);
+            default -> null;
+        };
+        if (id == null && operation != Operation.LIST) {
+            // Nothing left to read, update or delete
+            operation = Operation.CREATE;
+        }
+        switch (operation) {
+            case CREATE -> create(random, devices.brand(random), report, intervalMicros, intended);
+            case GET -> send(operation, HttpRequest.newBuilder(devicesUri.resolve("/devices/" + id)).GET(), report,
+                    intervalMicros, intended);
+            case LIST -> {
+                StringBuilder query = new StringBuilder("?page=").append(random.nextInt(3)).append("&size=20");
+                if (random.nextInt(2) == 0) {
+                    query.append("&brand=").append(devices.brand(random));
+                }
+                if (random.nextInt(10) < 3) {
+                    query.append("&state=").append(devices.state(random));
+                }
+                send(operation, HttpRequest.newBuilder(URI.create(devicesUri + query.toString())).GET(), report,
+                        intervalMicros, intended);
+            }
+            case PATCH -> {
+                // Mostly state changes; the occasional rename is rejected while the device is in use
+                String body = random.nextInt(10) == 0
+                        ? "{\"name\":\"Renamed " + random.nextInt(1_000_000) + "\"}"
+                        : "{\"state\":\"" + devices.state(random) + "\"}";
+                send(operation, json(HttpRequest.newBuilder(devicesUri.resolve("/devices/" + id)), "PATCH", body),
+                        report, intervalMicros, intended);
+            }
+            case DELETE -> {
+                HttpResponse<String> response = send(operation,
+                        HttpRequest.newBuilder(devicesUri.resolve("/devices/" + id)).DELETE(), report,
+                        intervalMicros, intended);
+                if (response == null || response.statusCode() != Operation.DELETE.expectedStatus()) {
+                    // Devices in use cannot be deleted; keep them as targets
+                    pool.add(id);
+                }
+            }
+        }
+    }
+
+    private void create(SplittableRandom random, String brand, LoadReport report, long intervalMicros,
+                        long intended) throws InterruptedException {
+        DeviceState state = settings.devices().state(random);
+        String body = String.format(Locale.ROOT, "{\"name\":\"Device %d\",\"brand\":\"%s\",\"state\":\"%s\"}",
+                random.nextInt(1_000_000), brand, state);
+        HttpResponse<String> response = send(Operation.CREATE, json(HttpRequest.newBuilder(devicesUri), "POST", body),
+                report, intervalMicros, intended);
+        if (response != null && response.statusCode() == Operation.CREATE.expectedStatus()) {
+            Matcher id = ID.matcher(response.body());
+            if (id.find()) {
+                pool.add(id.group(1));
+            }
+        }
+    }
+
+    private HttpResponse<String> send(Operation operation, HttpRequest.Builder request, LoadReport report,
+                                      long intervalMicros, long intended) throws InterruptedException {
+        HttpResponse<String> response = null;
+        try {
+            response = client.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != operation.expectedStatus()) {
+                report.error(operation, Integer.toString(response.statusCode()));
+            }
+        } catch (IOException ex) {
+            report.error(operation, ex.getClass().getSimpleName());
+        }
+        report.record(operation, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended), intervalMicros);
+        return response;
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder request, String method, String body) {
+        return request.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private void forEachUser(List<SplittableRandom> streams, UserLoop loop) throws Exception {
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int user = 0; user < streams.size(); user++) {
+                int index = user;
+                results.add(users.submit(() -> {
+                    loop.run(index, streams.get(index));
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface UserLoop {
+        void run(int user, SplittableRandom random) throws Exception;
+    }
+
+    /**
+     * Ids of devices known to exist, shared by all users. Deletes take an id out so that two users never
+     * delete the same device; a failed delete puts it back.
+     */
+    private static final class DevicePool {
+
+        private final List<String> ids = new ArrayList<>();
+
+        synchronized void add(String id) {
+            ids.add(id);
+        }
+
+        synchronized String pick(SplittableRandom random) {
+            return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+        }
+
+        synchronized String take(SplittableRandom random) {
+            if (ids.isEmpty()) {
+                return null;
+            }
+            int index = random.nextInt(ids.size());
+            String id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+}
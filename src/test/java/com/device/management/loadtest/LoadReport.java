@@ -0,0 +1,161 @@
+package com.device.management.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of one load run: a latency histogram (microseconds, three significant digits) and an error
+ * breakdown per operation. Latencies cover every call, failed ones included; errors are keyed by the
+ * unexpected HTTP status or the exception type.
+ */
+public final class LoadReport {
+
+    static final String CSV_HEADER =
+            "run,operation,calls,errors,throughput_per_s,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms";
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private Duration elapsed = Duration.ZERO;
+
+    public LoadReport() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+        }
+    }
+
+    /**
+     * @param expectedIntervalMicros pacing interval of a rate-limited run, so that calls delayed by a slow
+     *                               predecessor are still accounted for; 0 for a closed-loop run
+     */
+    void record(Operation operation, long latencyMicros, long expectedIntervalMicros) {
+        latencies.get(operation).recordValueWithExpectedInterval(Math.max(latencyMicros, 1), expectedIntervalMicros);
+    }
+
+    void error(Operation operation, String cause) {
+        errors.computeIfAbsent(operation.label() + " " + cause, key -> new LongAdder()).increment();
+    }
+
+    void finish(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    public long calls() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public long errors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Histogram latency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    public Map<String, Long> errorBreakdown() {
+        Map<String, Long> breakdown = new TreeMap<>();
+        errors.forEach((cause, count) -> breakdown.put(cause, count.sum()));
+        return breakdown;
+    }
+
+    /**
+     * One line per issued operation plus a total, in the same layout for every run so that runs diff cleanly.
+     */
+    public void print(PrintStream out, String run) {
+        out.printf(Locale.ROOT, "run=%s elapsed=%.1f s calls=%d errors=%d throughput=%.1f/s%n",
+                run, seconds(), calls(), errors(), calls() / seconds());
+        for (Row row : rows(run)) {
+            out.printf(Locale.ROOT,
+                    "  op=%-6s calls=%-8d errors=%-6d throughput=%8.1f/s p50=%7.2f p90=%7.2f p99=%7.2f p99.9=%7.2f max=%8.2f ms%n",
+                    row.operation, row.calls, row.errors, row.throughput, row.p50, row.p90, row.p99, row.p999, row.max);
+        }
+        errorBreakdown().forEach((cause, count) -> out.printf("  error=%-28s count=%d%n", cause, count));
+    }
+
+    /**
+     * Appends the summary rows to {@code summary.csv} in the directory and writes each operation's full
+     * percentile distribution as {@code <run>-<operation>.hgrm} (loadable by the HdrHistogram plotter).
+     */
+    public void write(Path directory, String run) {
+        try {
+            Files.createDirectories(directory);
+            Path summary = directory.resolve("summary.csv");
+            List<String> lines = new ArrayList<>();
+            if (!Files.exists(summary)) {
+                lines.add(CSV_HEADER);
+            }
+            for (Row row : rows(run)) {
+                lines.add(String.format(Locale.ROOT, "%s,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f", run, row.operation,
+                        row.calls, row.errors, row.throughput, row.p50, row.p90, row.p99, row.p999, row.max));
+            }
+            Files.write(summary, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = latencies.get(operation);
+                if (histogram.getTotalCount() > 0) {
+                    try (PrintStream out = new PrintStream(
+                            Files.newOutputStream(directory.resolve(run + "-" + operation.label() + ".hgrm")))) {
+                        histogram.outputPercentileDistribution(out, 1000.0);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private List<Row> rows(String run) {
+        List<Row> rows = new ArrayList<>();
+        Histogram total = new Histogram(3);
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() > 0) {
+                rows.add(row(operation.label(), histogram, errorsOf(operation.label() + " ")));
+                total.add(histogram);
+            }
+        }
+        rows.add(row("total", total, errors()));
+        return rows;
+    }
+
+    private long errorsOf(String prefix) {
+        return errors.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+    }
+
+    private Row row(String operation, Histogram histogram, long errors) {
+        return new Row(operation, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private double seconds() {
+        return Math.max(elapsed.toNanos(), 1) / 1e9;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private record Row(String operation, long calls, long errors, double throughput,
+                       double p50, double p90, double p99, double p999, double max) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.device.management.loadtest;
+
+import com.device.management.benchmark.BenchmarkDatabase;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the application on a random port and drives a configurable workload through its HTTP API. Defaults to
+ * the in-memory H2 test database; point it at PostgreSQL with {@code -Dbench.jdbc.url}, e.g.
+ * {@code mvn test -Pbenchmark -Dtest=LoadTest -Dload.mix=write-heavy -Dload.users=32 -Dload.duration=PT2M
+ * -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/devicemanagementdb -Dbench.jdbc.user=admin
+ * -Dbench.jdbc.password=secret}. Results are printed and appended to {@code target/load-reports}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class LoadTest {
+
+    private static final String MIX = System.getProperty("load.mix", "read-heavy");
+    private static final int USERS = Integer.getInteger("load.users", 16);
+    private static final int INITIAL_DEVICES = Integer.getInteger("load.devices", 1_000);
+    private static final int BRANDS = Integer.getInteger("load.brands", 50);
+    private static final double BRAND_SKEW = Double.parseDouble(System.getProperty("load.brand-skew", "1.1"));
+    private static final String STATES = System.getProperty("load.states", "AVAILABLE=60,IN_USE=30,INACTIVE=10");
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "0"));
+    private static final long SEED = Long.getLong("load.seed", 42L);
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> Integer.toString(Math.max(10, USERS)));
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        WorkloadMix mix = WorkloadMix.parse(MIX);
+        LoadGenerator.Settings settings = new LoadGenerator.Settings(mix, new DeviceDistribution(BRANDS, BRAND_SKEW, STATES),
+                USERS, INITIAL_DEVICES, WARMUP, DURATION, RATE, SEED);
+
+        LoadReport report = new LoadGenerator(URI.create("http://localhost:" + port), settings).run();
+
+        String run = String.format(Locale.ROOT, "%s-%s-%du%s", BenchmarkDatabase.URL == null ? "h2" : "postgres",
+                mix.name(), USERS, RATE > 0 ? "-" + (long) RATE + "rps" : "");
+        System.out.printf("mix=%s users=%d brands=%d skew=%.2f states=%s seed=%d%n",
+                mix, USERS, BRANDS, BRAND_SKEW, STATES, SEED);
+        report.print(System.out, run);
+        report.write(Paths.get("target", "load-reports"), run);
+        assertTrue(report.calls() > 0);
+    }
+}
@@ -0,0 +1,29 @@
+package com.device.management.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Device API calls driven by the load generator, each with the status a successful call answers.
+ */
+public enum Operation {
+
+    CREATE(201),
+    GET(200),
+    LIST(200),
+    PATCH(200),
+    DELETE(204);
+
+    private final int expectedStatus;
+
+    Operation(int expectedStatus) {
+        this.expectedStatus = expectedStatus;
+    }
+
+    public int expectedStatus() {
+        return expectedStatus;
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
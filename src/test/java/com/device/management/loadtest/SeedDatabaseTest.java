@@ -0,0 +1,68 @@
+package com.device.management.loadtest;
+
+import com.device.management.benchmark.BenchmarkDatabase;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Seeding command: boots the application context (which migrates the database) and bulk-loads generated
+ * devices, e.g. {@code mvn test -Pbenchmark -Dtest=SeedDatabaseTest -Dseed.devices=20000000
+ * -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/devicemanagementdb -Dbench.jdbc.user=admin
+ * -Dbench.jdbc.password=secret}. Skipped without {@code -Dbench.jdbc.url}, as the in-memory database would not
+ * outlive the run.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+public class SeedDatabaseTest {
+
+    private static final long DEVICES = Long.getLong("seed.devices", 1_000_000L);
+    private static final int BRANDS = Integer.getInteger("seed.brands", 500);
+    private static final double BRAND_SKEW = Double.parseDouble(System.getProperty("seed.brand-skew", "1.1"));
+    private static final String STATES = System.getProperty("seed.states", "AVAILABLE=60,IN_USE=30,INACTIVE=10");
+    private static final Duration SPREAD = Duration.parse(System.getProperty("seed.spread", "P730D"));
+    private static final Instant UNTIL = Instant.parse(System.getProperty("seed.until",
+            LocalDate.now(ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC).toInstant().toString()));
+    private static final int THREADS = Integer.getInteger("seed.threads", Runtime.getRuntime().availableProcessors());
+    private static final long SEED = Long.getLong("seed.seed", 42L);
+    private static final String TENANT = System.getProperty("seed.tenant", "default");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> Integer.toString(THREADS + 2));
+    }
+
+    @Test
+    void seed() throws Exception {
+        assumeTrue(BenchmarkDatabase.URL != null, "seeds the database given by -Dbench.jdbc.url");
+        DeviceSeeder.Settings settings = new DeviceSeeder.Settings(DEVICES,
+                new DeviceDistribution(BRANDS, BRAND_SKEW, STATES), UNTIL, SPREAD, THREADS, SEED, TENANT);
+
+        long start = System.nanoTime();
+        long loaded = new DeviceSeeder(dataSource).seed(settings);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("seeded=%d brands=%d skew=%.2f states=%s until=%s spread=%s threads=%d seed=%d "
+                        + "elapsed=%.1f s rate=%.0f rows/s%n",
+                loaded, BRANDS, BRAND_SKEW, STATES, UNTIL, SPREAD, THREADS, SEED, seconds, loaded / seconds);
+        assertEquals(DEVICES, loaded);
+    }
+}
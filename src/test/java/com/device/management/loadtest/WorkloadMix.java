@@ -0,0 +1,80 @@
+package com.device.management.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Relative weights of the operations in a run. Given either as a preset name or as
+ * {@code create=10,get=60,list=20,patch=8,delete=2}; operations left out are not issued.
+ */
+public final class WorkloadMix {
+
+    private static final Map<String, String> PRESETS = Map.of(
+            "read-heavy", "create=5,get=70,list=20,patch=4,delete=1",
+            "balanced", "create=20,get=40,list=15,patch=20,delete=5",
+            "write-heavy", "create=45,get=15,list=5,patch=30,delete=5");
+
+    private final String name;
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulative;
+
+    private WorkloadMix(String name, Map<Operation, Integer> weights) {
+        this.name = name;
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulative = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulative[i] = total;
+        }
+    }
+
+    public static WorkloadMix parse(String spec) {
+        String preset = PRESETS.get(spec.trim().toLowerCase(Locale.ROOT));
+        String weights = preset != null ? preset : spec;
+        Map<Operation, Integer> parsed = new EnumMap<>(Operation.class);
+        for (String entry : weights.split(",")) {
+            String[] pair = entry.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got: " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight must not be negative: " + entry);
+            }
+            if (weight > 0) {
+                parsed.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operations: " + spec);
+        }
+        return new WorkloadMix(preset != null ? spec.trim().toLowerCase(Locale.ROOT) : "custom", parsed);
+    }
+
+    public Operation next(SplittableRandom random) {
+        int point = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (point < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return weights.entrySet().stream()
+                .map(entry -> entry.getKey().label() + "=" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,50 @@
+package com.device.management.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkloadMixTest {
+
+    @Test
+    @DisplayName("parse resolves presets and explicit weights, dropping zero weights")
+    void parse_presetsAndWeights() {
+        assertEquals("read-heavy", WorkloadMix.parse("Read-Heavy").name());
+        WorkloadMix custom = WorkloadMix.parse("create=1, get=3, delete=0");
+        assertEquals("custom", custom.name());
+        assertEquals("create=1,get=3", custom.toString());
+    }
+
+    @Test
+    @DisplayName("parse rejects malformed entries, unknown operations and empty mixes")
+    void parse_rejectsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("create"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("upsert=1"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("get=-1"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("get=0"));
+    }
+
+    @Test
+    @DisplayName("next draws operations in proportion to their weights and repeats for the same seed")
+    void next_followsWeights() {
+        WorkloadMix mix = WorkloadMix.parse("get=3,patch=1");
+        Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 40_000; i++) {
+            counts.merge(mix.next(random), 1, Integer::sum);
+        }
+        assertEquals(2, counts.size());
+        assertEquals(30_000, counts.get(Operation.GET), 600);
+
+        SplittableRandom first = new SplittableRandom(11);
+        SplittableRandom second = new SplittableRandom(11);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(mix.next(first), mix.next(second));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.device.management.postgres;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The Flyway migrations on PostgreSQL, over a database holding devices written by the first schema version. The
+ * other tests run on H2 with the schema generated by Hibernate, so this is where the data conversions are checked.
+ */
+public class MigrationTest {
+
+    private static final String MIGRATIONS = "classpath:db/migration";
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        seed(TestPostgres.newDatabase());
+    }
+
+    private void seed(DataSource database) {
+        dataSource = database;
+        jdbc = new JdbcTemplate(dataSource);
+        upTo("1");
+        jdbc.update("""
+                INSERT INTO devices (id, name, brand, state, creation_time, version) VALUES
+                    ('00000000-0000-0000-0000-000000000001', 'Phone', 'Apple', 'AVAILABLE', '2025-01-01T00:00:00', 0),
+                    ('00000000-0000-0000-0000-000000000002', 'Tablet', 'APPLE', 'IN_USE', '2025-02-01T00:00:00', 3),
+                    ('00000000-0000-0000-0000-000000000003', 'Watch', 'Garmin', 'INACTIVE', '2025-03-01T00:00:00', 1)
+                """);
+    }
+
+    @Test
+    @DisplayName("V2 converts the state names to their SMALLINT codes and constrains them")
+    void v2_stateCodes() {
+        upTo("2");
+
+        assertEquals("smallint", jdbc.queryForObject(
+                "SELECT data_type FROM information_schema.columns WHERE table_name = 'devices' AND column_name = 'state'",
+                String.class));
+        assertEquals(List.of(0, 1, 2), jdbc.queryForList("SELECT state FROM devices ORDER BY id", Integer.class));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbc.update("UPDATE devices SET state = 3 WHERE name = 'Phone'"));
+    }
+
+    @Test
+    @DisplayName("all migrations keep the devices, their brands and states and move them to the default tenant")
+    void allMigrations_preserveDevices() {
+        Flyway flyway = TestPostgres.flyway(dataSource, MIGRATIONS).load();
+        flyway.migrate();
+
+        assertEquals(0, flyway.info().pending().length);
+        List<Map<String, Object>> devices = jdbc.queryForList("""
+                SELECT d.name, b.name AS brand, d.state, d.tenant_id, d.deleted_at, d.version
+                FROM devices d JOIN brands b ON b.id = d.brand_id
+                ORDER BY d.id
+                """);
+        assertEquals(3, devices.size());
+        assertEquals("Phone", devices.get(0).get("name"));
+        // Brands are case-folded into one dictionary entry, named after the first device's spelling
+        assertEquals(devices.get(0).get("brand"), devices.get(1).get("brand"));
+        assertEquals("Garmin", devices.get(2).get("brand"));
+        assertEquals(List.of(0, 1, 2), devices.stream().map(row -> ((Number) row.get("state")).intValue()).toList());
+        assertTrue(devices.stream().allMatch(row -> "default".equals(row.get("tenant_id"))));
+        assertTrue(devices.stream().allMatch(row -> row.get("deleted_at") == null));
+        assertEquals(3L, ((Number) devices.get(1).get("version")).longValue());
+        assertEquals(2, jdbc.queryForObject("SELECT count(*) FROM brands", Integer.class));
+
+        List<String> indexes = jdbc.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'devices' ORDER BY indexname", String.class);
+        assertTrue(indexes.containsAll(List.of("devices_live_tenant_state_creation_time_idx",
+                "devices_live_tenant_brand_id_creation_time_idx", "devices_live_tenant_creation_time_idx",
+                "devices_deleted_at_idx")), indexes.toString());
+        assertFalse(indexes.contains("devices_live_state_creation_time_idx"), indexes.toString());
+        assertEquals(List.of("tenant_id", "idempotency_key"), jdbc.queryForList("""
+                SELECT a.attname FROM pg_index i
+                JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = ANY (i.indkey)
+                WHERE i.indrelid = 'idempotency_keys'::regclass AND i.indisprimary
+                ORDER BY array_position(i.indkey, a.attnum)
+                """, String.class));
+    }
+
+    @Test
+    @DisplayName("V9 keeps history writes for a month without partition, and maintenance moves them to their month")
+    void v9_historyDefaultPartition() {
+        TestPostgres.flyway(dataSource, MIGRATIONS).load().migrate();
+        jdbc.update("""
+                INSERT INTO device_state_changes (id, device_id, from_state, to_state, changed_at) VALUES
+                    (gen_random_uuid(), '00000000-0000-0000-0000-000000000001', 0, 1, date_trunc('month', now()) + INTERVAL '2 years'),
+                    (gen_random_uuid(), '00000000-0000-0000-0000-000000000001', 1, 0, '2020-06-15T00:00:00Z')
+                """);
+        assertEquals(2, jdbc.queryForObject("SELECT count(*) FROM device_state_changes_default", Integer.class));
+
+        assertEquals(2, jdbc.queryForObject("SELECT device_state_changes_create_partitions(3)", Integer.class));
+
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM device_state_changes_default", Integer.class));
+        assertEquals(List.of("device_state_changes_2020_06", "device_state_changes_"
+                + LocalDate.now().plusYears(2).format(DateTimeFormatter.ofPattern("yyyy_MM"))),
+                jdbc.queryForList("""
+                        SELECT tableoid::regclass::text FROM device_state_changes
+                        WHERE changed_at < '2021-01-01' OR changed_at > now() + INTERVAL '1 year' ORDER BY changed_at
+                        """, String.class));
+        // The moved partitions carry the primary key like the others
+        assertEquals(1, jdbc.queryForObject("""
+                SELECT count(*) FROM pg_indexes WHERE tablename = 'device_state_changes_2020_06' AND indexname LIKE '%pkey'
+                """, Integer.class));
+    }
+
+    @Test
+    @DisplayName("with row-level security forced, a data migration changes no devices unless it lifts FORCE for its transaction")
+    void rowLevelSecurity_dataMigration_needsNoForce() throws SQLException {
+        seed(TestPostgres.newDatabase("devices_app"));
+        TestPostgres.flyway(dataSource, MIGRATIONS)
+                .placeholders(Map.of("concurrently", "CONCURRENTLY", "row_level_security", "true")).load().migrate();
+
+        assertEquals(0, migrate("UPDATE devices SET name = upper(name)"));
+        assertEquals(3, migrate("ALTER TABLE devices NO FORCE ROW LEVEL SECURITY;"
+                + "UPDATE devices SET name = upper(name);"
+                + "ALTER TABLE devices FORCE ROW LEVEL SECURITY"));
+
+        assertTrue(jdbc.queryForObject(
+                "SELECT relforcerowsecurity FROM pg_class WHERE oid = 'devices'::regclass", Boolean.class));
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM devices", Integer.class));
+        // Or, for one tenant's devices, declares the tenant like the application
+        assertEquals(3, migrate("SELECT set_config('devices.tenant_id', 'default', true);"
+                + "UPDATE devices SET name = lower(name)"));
+    }
+
+    /** Runs the statements in one transaction, as Flyway runs a migration, and returns the rows they updated. */
+    private int migrate(String statements) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            int updated = 0;
+            for (String sql : statements.split(";")) {
+                if (statement.execute(sql)) {
+                    continue;
+                }
+                updated += statement.getUpdateCount();
+            }
+            connection.commit();
+            return updated;
+        }
+    }
+
+    /**
+     * Versioned migrations up to the target only. Repeatable migrations run whatever the target, and the
+     * row-level security one needs the tenant column of V7.
+     */
+    private void upTo(String target) {
+        TestPostgres.flyway(dataSource, MIGRATIONS).target(target).repeatableSqlMigrationPrefix("-").load().migrate();
+    }
+}
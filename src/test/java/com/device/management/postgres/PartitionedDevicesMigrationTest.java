@@ -0,0 +1,219 @@
+package com.device.management.postgres;
+
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code partitioned} layout on PostgreSQL: {@code V3_1__partition_devices_by_creation_time.sql} applied in
+ * order on a new database and out of order on one already at the latest version, as the profile configures Flyway,
+ * and the {@code devices_create_partitions} function used by the maintenance job.
+ */
+public class PartitionedDevicesMigrationTest {
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern SCANNED_PARTITION = Pattern.compile(" on (devices_\\d{4}_\\d{2})\\b");
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+    private String rowLevelSecurity = "false";
+
+    @BeforeEach
+    void setUp() {
+        seed(TestPostgres.newDatabase());
+    }
+
+    private void seed(DataSource database) {
+        dataSource = database;
+        jdbc = new JdbcTemplate(dataSource);
+        flyway("classpath:db/migration").target("1").repeatableSqlMigrationPrefix("-").load().migrate();
+        jdbc.update("""
+                INSERT INTO devices (id, name, brand, state, creation_time, version) VALUES
+                    ('00000000-0000-0000-0000-000000000001', 'Phone', 'Apple', 'AVAILABLE', '2025-01-15T00:00:00', 0),
+                    ('00000000-0000-0000-0000-000000000002', 'Tablet', 'Apple', 'IN_USE', '2025-03-15T00:00:00', 2)
+                """);
+    }
+
+    @Test
+    @DisplayName("in order, the later migrations run on the partitioned table and the devices land in their months")
+    void inOrder_partitionsDevices() {
+        flyway("classpath:db/migration", "classpath:db/partitioning").load().migrate();
+
+        assertPartitioned();
+    }
+
+    @Test
+    @DisplayName("out of order, on a database at the latest version, the table keeps its columns and indexes")
+    void outOfOrder_partitionsDevices() {
+        flyway("classpath:db/migration").load().migrate();
+        jdbc.update("UPDATE devices SET tenant_id = 'acme' WHERE name = 'Tablet'");
+
+        flyway("classpath:db/migration", "classpath:db/partitioning").outOfOrder(true).load().migrate();
+
+        assertPartitioned();
+        assertEquals("acme", jdbc.queryForObject("SELECT tenant_id FROM devices WHERE name = 'Tablet'", String.class));
+    }
+
+    @Test
+    @DisplayName("out of order, under row-level security, every tenant's devices are copied and the policies carried over")
+    void outOfOrder_rowLevelSecurity_keepsPolicies() throws SQLException {
+        seed(TestPostgres.newDatabase("devices_app"));
+        rowLevelSecurity = "true";
+        flyway("classpath:db/migration").load().migrate();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            // Moving a device to another tenant is beyond the policies of either
+            connection.setAutoCommit(false);
+            statement.execute("ALTER TABLE devices NO FORCE ROW LEVEL SECURITY");
+            statement.executeUpdate("UPDATE devices SET tenant_id = 'acme' WHERE name = 'Tablet'");
+            statement.execute("ALTER TABLE devices FORCE ROW LEVEL SECURITY");
+            connection.commit();
+        }
+
+        flyway("classpath:db/migration", "classpath:db/partitioning").outOfOrder(true).load().migrate();
+
+        assertEquals(List.of("devices_purge_tombstones", "devices_tenant_isolation"), jdbc.queryForList(
+                "SELECT policyname FROM pg_policies WHERE tablename = 'devices' ORDER BY policyname", String.class));
+        assertEquals(Map.of("relrowsecurity", true, "relforcerowsecurity", true), jdbc.queryForMap(
+                "SELECT relrowsecurity, relforcerowsecurity FROM pg_class WHERE oid = 'devices'::regclass"));
+        assertTrue(jdbc.queryForObject("SELECT has_table_privilege('devices_purge', 'devices', 'DELETE')", Boolean.class));
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM devices", Integer.class));
+        assertEquals(List.of("Phone"), namesOf("default"));
+        assertEquals(List.of("Tablet"), namesOf("acme"));
+    }
+
+    private List<String> namesOf(String tenant) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.execute("SELECT set_config('devices.tenant_id', '" + tenant + "', true)");
+            List<String> names = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery("SELECT name FROM devices ORDER BY name")) {
+                while (rows.next()) {
+                    names.add(rows.getString(1));
+                }
+            }
+            connection.rollback();
+            return names;
+        }
+    }
+
+    @Test
+    @DisplayName("devices_create_partitions adds only the missing months up to the requested horizon")
+    void createPartitions_addsMissingMonths() {
+        flyway("classpath:db/migration", "classpath:db/partitioning").load().migrate();
+        int before = partitions().size();
+
+        assertEquals(0, jdbc.queryForObject("SELECT devices_create_partitions(3)", Integer.class));
+        assertEquals(3, jdbc.queryForObject("SELECT devices_create_partitions(6)", Integer.class));
+
+        List<String> partitions = partitions();
+        assertEquals(before + 3, partitions.size());
+        assertTrue(partitions.contains("devices_" + LocalDate.now().plusMonths(6).format(PARTITION_MONTH)), partitions.toString());
+        jdbc.update("""
+                INSERT INTO devices (id, name, brand_id, state, creation_time, version)
+                SELECT gen_random_uuid(), 'Future', id, 0, date_trunc('month', now()) + INTERVAL '6 months', 0
+                FROM brands LIMIT 1
+                """);
+    }
+
+    @Test
+    @DisplayName("a lookup by id bounded by creation time reads one partition, by id alone every partition")
+    void lookupById_withCreationTimeBound_prunesPartitions() {
+        flyway("classpath:db/migration", "classpath:db/partitioning").load().migrate();
+        jdbc.execute("ANALYZE devices");
+
+        // As DeviceRepository.findByIdPruned queries: the id with a day either side of its timestamp
+        assertEquals(Set.of("devices_2025_01"), scannedPartitions("""
+                SELECT * FROM devices WHERE id = '00000000-0000-0000-0000-000000000001'
+                AND creation_time BETWEEN '2025-01-14T00:00:00' AND '2025-01-16T00:00:00'
+                """));
+        assertEquals(Set.copyOf(partitions()), scannedPartitions(
+                "SELECT * FROM devices WHERE id = '00000000-0000-0000-0000-000000000001'"));
+    }
+
+    private Set<String> scannedPartitions(String query) {
+        Set<String> scanned = new TreeSet<>();
+        for (String line : jdbc.queryForList("EXPLAIN " + query, String.class)) {
+            Matcher matcher = SCANNED_PARTITION.matcher(line);
+            while (matcher.find()) {
+                scanned.add(matcher.group(1));
+            }
+        }
+        return scanned;
+    }
+
+    private void assertPartitioned() {
+        assertEquals("p", jdbc.queryForObject("SELECT relkind::text FROM pg_class WHERE relname = 'devices'", String.class));
+        assertNull(jdbc.queryForObject("SELECT to_regclass('devices_unpartitioned')::text", String.class));
+
+        // Every month from the oldest device to the maintenance horizon has its partition
+        List<String> partitions = partitions();
+        for (LocalDate month = LocalDate.of(2025, 1, 1); !month.isAfter(LocalDate.now().plusMonths(3)); month = month.plusMonths(1)) {
+            assertTrue(partitions.contains("devices_" + month.format(PARTITION_MONTH)), month + " in " + partitions);
+        }
+        assertEquals(Map.of("devices_2025_01", 1L, "devices_2025_03", 1L), jdbc.query(
+                "SELECT tableoid::regclass::text AS part, count(*) FROM devices GROUP BY 1",
+                rs -> {
+                    Map<String, Long> rows = new HashMap<>();
+                    while (rs.next()) {
+                        rows.put(rs.getString(1), rs.getLong(2));
+                    }
+                    return rows;
+                }));
+
+        assertEquals(List.of("id", "creation_time"), jdbc.queryForList("""
+                SELECT a.attname FROM pg_index i
+                JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = ANY (i.indkey)
+                WHERE i.indrelid = 'devices'::regclass AND i.indisprimary
+                ORDER BY array_position(i.indkey, a.attnum)
+                """, String.class));
+        List<String> indexes = jdbc.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'devices' ORDER BY indexname", String.class);
+        assertTrue(indexes.containsAll(List.of("devices_live_tenant_state_creation_time_idx",
+                "devices_live_tenant_brand_id_creation_time_idx", "devices_live_tenant_creation_time_idx",
+                "devices_deleted_at_idx")), indexes.toString());
+        assertEquals(1, jdbc.queryForObject(
+                "SELECT count(*) FROM pg_constraint WHERE conrelid = 'devices'::regclass AND contype = 'f'", Integer.class));
+
+        // The database no longer rejects a second row with the same id in another month
+        jdbc.update("""
+                INSERT INTO devices (id, name, brand_id, state, creation_time, version)
+                SELECT id, name, brand_id, state, creation_time + INTERVAL '1 month', 0
+                FROM devices WHERE name = 'Phone'
+                """);
+        assertEquals(2, jdbc.queryForObject(
+                "SELECT count(*) FROM devices WHERE id = '00000000-0000-0000-0000-000000000001'", Integer.class));
+    }
+
+    private List<String> partitions() {
+        return jdbc.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'devices'::regclass ORDER BY c.relname
+                """, String.class);
+    }
+
+    // As the partitioned profile configures Flyway: partitioned indexes cannot be built concurrently
+    private FluentConfiguration flyway(String... locations) {
+        return TestPostgres.flyway(dataSource, locations)
+                .placeholders(Map.of("concurrently", "", "row_level_security", rowLevelSecurity));
+    }
+}
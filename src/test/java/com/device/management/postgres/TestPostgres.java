@@ -0,0 +1,83 @@
+package com.device.management.postgres;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A PostgreSQL server started once per test JVM from the bundled binaries, for tests of the migrations and of SQL
+ * that H2 cannot run. Each test gets an empty database of its own.
+ */
+public final class TestPostgres {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static EmbeddedPostgres server;
+
+    private TestPostgres() {
+    }
+
+    /**
+     * A new, empty database owned by the superuser {@code postgres}.
+     */
+    public static DataSource newDatabase() {
+        return newDatabase("postgres");
+    }
+
+    /**
+     * A new, empty database owned by the role, which is created if needed as an ordinary role with
+     * {@code CREATEROLE}, as the application may connect with. Unlike the superuser, it is subject to row-level
+     * security.
+     */
+    public static DataSource newDatabase(String owner) {
+        String name = "test_" + DATABASES.incrementAndGet();
+        DataSource admin = server().getPostgresDatabase();
+        try (Connection connection = admin.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DO $$ BEGIN IF NOT EXISTS (SELECT FROM pg_roles WHERE rolname = '" + owner + "') "
+                    + "THEN CREATE ROLE " + owner + " LOGIN CREATEROLE; END IF; END; $$");
+            statement.execute("CREATE DATABASE " + name + " OWNER " + owner);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not create database " + name, ex);
+        }
+        return server().getDatabase(owner, name);
+    }
+
+    /**
+     * Flyway over the given locations with the placeholders of {@code application.properties}, and without its
+     * transactional lock, which concurrent index builds would wait for.
+     */
+    public static FluentConfiguration flyway(DataSource dataSource, String... locations) {
+        return Flyway.configure()
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .dataSource(dataSource)
+                .locations(locations)
+                .placeholders(Map.of("concurrently", "CONCURRENTLY", "row_level_security", "false"));
+    }
+
+    private static synchronized EmbeddedPostgres server() {
+        if (server == null) {
+            try {
+                EmbeddedPostgres started = EmbeddedPostgres.builder().start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        started.close();
+                    } catch (IOException ignored) {
+                        // The JVM is exiting
+                    }
+                }));
+                server = started;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not start the embedded PostgreSQL server", ex);
+            }
+        }
+        return server;
+    }
+}
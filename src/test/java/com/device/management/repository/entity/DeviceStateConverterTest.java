@@ -0,0 +1,48 @@
+package com.device.management.repository.entity;
+
+import com.device.management.state.DeviceState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeviceStateConverterTest {
+
+    private final DeviceStateConverter converter = new DeviceStateConverter();
+
+    @Test
+    @DisplayName("every state survives the round trip through its code")
+    void roundTrip() {
+        for (DeviceState state : DeviceState.values()) {
+            Short code = converter.convertToDatabaseColumn(state);
+
+            assertEquals(state.code(), code);
+            assertEquals(state, converter.convertToEntityAttribute(code));
+        }
+    }
+
+    @Test
+    @DisplayName("codes are the ones the migration wrote, whatever the declaration order")
+    void codes_stable() {
+        assertEquals(0, DeviceState.AVAILABLE.code());
+        assertEquals(1, DeviceState.IN_USE.code());
+        assertEquals(2, DeviceState.INACTIVE.code());
+    }
+
+    @Test
+    @DisplayName("null converts to null both ways")
+    void nulls() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    @DisplayName("an unknown code is rejected with the code in the message")
+    void unknownCode_rejected() {
+        for (short code : new short[]{-1, 3, Short.MAX_VALUE}) {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> converter.convertToEntityAttribute(code));
+            assertEquals("Unknown device state code: " + code, ex.getMessage());
+        }
+    }
+}
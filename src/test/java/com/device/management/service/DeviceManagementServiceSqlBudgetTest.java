@@ -0,0 +1,225 @@
+package com.device.management.service;
+
+import com.device.management.service.dto.BatchItemResult;
+import com.device.management.service.dto.DeviceCreateCommand;
+import com.device.management.service.dto.DeviceFilter;
+import com.device.management.service.dto.DeviceUpdateCommand;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.service.dto.PageRequest;
+import com.device.management.service.dto.PageResult;
+import com.device.management.sql.CountSqlStatements;
+import com.device.management.sql.SqlBudget;
+import com.device.management.state.DeviceState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets of every {@link DeviceUseCase} operation on the embedded database, complementing the
+ * behaviour checks of {@link DeviceManagementServiceTest}, whose mocked repositories issue no SQL. Each budget is
+ * taken after the brand is known to {@code BrandCatalog}, as in steady state.
+ */
+@SpringBootTest(properties = "devices.purge.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@CountSqlStatements
+public class DeviceManagementServiceSqlBudgetTest {
+
+    @Autowired
+    private DeviceManagementService service;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String brand;
+
+    @BeforeEach
+    void setUp() {
+        brand = "Budget " + UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("create inserts the device and its first history entry and reads nothing")
+    void create_budget() throws Throwable {
+        create(DeviceState.AVAILABLE);
+
+        SqlBudget.of(() -> create(DeviceState.AVAILABLE))
+                .inserts(2)
+                .total(2);
+    }
+
+    @Test
+    @DisplayName("create with a new brand registers it with a lookup, an insert and a read-back")
+    void create_newBrand_budget() throws Throwable {
+        SqlBudget.of(() -> create(DeviceState.AVAILABLE))
+                .selects(2)
+                .inserts(3)
+                .total(5);
+    }
+
+    @Test
+    @DisplayName("createAll writes any number of devices and history entries as two batches")
+    void createAll_budget() throws Throwable {
+        create(DeviceState.AVAILABLE);
+        List<DeviceCreateCommand> commands = IntStream.range(0, 20)
+                .mapToObj(i -> new DeviceCreateCommand("Device " + i, brand, DeviceState.AVAILABLE))
+                .toList();
+
+        SqlBudget.of(() -> service.createAll(commands))
+                .inserts(2)
+                .total(2);
+    }
+
+    @Test
+    @DisplayName("get is a single SELECT, also for an unknown id")
+    void get_budget() throws Throwable {
+        UUID id = create(DeviceState.AVAILABLE).id();
+
+        SqlBudget.of(() -> service.get(id))
+                .selects(1)
+                .total(1);
+        SqlBudget.of(() -> assertThrows(NoSuchElementException.class, () -> service.get(UUID.randomUUID())))
+                .selects(1)
+                .total(1);
+    }
+
+    @Test
+    @DisplayName("list skips the COUNT query when the first page holds every match")
+    void list_singlePage_budget() throws Throwable {
+        create(DeviceState.AVAILABLE);
+        create(DeviceState.IN_USE);
+
+        SqlBudget.of(() -> assertEquals(2, service.list(new DeviceFilter(brand, null), new PageRequest(0, 20, List.of())).totalItems()))
+                .selects(1)
+                .total(1);
+    }
+
+    @Test
+    @DisplayName("list of a page among several costs the page query and one COUNT")
+    void list_multiplePages_budget() throws Throwable {
+        for (int i = 0; i < 5; i++) {
+            create(DeviceState.IN_USE);
+        }
+
+        SqlBudget.of(() -> {
+                    PageResult<DeviceView> page = service.list(new DeviceFilter(brand, DeviceState.IN_USE), new PageRequest(0, 2, List.of()));
+                    assertEquals(5, page.totalItems());
+                })
+                .selects(2)
+                .total(2);
+    }
+
+    @Test
+    @DisplayName("list for an unknown brand looks up the brand only")
+    void list_unknownBrand_budget() throws Throwable {
+        SqlBudget.of(() -> service.list(new DeviceFilter(brand, null), new PageRequest(0, 20, List.of())))
+                .selects(1)
+                .total(1);
+    }
+
+    @Test
+    @DisplayName("updatePartial of the state reads once, updates once and records the change")
+    void updatePartial_budget() throws Throwable {
+        UUID id = create(DeviceState.AVAILABLE).id();
+
+        SqlBudget.of(() -> service.updatePartial(id, new DeviceUpdateCommand(null, null, DeviceState.IN_USE)))
+                .selects(1)
+                .updates(1)
+                .inserts(1)
+                .total(3);
+    }
+
+    @Test
+    @DisplayName("a rejected updatePartial writes nothing")
+    void updatePartial_rejected_budget() throws Throwable {
+        UUID id = create(DeviceState.IN_USE).id();
+
+        SqlBudget.of(() -> assertThrows(IllegalStateException.class,
+                        () -> service.updatePartial(id, new DeviceUpdateCommand("Renamed", null, null))))
+                .selects(1)
+                .total(1);
+    }
+
+    @Test
+    @DisplayName("updateFull to a new brand reads the device, registers the brand, updates once and records the change")
+    void updateFull_budget() throws Throwable {
+        DeviceView device = create(DeviceState.AVAILABLE);
+
+        SqlBudget.of(() -> service.updateFull(device.id(), new DeviceCreateCommand("Replaced", "Other " + brand, DeviceState.INACTIVE)))
+                .selects(3)
+                .inserts(2)
+                .updates(1)
+                .total(6);
+    }
+
+    @Test
+    @DisplayName("updateBatch costs the same three statements whatever the number of devices")
+    void updateBatch_budget() throws Throwable {
+        Map<UUID, DeviceUpdateCommand> updates = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            updates.put(create(DeviceState.AVAILABLE).id(), new DeviceUpdateCommand(null, null, DeviceState.INACTIVE));
+        }
+
+        SqlBudget.of(() -> assertTrue(service.updateBatch(updates).stream()
+                        .allMatch(result -> result.status() == BatchItemResult.Status.UPDATED)))
+                .selects(1)
+                .updates(1)
+                .inserts(1)
+                .total(3);
+    }
+
+    @Test
+    @DisplayName("delete reads once and writes the tombstone, without reloading the device")
+    void delete_budget() throws Throwable {
+        UUID id = create(DeviceState.AVAILABLE).id();
+
+        SqlBudget.of(() -> service.delete(id))
+                .selects(1)
+                .updates(1)
+                .atMost(2);
+    }
+
+    @Test
+    @DisplayName("GET /devices/{id} through the controller stack is a single SELECT")
+    void getRequest_budget() throws Throwable {
+        UUID id = create(DeviceState.AVAILABLE).id();
+
+        SqlBudget.of(() -> mockMvc.perform(asyncDispatch(mockMvc.perform(get("/devices/{id}", id)).andReturn()))
+                        .andExpect(status().isOk()))
+                .selects(1)
+                .total(1);
+    }
+
+    @Test
+    @DisplayName("statements issued through JdbcTemplate, as by the purge job and the idempotency table, count too")
+    void jdbcTemplate_counted() throws Throwable {
+        SqlBudget.of(() -> jdbcTemplate.queryForObject("SELECT count(*) FROM devices", Long.class))
+                .selects(1)
+                .total(1);
+    }
+
+    private DeviceView create(DeviceState state) {
+        return service.create(new DeviceCreateCommand("Device", brand, state));
+    }
+}
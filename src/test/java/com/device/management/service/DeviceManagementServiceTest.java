@@ -2,7 +2,11 @@ package com.device.management.service;
 
 import com.device.management.mapper.DeviceMapper;
 import com.device.management.repository.DeviceRepository;
+import com.device.management.repository.DeviceStateChangeRepository;
+import com.device.management.repository.entity.Brand;
 import com.device.management.repository.entity.Device;
+import com.device.management.repository.entity.DeviceStateChange;
+import com.device.management.service.brand.BrandCatalog;
 import com.device.management.service.dto.*;
 import com.device.management.state.DeviceState;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,9 +21,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,12 +38,21 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class DeviceManagementServiceTest {
 
+    private static final Integer BRAND_ID = 1;
+    private static final Integer NEW_BRAND_ID = 2;
+
     @Mock
     private DeviceRepository repository;
 
     @Mock
     private DeviceMapper mapper;
 
+    @Mock
+    private BrandCatalog brands;
+
+    @Mock
+    private DeviceStateChangeRepository history;
+
     @InjectMocks
     private DeviceManagementService service;
 
@@ -51,23 +67,23 @@ public class DeviceManagementServiceTest {
         deviceId = UUID.fromString(DEVICE_ID);
         device = new Device();
         device.setName(DEVICE_NAME);
-        device.setBrand(DEVICE_BRAND);
+        device.setBrand(new Brand(DEVICE_BRAND));
         device.setState(DeviceState.AVAILABLE);
         deviceView = new DeviceView(
                 UUID.fromString(DEVICE_ID),
                 device.getName(),
-                device.getBrand(),
+                device.getBrand().getName(),
                 device.getState(),
                 OffsetDateTime.parse(CREATION_TIME));
 
         newDevice = new Device();
         newDevice.setName(NEW_DEVICE_NAME);
-        newDevice.setBrand(NEW_DEVICE_BRAND);
+        newDevice.setBrand(new Brand(NEW_DEVICE_BRAND));
         newDevice.setState(DeviceState.IN_USE);
         newDeviceView = new DeviceView(
                 UUID.fromString(NEW_DEVICE_ID),
                 newDevice.getName(),
-                newDevice.getBrand(),
+                newDevice.getBrand().getName(),
                 newDevice.getState(),
                 OffsetDateTime.parse(NEW_CREATION_TIME));
     }
@@ -99,6 +115,7 @@ public class DeviceManagementServiceTest {
         );
 
         when(mapper.toEntity(deviceCreateCommand)).thenReturn(toSave);
+        when(brands.resolve(DEVICE_BRAND)).thenReturn(new Brand(DEVICE_BRAND));
         when(repository.saveAndFlush(toSave)).thenReturn(saved);
         when(mapper.toView(saved)).thenReturn(expectedView);
 
@@ -111,20 +128,47 @@ public class DeviceManagementServiceTest {
         ArgumentCaptor<Device> savedCaptor = ArgumentCaptor.forClass(Device.class);
         verify(repository).saveAndFlush(savedCaptor.capture());
         assertEquals(DEVICE_NAME, savedCaptor.getValue().getName());
-        assertEquals(DEVICE_BRAND, savedCaptor.getValue().getBrand());
+        assertEquals(DEVICE_BRAND, savedCaptor.getValue().getBrand().getName());
         assertEquals(DeviceState.AVAILABLE, savedCaptor.getValue().getState());
         verify(mapper).toView(saved);
         verifyNoMoreInteractions(mapper, repository);
+
+        ArgumentCaptor<DeviceStateChange> changeCaptor = ArgumentCaptor.forClass(DeviceStateChange.class);
+        verify(history).save(changeCaptor.capture());
+        assertNull(changeCaptor.getValue().getFromState());
+        assertEquals(DeviceState.AVAILABLE, changeCaptor.getValue().getToState());
+    }
+
+    @Test
+    @DisplayName("createAll saves all devices with one flush and returns views in command order")
+    void createAll_savesTogether() {
+        DeviceCreateCommand first = new DeviceCreateCommand(DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE);
+        DeviceCreateCommand second = new DeviceCreateCommand(NEW_DEVICE_NAME, NEW_DEVICE_BRAND, DeviceState.IN_USE);
+
+        when(mapper.toEntity(first)).thenReturn(device);
+        when(mapper.toEntity(second)).thenReturn(newDevice);
+        when(brands.resolve(DEVICE_BRAND)).thenReturn(device.getBrand());
+        when(brands.resolve(NEW_DEVICE_BRAND)).thenReturn(newDevice.getBrand());
+        when(repository.saveAll(List.of(device, newDevice))).thenReturn(List.of(device, newDevice));
+        when(mapper.toView(device)).thenReturn(deviceView);
+        when(mapper.toView(newDevice)).thenReturn(newDeviceView);
+
+        List<DeviceView> result = service.createAll(List.of(first, second));
+
+        assertEquals(List.of(deviceView, newDeviceView), result);
+        verify(repository).flush();
+        verify(repository, never()).saveAndFlush(any());
+        verify(history, times(2)).save(any(DeviceStateChange.class));
     }
 
     @Test
     @DisplayName("delete successful when not IN_USE (happy path)")
     void delete_success_service() {
-        when(repository.findById(deviceId)).thenReturn(Optional.of(device));
+        when(repository.findByIdPruned(deviceId)).thenReturn(Optional.of(device));
 
         service.delete(deviceId);
 
-        verify(repository).findById(deviceId);
+        verify(repository).findByIdPruned(deviceId);
         verify(repository).deleteById(deviceId);
         verifyNoMoreInteractions(repository);
     }
@@ -132,10 +176,10 @@ public class DeviceManagementServiceTest {
     @Test
     @DisplayName("delete throws NoSuchElementException when device not found")
     void delete_notFound_service() {
-        when(repository.findById(deviceId)).thenReturn(Optional.empty());
+        when(repository.findByIdPruned(deviceId)).thenReturn(Optional.empty());
 
         assertThrows(java.util.NoSuchElementException.class, () -> service.delete(deviceId));
-        verify(repository).findById(deviceId);
+        verify(repository).findByIdPruned(deviceId);
         verify(repository, never()).deleteById(any());
         verifyNoMoreInteractions(repository);
     }
@@ -145,10 +189,10 @@ public class DeviceManagementServiceTest {
     void delete_inUse_service() {
         Device deviceInUse = new Device();
         deviceInUse.setState(DeviceState.IN_USE);
-        when(repository.findById(deviceId)).thenReturn(Optional.of(deviceInUse));
+        when(repository.findByIdPruned(deviceId)).thenReturn(Optional.of(deviceInUse));
 
         assertThrows(IllegalStateException.class, () -> service.delete(deviceId));
-        verify(repository).findById(deviceId);
+        verify(repository).findByIdPruned(deviceId);
         verify(repository, never()).deleteById(any());
         verifyNoMoreInteractions(repository);
     }
@@ -159,7 +203,7 @@ public class DeviceManagementServiceTest {
         DeviceUpdateCommand deviceUpdateCommand = new DeviceUpdateCommand(DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE);
         DeviceView deviceView = new DeviceView(deviceId, NEW_DEVICE_NAME, NEW_DEVICE_BRAND, DeviceState.AVAILABLE, OffsetDateTime.parse(CREATION_TIME));
 
-        when(repository.findById(deviceId)).thenReturn(Optional.of(device));
+        when(repository.findByIdPruned(deviceId)).thenReturn(Optional.of(device));
         when(mapper.toView(device)).thenReturn(deviceView);
 
         DeviceView result = service.updatePartial(deviceId, deviceUpdateCommand);
@@ -167,6 +211,26 @@ public class DeviceManagementServiceTest {
         verify(mapper).update(device, deviceUpdateCommand);
         verify(mapper).toView(device);
         assertEquals(deviceView, result);
+        verifyNoInteractions(history);
+    }
+
+    @Test
+    @DisplayName("updatePartial records a state change in the history")
+    void updatePartial_whenStateChanges_recordsHistory() {
+        DeviceUpdateCommand deviceUpdateCommand = new DeviceUpdateCommand(null, null, DeviceState.INACTIVE);
+
+        when(repository.findByIdPruned(deviceId)).thenReturn(Optional.of(device));
+        doAnswer(invocation -> {
+            device.setState(DeviceState.INACTIVE);
+            return null;
+        }).when(mapper).update(device, deviceUpdateCommand);
+
+        service.updatePartial(deviceId, deviceUpdateCommand);
+
+        ArgumentCaptor<DeviceStateChange> changeCaptor = ArgumentCaptor.forClass(DeviceStateChange.class);
+        verify(history).save(changeCaptor.capture());
+        assertEquals(DeviceState.AVAILABLE, changeCaptor.getValue().getFromState());
+        assertEquals(DeviceState.INACTIVE, changeCaptor.getValue().getToState());
     }
 
     @Test
@@ -177,7 +241,7 @@ public class DeviceManagementServiceTest {
         device.setState(DeviceState.IN_USE);
         DeviceUpdateCommand deviceUpdateCommand = new DeviceUpdateCommand(NEW_DEVICE_NAME, null, DeviceState.IN_USE);
 
-        when(repository.findById(id)).thenReturn(Optional.of(device));
+        when(repository.findByIdPruned(id)).thenReturn(Optional.of(device));
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -200,7 +264,7 @@ public class DeviceManagementServiceTest {
         device.setState(DeviceState.IN_USE);
         DeviceUpdateCommand deviceUpdateCommand = new DeviceUpdateCommand(null, NEW_DEVICE_BRAND, DeviceState.IN_USE);
 
-        when(repository.findById(id)).thenReturn(Optional.of(device));
+        when(repository.findByIdPruned(id)).thenReturn(Optional.of(device));
 
         assertThrows(
                 IllegalStateException.class,
@@ -220,7 +284,7 @@ public class DeviceManagementServiceTest {
                 new DeviceUpdateCommand(null, null, DeviceState.IN_USE);
         DeviceView deviceView = new DeviceView(id, null, null, DeviceState.IN_USE, OffsetDateTime.parse(CREATION_TIME));
 
-        when(repository.findById(id)).thenReturn(Optional.of(device));
+        when(repository.findByIdPruned(id)).thenReturn(Optional.of(device));
         when(mapper.toView(device)).thenReturn(deviceView);
 
         DeviceView result = service.updatePartial(id, deviceUpdateCommand);
@@ -234,7 +298,7 @@ public class DeviceManagementServiceTest {
     void updatePartial_whenDeviceNotFound_throwsNotFound() {
         UUID id = UUID.randomUUID();
 
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(repository.findByIdPruned(id)).thenReturn(Optional.empty());
 
         assertThrows(
                 NoSuchElementException.class,
@@ -244,6 +308,36 @@ public class DeviceManagementServiceTest {
         verify(mapper, never()).update(any(), any());
     }
 
+    @Test
+    @DisplayName("updateBatch loads all targets at once and reports a result per item in request order")
+    void updateBatch_reportsPerItemResults() {
+        UUID missingId = UUID.randomUUID();
+        UUID inUseId = UUID.randomUUID();
+        Device inUse = new Device();
+        ReflectionTestUtils.setField(inUse, "id", inUseId);
+        inUse.setState(DeviceState.IN_USE);
+        ReflectionTestUtils.setField(device, "id", deviceId);
+        DeviceUpdateCommand stateOnly = new DeviceUpdateCommand(null, null, DeviceState.INACTIVE);
+        DeviceUpdateCommand rename = new DeviceUpdateCommand(NEW_DEVICE_NAME, null, null);
+        Map<UUID, DeviceUpdateCommand> updates = new LinkedHashMap<>();
+        updates.put(deviceId, stateOnly);
+        updates.put(missingId, stateOnly);
+        updates.put(inUseId, rename);
+
+        when(repository.findByIdInPruned(updates.keySet())).thenReturn(List.of(inUse, device));
+        when(mapper.toView(device)).thenReturn(deviceView);
+
+        List<BatchItemResult> results = service.updateBatch(updates);
+
+        assertEquals(List.of(
+                BatchItemResult.updated(deviceId, deviceView),
+                BatchItemResult.notFound(missingId),
+                BatchItemResult.conflict(inUseId, "Cannot update name/brand while device is IN_USE")), results);
+        verify(mapper).update(device, stateOnly);
+        verify(mapper, never()).update(inUse, rename);
+        verify(repository, never()).findByIdPruned(any());
+    }
+
     @Test
     @DisplayName("updateFull perform full update Successful")
     void updateFull_whenFullUpdate_updatesSuccessfully() {
@@ -251,13 +345,18 @@ public class DeviceManagementServiceTest {
         DeviceCreateCommand deviceCreateCommand = new DeviceCreateCommand(NEW_DEVICE_NAME, NEW_DEVICE_BRAND, DeviceState.IN_USE);
         DeviceView deviceView = new DeviceView(id, DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE, OffsetDateTime.parse(CREATION_TIME));
 
-        when(repository.findById(id)).thenReturn(Optional.of(device));
+        when(repository.findByIdPruned(id)).thenReturn(Optional.of(device));
         when(mapper.toView(device)).thenReturn(deviceView);
 
         DeviceView result = service.updateFull(id, deviceCreateCommand);
 
         verify(mapper).toView(device);
         assertEquals(deviceView, result);
+
+        ArgumentCaptor<DeviceStateChange> changeCaptor = ArgumentCaptor.forClass(DeviceStateChange.class);
+        verify(history).save(changeCaptor.capture());
+        assertEquals(DeviceState.AVAILABLE, changeCaptor.getValue().getFromState());
+        assertEquals(DeviceState.IN_USE, changeCaptor.getValue().getToState());
     }
 
     @Test
@@ -267,13 +366,14 @@ public class DeviceManagementServiceTest {
         DeviceCreateCommand deviceCreateCommand = new DeviceCreateCommand(DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE);
         DeviceView deviceView = new DeviceView(id, DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE, OffsetDateTime.parse(CREATION_TIME));
 
-        when(repository.findById(id)).thenReturn(Optional.of(device));
+        when(repository.findByIdPruned(id)).thenReturn(Optional.of(device));
         when(mapper.toView(device)).thenReturn(deviceView);
 
         DeviceView result = service.updateFull(id, deviceCreateCommand);
 
         verify(mapper).toView(device);
         assertEquals(deviceView, result);
+        verifyNoInteractions(history);
     }
 
     @Test
@@ -283,7 +383,7 @@ public class DeviceManagementServiceTest {
         DeviceCreateCommand deviceCreateCommand = new DeviceCreateCommand(NEW_DEVICE_NAME, NEW_DEVICE_BRAND, DeviceState.IN_USE);
         DeviceView deviceView = new DeviceView(id, DEVICE_NAME, DEVICE_BRAND, DeviceState.IN_USE, OffsetDateTime.parse(CREATION_TIME));
 
-        when(repository.findById(id)).thenReturn(Optional.of(device));
+        when(repository.findByIdPruned(id)).thenReturn(Optional.of(device));
         when(mapper.toView(device)).thenReturn(deviceView);
 
         DeviceView result = service.updateFull(id, deviceCreateCommand);
@@ -300,7 +400,7 @@ public class DeviceManagementServiceTest {
         device.setState(DeviceState.IN_USE);
         DeviceCreateCommand deviceCreateCommand = new DeviceCreateCommand(NEW_DEVICE_NAME, NEW_DEVICE_BRAND, DeviceState.AVAILABLE);
 
-        when(repository.findById(id)).thenReturn(Optional.of(device));
+        when(repository.findByIdPruned(id)).thenReturn(Optional.of(device));
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -320,7 +420,7 @@ public class DeviceManagementServiceTest {
     void updateFull_whenDeviceNotFound_throwsNotFound() {
         UUID id = UUID.randomUUID();
 
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(repository.findByIdPruned(id)).thenReturn(Optional.empty());
 
         assertThrows(
                 NoSuchElementException.class,
@@ -333,7 +433,7 @@ public class DeviceManagementServiceTest {
     @Test
     @DisplayName("get existing device successful")
     void get_existingDevice_returnsDeviceView() {
-        when(repository.findById(deviceId)).thenReturn(Optional.of(device));
+        when(repository.findByIdPruned(deviceId)).thenReturn(Optional.of(device));
         when(mapper.toView(device)).thenReturn(deviceView);
 
         DeviceView result = service.get(this.deviceId);
@@ -343,19 +443,19 @@ public class DeviceManagementServiceTest {
         assertEquals(DEVICE_BRAND, result.brand());
         assertEquals(DeviceState.AVAILABLE, result.state());
 
-        verify(repository).findById(this.deviceId);
+        verify(repository).findByIdPruned(this.deviceId);
         verify(mapper).toView(device);
     }
 
     @Test
     @DisplayName("get non existing device throws exception")
     void get_nonExistingDevice_throwsException() {
-        when(repository.findById(deviceId)).thenReturn(Optional.empty());
+        when(repository.findByIdPruned(deviceId)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(NoSuchElementException.class, () -> service.get(deviceId));
         assertTrue(exception.getMessage().contains(deviceId.toString()));
 
-        verify(repository).findById(deviceId);
+        verify(repository).findByIdPruned(deviceId);
         verifyNoInteractions(mapper); // mapper should not be called
     }
 
@@ -369,7 +469,8 @@ public class DeviceManagementServiceTest {
                 0, 10, Sort.by(Sort.Order.desc("creationTime")));
         Page<Device> devicePage = new PageImpl<>(List.of(device), pageable, 1);
 
-        when(repository.findByBrandIgnoreCaseAndState(DEVICE_BRAND, DeviceState.AVAILABLE, pageable))
+        when(brands.findId(DEVICE_BRAND)).thenReturn(Optional.of(BRAND_ID));
+        when(repository.findByBrandIdAndState(BRAND_ID, DeviceState.AVAILABLE, pageable))
                 .thenReturn(devicePage);
         when(mapper.toView(device)).thenReturn(deviceView);
 
@@ -379,7 +480,7 @@ public class DeviceManagementServiceTest {
         assertEquals(1, result.items().size());
         assertEquals(DEVICE_NAME, result.items().get(0).name());
 
-        verify(repository).findByBrandIgnoreCaseAndState(DEVICE_BRAND, DeviceState.AVAILABLE, pageable);
+        verify(repository).findByBrandIdAndState(BRAND_ID, DeviceState.AVAILABLE, pageable);
         verify(mapper).toView(device);
     }
 
@@ -394,14 +495,62 @@ public class DeviceManagementServiceTest {
 
         Page<Device> devicePage = new PageImpl<>(List.of(newDevice), pageable, 1);
 
-        when(repository.findByBrandIgnoreCase(NEW_DEVICE_BRAND, pageable)).thenReturn(devicePage);
+        when(brands.findId(NEW_DEVICE_BRAND)).thenReturn(Optional.of(NEW_BRAND_ID));
+        when(repository.findByBrandId(NEW_BRAND_ID, pageable)).thenReturn(devicePage);
         when(mapper.toView(newDevice)).thenReturn(newDeviceView);
 
         PageResult<DeviceView> result = service.list(filter, pageRequest);
 
         assertEquals(1, result.items().size());
         assertEquals(NEW_DEVICE_NAME, result.items().get(0).name());
-        verify(repository).findByBrandIgnoreCase(NEW_DEVICE_BRAND, pageable);
+        verify(repository).findByBrandId(NEW_BRAND_ID, pageable);
+    }
+
+    @Test
+    @DisplayName("get list of devices for an unknown brand returns an empty page without querying devices")
+    void list_withUnknownBrand_returnsEmptyPage() {
+        DeviceFilter filter = new DeviceFilter("Unknown", null);
+        PageRequest pageRequest = new PageRequest(0, 10, List.of());
+
+        when(brands.findId("Unknown")).thenReturn(Optional.empty());
+
+        PageResult<DeviceView> result = service.list(filter, pageRequest);
+
+        assertTrue(result.items().isEmpty());
+        assertEquals(0, result.totalItems());
+        verifyNoInteractions(repository, mapper);
+    }
+
+    @Test
+    @DisplayName("updateFull counts a brand differing only in case as a change")
+    void updateFull_whenBrandDiffersInCaseOnly_isChange() {
+        UUID id = UUID.randomUUID();
+        DeviceCreateCommand deviceCreateCommand =
+                new DeviceCreateCommand(DEVICE_NAME, DEVICE_BRAND.toUpperCase(), DeviceState.AVAILABLE);
+
+        when(repository.findByIdPruned(id)).thenReturn(Optional.of(device));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> service.updateFull(id, deviceCreateCommand));
+        assertEquals("PUT must either replace the entire resource or make no changes at all", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("updateFull keeps the new spelling of a brand differing only in case, on the same dictionary entry")
+    void updateFull_whenBrandDiffersInCaseOnly_keepsSpelling() {
+        UUID id = UUID.randomUUID();
+        Brand brand = device.getBrand();
+        DeviceCreateCommand deviceCreateCommand =
+                new DeviceCreateCommand(NEW_DEVICE_NAME, DEVICE_BRAND.toUpperCase(), DeviceState.IN_USE);
+
+        when(repository.findByIdPruned(id)).thenReturn(Optional.of(device));
+        when(mapper.toView(device)).thenReturn(deviceView);
+
+        service.updateFull(id, deviceCreateCommand);
+
+        assertEquals(DEVICE_BRAND.toUpperCase(), device.getBrandName());
+        assertSame(brand, device.getBrand());
+        verify(brands, never()).resolve(any());
     }
 
     @Test
@@ -0,0 +1,160 @@
+package com.device.management.service;
+
+import com.device.management.service.dto.DeviceCreateCommand;
+import com.device.management.service.dto.DeviceFilter;
+import com.device.management.service.dto.DeviceUpdateCommand;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.service.dto.PageRequest;
+import com.device.management.service.history.DeviceHistoryService;
+import com.device.management.service.idempotency.IdempotentDeviceCreator;
+import com.device.management.state.DeviceState;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The per-operation database time budgets reach the JDBC driver: Hibernate sets the remaining transaction time as
+ * the query timeout of every statement. Budgets far apart show which one each operation runs under.
+ */
+@SpringBootTest(properties = {
+        "devices.purge.enabled=false",
+        "devices.group-commit.enabled=false",
+        "devices.db-timeout.get-seconds=3",
+        "devices.db-timeout.list-seconds=20",
+        "devices.db-timeout.write-seconds=40",
+        "devices.idempotency.table-enabled=true"
+})
+@ActiveProfiles("test")
+public class DeviceManagementServiceTimeoutTest {
+
+    private static final ThreadLocal<List<Integer>> QUERY_TIMEOUTS = new ThreadLocal<>();
+    private static final Map<Statement, Integer> TIMEOUT_SET = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    @Autowired
+    private DeviceManagementService service;
+
+    @Autowired
+    private DeviceHistoryService historyService;
+
+    @Autowired
+    private IdempotentDeviceCreator idempotentCreator;
+
+    @Test
+    @DisplayName("create, including the registration of a new brand, update and delete run under the write budget")
+    void writes_writeBudget() {
+        DeviceView device = queryTimeouts(this::create, 40, 20);
+        queryTimeouts(() -> service.updatePartial(device.id(),
+                new DeviceUpdateCommand("Renamed", null, null)), 40, 20);
+        queryTimeouts(() -> {
+            service.delete(device.id());
+            return null;
+        }, 40, 20);
+    }
+
+    @Test
+    @DisplayName("a create under an Idempotency-Key, its key lookup and table insert run under the write budget")
+    void idempotentCreate_writeBudget() {
+        queryTimeouts(() -> idempotentCreator.create("timeout-" + UUID.randomUUID(),
+                new DeviceCreateCommand("Timeout", "Timeout " + UUID.randomUUID(), DeviceState.AVAILABLE)), 40, 20);
+    }
+
+    @Test
+    @DisplayName("get statements run under the get budget")
+    void get_getBudget() {
+        DeviceView device = create();
+
+        queryTimeouts(() -> service.get(device.id()), 3, 0);
+    }
+
+    @Test
+    @DisplayName("the page and count queries of list and the history query run under the list budget")
+    void list_listBudget() {
+        DeviceView device = create();
+
+        queryTimeouts(() -> service.list(new DeviceFilter(device.brand(), null), new PageRequest(0, 5, List.of())),
+                20, 3);
+        queryTimeouts(() -> historyService.history(device.id(), null, 10), 20, 3);
+    }
+
+    private DeviceView create() {
+        return service.create(new DeviceCreateCommand("Timeout", "Timeout " + UUID.randomUUID(), DeviceState.AVAILABLE));
+    }
+
+    /**
+     * Runs the call and asserts that it executed statements, each with a query timeout in (above, atMost] seconds.
+     */
+    private static <T> T queryTimeouts(Supplier<T> call, int atMost, int above) {
+        List<Integer> timeouts = new ArrayList<>();
+        QUERY_TIMEOUTS.set(timeouts);
+        T result;
+        try {
+            result = call.get();
+        } finally {
+            QUERY_TIMEOUTS.remove();
+        }
+        assertFalse(timeouts.isEmpty(), "no statement had a query timeout");
+        for (int timeout : timeouts) {
+            assertTrue(timeout > above && timeout <= atMost, "query timeout " + timeout + "s, budget " + atMost + "s");
+        }
+        return result;
+    }
+
+    @TestConfiguration
+    static class QueryTimeoutRecorder {
+
+        // Hibernate does not create the table of the idempotency store; before its purge is first scheduled
+        @Bean
+        SmartInitializingSingleton idempotencyKeysTable(JdbcTemplate jdbcTemplate) {
+            return () -> jdbcTemplate.execute("""
+                    CREATE TABLE IF NOT EXISTS idempotency_keys (
+                        tenant_id VARCHAR(63) NOT NULL, idempotency_key VARCHAR(255) NOT NULL, fingerprint VARCHAR(64) NOT NULL,
+                        device_id UUID NOT NULL, name VARCHAR(255) NOT NULL, brand VARCHAR(255) NOT NULL, state SMALLINT NOT NULL,
+                        creation_time TIMESTAMP WITH TIME ZONE NOT NULL, expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                        PRIMARY KEY (tenant_id, idempotency_key))""");
+        }
+
+        @Bean
+        MethodExecutionListener queryTimeoutListener() {
+            return new MethodExecutionListener() {
+                @Override
+                public void beforeMethod(MethodExecutionContext context) {
+                }
+
+                // Hibernate sets the timeout before executing and resets it to 0 when releasing the statement
+                @Override
+                public void afterMethod(MethodExecutionContext context) {
+                    if (!(context.getTarget() instanceof Statement statement)) {
+                        return;
+                    }
+                    String method = context.getMethod().getName();
+                    if (method.equals("setQueryTimeout")) {
+                        TIMEOUT_SET.put(statement, (Integer) context.getMethodArgs()[0]);
+                    } else if (method.startsWith("execute") && QUERY_TIMEOUTS.get() != null) {
+                        QUERY_TIMEOUTS.get().add(TIMEOUT_SET.getOrDefault(statement, 0));
+                    } else if (method.equals("close")) {
+                        TIMEOUT_SET.remove(statement);
+                    }
+                }
+            };
+        }
+    }
+}
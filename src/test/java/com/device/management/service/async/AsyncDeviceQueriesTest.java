@@ -0,0 +1,110 @@
+package com.device.management.service.async;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.state.DeviceState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.device.management.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class AsyncDeviceQueriesTest {
+
+    private DeviceUseCase useCase;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        useCase = Mockito.mock(DeviceUseCase.class);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("get completes with the view loaded on the executor")
+    void get_success() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        DeviceView view = new DeviceView(id, DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE, OffsetDateTime.parse(CREATION_TIME));
+        when(useCase.get(id)).thenReturn(view);
+
+        AsyncDeviceQueries queries = new AsyncDeviceQueries(useCase, executor, Duration.ofSeconds(5));
+
+        assertEquals(view, queries.get(id).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("get completes exceptionally with the use case exception")
+    void get_notFound() {
+        UUID id = UUID.fromString(DEVICE_ID);
+        when(useCase.get(id)).thenThrow(new NoSuchElementException("Device not found"));
+
+        AsyncDeviceQueries queries = new AsyncDeviceQueries(useCase, executor, Duration.ofSeconds(5));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> queries.get(id).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(NoSuchElementException.class, ex.getCause());
+    }
+
+    @Test
+    @DisplayName("get times out and interrupts the worker running the slow query")
+    void get_timeout_interruptsWorker() throws Exception {
+        UUID id = UUID.fromString(DEVICE_ID);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(useCase.get(id)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        AsyncDeviceQueries queries = new AsyncDeviceQueries(useCase, executor, Duration.ofMillis(50));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> queries.get(id).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("get is rejected when the executor is saturated")
+    void get_saturated_rejected() {
+        UUID id = UUID.fromString(DEVICE_ID);
+        CountDownLatch release = new CountDownLatch(1);
+        when(useCase.get(id)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        AsyncDeviceQueries queries = new AsyncDeviceQueries(useCase, executor, Duration.ofSeconds(5));
+        queries.get(id);
+        try {
+            assertThrows(TaskRejectedException.class, () -> queries.get(id));
+        } finally {
+            release.countDown();
+        }
+    }
+}
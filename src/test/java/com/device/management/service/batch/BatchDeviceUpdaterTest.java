@@ -0,0 +1,121 @@
+package com.device.management.service.batch;
+
+import com.device.management.exception.InvalidRequestException;
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.BatchItemResult;
+import com.device.management.service.dto.DeviceUpdateCommand;
+import com.device.management.state.DeviceState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BatchDeviceUpdaterTest {
+
+    private static final DeviceUpdateCommand COMMAND = new DeviceUpdateCommand(null, null, DeviceState.INACTIVE);
+
+    private DeviceUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = Mockito.mock(DeviceUseCase.class);
+        when(useCase.updateBatch(any())).thenAnswer(invocation -> {
+            Map<UUID, DeviceUpdateCommand> chunk = invocation.getArgument(0);
+            return chunk.keySet().stream().map(id -> BatchItemResult.updated(id, null)).toList();
+        });
+    }
+
+    @Test
+    @DisplayName("update commits the batch in chunks and keeps results in request order")
+    void update_splitsIntoChunks() {
+        Map<UUID, DeviceUpdateCommand> updates = updates(5);
+
+        List<BatchItemResult> results = new BatchDeviceUpdater(useCase, 2, 100).update(updates);
+
+        verify(useCase, times(3)).updateBatch(any());
+        assertEquals(List.copyOf(updates.keySet()), results.stream().map(BatchItemResult::id).toList());
+    }
+
+    @Test
+    @DisplayName("update runs the whole batch in one transaction when chunking is disabled")
+    void update_withoutChunking_singleCall() {
+        Map<UUID, DeviceUpdateCommand> updates = updates(5);
+
+        new BatchDeviceUpdater(useCase, 0, 100).update(updates);
+
+        verify(useCase).updateBatch(updates);
+    }
+
+    @Test
+    @DisplayName("update reports every item of a chunk that lost an optimistic lock race as a conflict")
+    void update_optimisticLockFailure_marksChunkConflicted() {
+        Map<UUID, DeviceUpdateCommand> updates = updates(4);
+        List<UUID> ids = List.copyOf(updates.keySet());
+        when(useCase.updateBatch(Map.of(ids.get(2), COMMAND, ids.get(3), COMMAND)))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Device", ids.get(3)));
+
+        List<BatchItemResult> results = new BatchDeviceUpdater(useCase, 2, 100).update(updates);
+
+        assertEquals(List.of(BatchItemResult.Status.UPDATED, BatchItemResult.Status.UPDATED,
+                        BatchItemResult.Status.CONFLICT, BatchItemResult.Status.CONFLICT),
+                results.stream().map(BatchItemResult::status).toList());
+    }
+
+    @Test
+    @DisplayName("a chunk failing after earlier chunks committed ends the batch with per-item failures")
+    void update_laterChunkFails_reportsFailedItems() {
+        Map<UUID, DeviceUpdateCommand> updates = updates(5);
+        List<UUID> ids = List.copyOf(updates.keySet());
+        when(useCase.updateBatch(Map.of(ids.get(2), COMMAND, ids.get(3), COMMAND)))
+                .thenThrow(new QueryTimeoutException("Database time budget exceeded"));
+
+        List<BatchItemResult> results = new BatchDeviceUpdater(useCase, 2, 100).update(updates);
+
+        assertEquals(ids, results.stream().map(BatchItemResult::id).toList());
+        assertEquals(List.of(BatchItemResult.Status.UPDATED, BatchItemResult.Status.UPDATED,
+                        BatchItemResult.Status.FAILED, BatchItemResult.Status.FAILED, BatchItemResult.Status.FAILED),
+                results.stream().map(BatchItemResult::status).toList());
+        verify(useCase, times(2)).updateBatch(any());
+    }
+
+    @Test
+    @DisplayName("a failure of the first chunk, with nothing committed, fails the request")
+    void update_firstChunkFails_throws() {
+        Map<UUID, DeviceUpdateCommand> updates = updates(4);
+        List<UUID> ids = List.copyOf(updates.keySet());
+        when(useCase.updateBatch(Map.of(ids.get(0), COMMAND, ids.get(1), COMMAND)))
+                .thenThrow(new QueryTimeoutException("Database time budget exceeded"));
+
+        assertThrows(QueryTimeoutException.class, () -> new BatchDeviceUpdater(useCase, 2, 100).update(updates));
+        verify(useCase, times(1)).updateBatch(any());
+    }
+
+    @Test
+    @DisplayName("update rejects empty and oversized batches")
+    void update_rejectsEmptyAndOversized() {
+        BatchDeviceUpdater updater = new BatchDeviceUpdater(useCase, 2, 3);
+
+        assertThrows(InvalidRequestException.class, () -> updater.update(Map.of()));
+        assertThrows(InvalidRequestException.class, () -> updater.update(updates(4)));
+        verify(useCase, never()).updateBatch(any());
+    }
+
+    private static Map<UUID, DeviceUpdateCommand> updates(int count) {
+        Map<UUID, DeviceUpdateCommand> updates = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            updates.put(UUID.randomUUID(), COMMAND);
+        }
+        return updates;
+    }
+}
@@ -0,0 +1,184 @@
+package com.device.management.service.coalescing;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.coalescing.CoalescingDeviceUseCase.ListKey;
+import com.device.management.service.dto.DeviceCreateCommand;
+import com.device.management.service.dto.DeviceFilter;
+import com.device.management.service.dto.DeviceUpdateCommand;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.service.dto.PageRequest;
+import com.device.management.service.dto.PageResult;
+import com.device.management.service.dto.SortOrder;
+import com.device.management.service.tenancy.TenantContext;
+import com.device.management.state.DeviceState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CoalescingDeviceUseCaseTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeviceUseCase delegate;
+    private CoalescingDeviceUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        delegate = Mockito.mock(DeviceUseCase.class);
+        useCase = new CoalescingDeviceUseCase(delegate, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("list keys ignore brand case and clamp page and size like the service")
+    void listKey_normalizesBrandAndPaging() {
+        List<SortOrder> sort = List.of(new SortOrder("name", SortOrder.Direction.ASC));
+
+        ListKey key = ListKey.of(new DeviceFilter("Apple", DeviceState.AVAILABLE), new PageRequest(0, 20, sort), 0);
+
+        assertEquals(key, ListKey.of(new DeviceFilter("APPLE", DeviceState.AVAILABLE), new PageRequest(0, 20, sort), 0));
+        assertEquals(ListKey.of(null, new PageRequest(0, 1, null), 0), ListKey.of(null, new PageRequest(-3, 0, List.of()), 0));
+        assertNotEquals(key, ListKey.of(new DeviceFilter("Apple", DeviceState.IN_USE), new PageRequest(0, 20, sort), 0));
+        assertNotEquals(key, ListKey.of(new DeviceFilter("Apple", DeviceState.AVAILABLE), new PageRequest(0, 20,
+                List.of(new SortOrder("name", SortOrder.Direction.DESC))), 0));
+        assertNotEquals(key, ListKey.of(new DeviceFilter("Apple", DeviceState.AVAILABLE), new PageRequest(0, 20, sort), 1));
+        assertNotEquals(ListKey.of(null, null, 0), ListKey.of(null, new PageRequest(0, 1, null), 0));
+    }
+
+    @Test
+    @DisplayName("list keys of different tenants differ")
+    void listKey_includesTenant() {
+        PageRequest page = new PageRequest(0, 20, List.of());
+
+        ListKey tenantA = TenantContext.call("tenant-a", () -> ListKey.of(null, page, 0));
+        ListKey tenantB = TenantContext.call("tenant-b", () -> ListKey.of(null, page, 0));
+
+        assertNotEquals(tenantA, tenantB);
+        assertEquals(tenantA, TenantContext.call("tenant-a", () -> ListKey.of(null, page, 0)));
+    }
+
+    @Test
+    @DisplayName("concurrent gets of one device are coalesced within a tenant, never across tenants")
+    void get_concurrent_coalescedPerTenant() throws Exception {
+        UUID id = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.get(id)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new DeviceView(id, TenantContext.current(), "Apple", DeviceState.AVAILABLE, OffsetDateTime.now());
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<DeviceView> a1 = executor.submit(() -> TenantContext.call("tenant-a", () -> useCase.get(id)));
+            awaitCalls(1);
+            Future<DeviceView> b1 = executor.submit(() -> TenantContext.call("tenant-b", () -> useCase.get(id)));
+            awaitCalls(2);
+            Future<DeviceView> a2 = executor.submit(() -> TenantContext.call("tenant-a", () -> useCase.get(id)));
+            Future<DeviceView> b2 = executor.submit(() -> TenantContext.call("tenant-b", () -> useCase.get(id)));
+            awaitFollowers(2);
+            release.countDown();
+
+            assertEquals("tenant-a", a1.get(5, TimeUnit.SECONDS).name());
+            assertEquals("tenant-a", a2.get(5, TimeUnit.SECONDS).name());
+            assertEquals("tenant-b", b1.get(5, TimeUnit.SECONDS).name());
+            assertEquals("tenant-b", b2.get(5, TimeUnit.SECONDS).name());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(delegate, times(2)).get(id);
+    }
+
+    @Test
+    @DisplayName("a get issued after a write to the device returns does not join a get started before it")
+    void get_afterLocalWrite_readsOwnWrite() throws Exception {
+        UUID id = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.get(id))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return new DeviceView(id, "Before", "Apple", DeviceState.AVAILABLE, OffsetDateTime.now());
+                })
+                .thenReturn(new DeviceView(id, "After", "Apple", DeviceState.AVAILABLE, OffsetDateTime.now()));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<DeviceView> before = executor.submit(() -> useCase.get(id));
+            awaitCalls(1);
+
+            useCase.updatePartial(id, new DeviceUpdateCommand("After", null, null));
+            Future<DeviceView> after = executor.submit(() -> useCase.get(id));
+
+            assertEquals("After", after.get(5, TimeUnit.SECONDS).name());
+            release.countDown();
+            assertEquals("Before", before.get(5, TimeUnit.SECONDS).name());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(delegate, times(2)).get(id);
+    }
+
+    @Test
+    @DisplayName("a list issued after any write returns does not join a list started before it")
+    void list_afterLocalWrite_readsOwnWrite() throws Exception {
+        PageRequest page = new PageRequest(0, 20, List.of());
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.list(null, page))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return new PageResult<>(List.of(), 0, 20, 0, 0, true, true);
+                })
+                .thenReturn(new PageResult<>(List.of(), 0, 20, 1, 1, true, true));
+        when(delegate.create(any())).thenAnswer(invocation ->
+                new DeviceView(UUID.randomUUID(), "Phone", "Apple", DeviceState.AVAILABLE, OffsetDateTime.now()));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<PageResult<DeviceView>> before = executor.submit(() -> useCase.list(null, page));
+            awaitCalls(1);
+
+            useCase.create(new DeviceCreateCommand("Phone", "Apple", DeviceState.AVAILABLE));
+            Future<PageResult<DeviceView>> after = executor.submit(() -> useCase.list(null, page));
+
+            assertEquals(1, after.get(5, TimeUnit.SECONDS).totalItems());
+            release.countDown();
+            assertEquals(0, before.get(5, TimeUnit.SECONDS).totalItems());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(delegate, times(2)).list(null, page);
+    }
+
+    @Test
+    @DisplayName("writes are not coalesced")
+    void delete_passesThrough() {
+        UUID id = UUID.randomUUID();
+
+        useCase.delete(id);
+        useCase.delete(id);
+
+        verify(delegate, times(2)).delete(id);
+        verify(delegate, never()).list(any(), any());
+    }
+
+    private void awaitCalls(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Mockito.mockingDetails(delegate).getInvocations().size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitFollowers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("devices.coalescing.requests").tag("operation", "get").tag("role", "follower")
+                .counter().count() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
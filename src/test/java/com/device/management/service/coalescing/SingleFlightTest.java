@@ -0,0 +1,129 @@
+package com.device.management.service.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("get", meterRegistry);
+    }
+
+    @Test
+    @DisplayName("concurrent calls for the same key run the loader once and share its result")
+    void execute_concurrentSameKey_loadsOnce() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "value";
+            })));
+            awaitInFlight();
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            awaitFollowers(callers - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals(1.0, counter("leader"));
+        assertEquals(callers - 1.0, counter("follower"));
+    }
+
+    @Test
+    @DisplayName("followers receive their own exception, caused by the leader's")
+    void execute_leaderFails_followersSeeOwnException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                await(release);
+                throw new NoSuchElementException("Device not found");
+            }));
+            awaitInFlight();
+            Future<String> follower = executor.submit(() -> singleFlight.execute("key", () -> "other"));
+            awaitFollowers(1);
+            release.countDown();
+
+            ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(NoSuchElementException.class, leaderError.getCause());
+            assertInstanceOf(CoalescedCallException.class, followerError.getCause());
+            assertEquals("Device not found", followerError.getCause().getMessage());
+            assertSame(leaderError.getCause(), followerError.getCause().getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("sequential calls are not cached")
+    void execute_sequentialCalls_loadEachTime() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("key", () -> "v" + loads.incrementAndGet());
+        String second = singleFlight.execute("key", () -> "v" + loads.incrementAndGet());
+
+        assertEquals("v2", second);
+        assertEquals(2.0, counter("leader"));
+        assertEquals(0.0, counter("follower"));
+    }
+
+    private double counter(String role) {
+        return meterRegistry.get("devices.coalescing.requests").tag("role", role).counter().count();
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.inFlightCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitFollowers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter("follower") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
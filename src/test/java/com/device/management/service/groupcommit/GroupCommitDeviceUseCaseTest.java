@@ -0,0 +1,196 @@
+package com.device.management.service.groupcommit;
+
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.DeviceCreateCommand;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.service.tenancy.TenantContext;
+import com.device.management.state.DeviceState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.device.management.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class GroupCommitDeviceUseCaseTest {
+
+    private DeviceUseCase delegate;
+    private ExecutorService callers;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        delegate = Mockito.mock(DeviceUseCase.class);
+        callers = Executors.newFixedThreadPool(3);
+        meterRegistry = new SimpleMeterRegistry();
+        when(delegate.create(any())).thenAnswer(invocation -> view(invocation.getArgument(0)));
+        when(delegate.createAll(anyList())).thenAnswer(invocation -> {
+            List<DeviceCreateCommand> commands = invocation.getArgument(0);
+            return commands.stream().map(GroupCommitDeviceUseCaseTest::view).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("concurrent creates within the window are committed together and each caller gets its own device")
+    void create_concurrent_groupedIntoOneTransaction() throws Exception {
+        try (GroupCommitDeviceUseCase useCase = groupCommit(3, Duration.ofSeconds(5))) {
+            List<CompletableFuture<DeviceView>> results = List.of("a", "b", "c").stream()
+                    .map(name -> CompletableFuture.supplyAsync(() -> useCase.create(command(name)), callers))
+                    .toList();
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(List.of("a", "b", "c").get(i), results.get(i).get(5, TimeUnit.SECONDS).name());
+            }
+            verify(delegate).createAll(anyList());
+            verify(delegate, never()).create(any());
+            assertEquals(3.0, meterRegistry.get("devices.group-commit.batch.size").summary().totalAmount());
+        }
+    }
+
+    @Test
+    @DisplayName("a failed group is retried one create at a time so only the faulty caller sees the error")
+    void create_groupFails_retriedIndividually() throws Exception {
+        when(delegate.createAll(anyList())).thenThrow(new IllegalArgumentException("name must not be blank"));
+        when(delegate.create(command(" "))).thenThrow(new IllegalArgumentException("name must not be blank"));
+
+        try (GroupCommitDeviceUseCase useCase = groupCommit(2, Duration.ofSeconds(5))) {
+            CompletableFuture<DeviceView> valid = CompletableFuture.supplyAsync(() -> useCase.create(command("a")), callers);
+            CompletableFuture<DeviceView> invalid = CompletableFuture.supplyAsync(() -> useCase.create(command(" ")), callers);
+
+            assertEquals("a", valid.get(5, TimeUnit.SECONDS).name());
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> invalid.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+            assertEquals(1.0, meterRegistry.get("devices.group-commit.fallbacks").counter().count());
+        }
+    }
+
+    @Test
+    @DisplayName("a lone create is committed on its own once the window passes")
+    void create_alone_committedAfterWindow() throws Exception {
+        try (GroupCommitDeviceUseCase useCase = groupCommit(64, Duration.ofMillis(10))) {
+            assertEquals("a", useCase.create(command("a")).name());
+
+            verify(delegate).create(command("a"));
+            verify(delegate, never()).createAll(anyList());
+        }
+    }
+
+    @Test
+    @DisplayName("a create inside the caller's transaction bypasses grouping")
+    void create_insideTransaction_passesThrough() throws Exception {
+        try (GroupCommitDeviceUseCase useCase = groupCommit(64, Duration.ofSeconds(5))) {
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                assertEquals("a", useCase.create(command("a")).name());
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+            verify(delegate).create(command("a"));
+            assertEquals(0, useCase.queued());
+        }
+    }
+
+    @Test
+    @DisplayName("creates of different tenants in one group are committed separately, each under its tenant")
+    void create_mixedTenants_committedPerTenant() throws Exception {
+        Map<String, String> tenantOfCommit = new ConcurrentHashMap<>();
+        when(delegate.createAll(anyList())).thenAnswer(invocation -> {
+            List<DeviceCreateCommand> commands = invocation.getArgument(0);
+            commands.forEach(command -> tenantOfCommit.put(command.name(), TenantContext.current()));
+            return commands.stream().map(GroupCommitDeviceUseCaseTest::view).toList();
+        });
+
+        ExecutorService tenants = Executors.newFixedThreadPool(4);
+        try (GroupCommitDeviceUseCase useCase = groupCommit(4, Duration.ofSeconds(5))) {
+            List<CompletableFuture<DeviceView>> results = List.of("a1", "b1", "a2", "b2").stream()
+                    .map(name -> CompletableFuture.supplyAsync(() -> TenantContext.call("tenant-" + name.charAt(0),
+                            () -> useCase.create(command(name))), tenants))
+                    .toList();
+            for (CompletableFuture<DeviceView> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+
+            verify(delegate, times(2)).createAll(anyList());
+            assertEquals(Map.of("a1", "tenant-a", "a2", "tenant-a", "b1", "tenant-b", "b2", "tenant-b"), tenantOfCommit);
+        } finally {
+            tenants.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("creates still queued when close gives up waiting fail instead of blocking their callers")
+    void close_timeout_failsQueuedCreates() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        when(delegate.create(command("a"))).thenAnswer(invocation -> {
+            committing.countDown();
+            // Uninterruptible, like a commit the driver does not abort
+            release.join();
+            return view(invocation.getArgument(0));
+        });
+
+        GroupCommitDeviceUseCase useCase = groupCommit(1, Duration.ofMillis(10));
+        CompletableFuture<DeviceView> first = CompletableFuture.supplyAsync(() -> useCase.create(command("a")), callers);
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<DeviceView> queued = CompletableFuture.supplyAsync(() -> useCase.create(command("b")), callers);
+        while (useCase.queued() == 0) {
+            Thread.onSpinWait();
+        }
+
+        useCase.close(Duration.ofMillis(50));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TaskRejectedException.class, ex.getCause());
+        release.complete(null);
+        assertEquals("a", first.get(5, TimeUnit.SECONDS).name());
+        verify(delegate, never()).create(command("b"));
+    }
+
+    @Test
+    @DisplayName("creates after close are committed on their own instead of queued")
+    void create_afterClose_passesThrough() throws Exception {
+        GroupCommitDeviceUseCase useCase = groupCommit(64, Duration.ofSeconds(5));
+        useCase.close(Duration.ofSeconds(5));
+
+        assertEquals("a", useCase.create(command("a")).name());
+        verify(delegate).create(command("a"));
+        assertEquals(0, useCase.queued());
+    }
+
+    private GroupCommitDeviceUseCase groupCommit(int maxBatchSize, Duration window) {
+        return new GroupCommitDeviceUseCase(delegate, maxBatchSize, window, 100, 1, meterRegistry);
+    }
+
+    private static DeviceCreateCommand command(String name) {
+        return new DeviceCreateCommand(name, DEVICE_BRAND, DeviceState.AVAILABLE);
+    }
+
+    private static DeviceView view(DeviceCreateCommand command) {
+        return new DeviceView(UUID.randomUUID(), command.name(), command.brand(), command.state(), null);
+    }
+}
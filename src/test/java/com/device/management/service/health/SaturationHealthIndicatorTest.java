@@ -0,0 +1,34 @@
+package com.device.management.service.health;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Status;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SaturationHealthIndicatorTest {
+
+    private double level;
+
+    private final SaturationHealthIndicator indicator = new SaturationHealthIndicator(
+            new SaturationMonitor(Map.of("latency", () -> level), new SimpleMeterRegistry()), 1.0, 0.8);
+
+    @Test
+    @DisplayName("readiness goes out of service at the limit and comes back only below the recovery level")
+    void health_hysteresis() {
+        assertEquals(Status.UP, status(0.95));
+        assertEquals(Status.OUT_OF_SERVICE, status(1.0));
+        assertEquals(Status.OUT_OF_SERVICE, status(0.95));
+        assertEquals(Status.OUT_OF_SERVICE, status(0.8));
+        assertEquals(Status.UP, status(0.79));
+        assertEquals(Status.UP, status(0.95));
+    }
+
+    private Status status(double level) {
+        this.level = level;
+        return indicator.health().getStatus();
+    }
+}
@@ -0,0 +1,121 @@
+package com.device.management.service.health;
+
+import com.device.management.service.health.SaturationMonitor.Saturation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaturationMonitorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("the level is the busiest signal and is published with every component")
+    void current_takesHighestSignal() {
+        Map<String, DoubleSupplier> signals = new LinkedHashMap<>();
+        signals.put("connection-pool", () -> 0.4);
+        signals.put("latency", () -> 1.3);
+        signals.put("gc", () -> 0.1);
+
+        Saturation saturation = new SaturationMonitor(signals, registry).current();
+
+        assertEquals(1.3, saturation.level());
+        assertEquals("latency", saturation.busiest());
+        assertEquals(0.4, saturation.components().get("connection-pool"));
+        assertEquals(1.3, registry.get("devices.saturation").gauge().value());
+        assertEquals(0.1, registry.get("devices.saturation.component").tag("component", "gc").gauge().value());
+    }
+
+    @Test
+    @DisplayName("the pool signal rises with waiting threads or the p99 acquire wait, not with busy connections")
+    void connectionPool_reflectsWaits() {
+        DoubleSupplier pool = SaturationSignals.connectionPool(registry, Duration.ofMillis(100));
+        assertEquals(0, pool.getAsDouble());
+
+        double[] pending = {0};
+        Gauge.builder("hikaricp.connections.pending", pending, values -> values[0]).register(registry);
+        Gauge.builder("hikaricp.connections.max", () -> 10).register(registry);
+        Gauge.builder("hikaricp.connections.active", () -> 10).register(registry);
+        Timer acquire = Timer.builder("hikaricp.connections.acquire").publishPercentiles(0.99).register(registry);
+        assertEquals(0, pool.getAsDouble());
+
+        pending[0] = 5;
+        assertEquals(0.5, pool.getAsDouble(), 1e-9);
+        for (int i = 0; i < 100; i++) {
+            acquire.record(Duration.ofMillis(250));
+        }
+        assertEquals(2.5, pool.getAsDouble(), 0.1);
+    }
+
+    @Test
+    @DisplayName("a single slow connection acquire among fast ones does not saturate the pool signal")
+    void connectionPool_ignoresOutlier() {
+        DoubleSupplier pool = SaturationSignals.connectionPool(registry, Duration.ofMillis(100));
+        Timer acquire = Timer.builder("hikaricp.connections.acquire").publishPercentiles(0.99).register(registry);
+        acquire.record(Duration.ofSeconds(5));
+        for (int i = 0; i < 499; i++) {
+            acquire.record(Duration.ofMillis(1));
+        }
+
+        assertTrue(pool.getAsDouble() < 0.5, Double.toString(pool.getAsDouble()));
+    }
+
+    @Test
+    @DisplayName("the latency signal is the highest recent p99 of the included timers relative to the objective")
+    void latency_relativeToObjective() {
+        DoubleSupplier latency = SaturationSignals.latency(registry, "devices.use-case", Duration.ofMillis(100),
+                id -> !"updateBatch".equals(id.getTag("devices.operation")));
+        for (String operation : new String[]{"get", "list", "updateBatch"}) {
+            Timer timer = Timer.builder("devices.use-case").tag("devices.operation", operation)
+                    .publishPercentiles(0.99).register(registry);
+            for (int i = 0; i < 100; i++) {
+                timer.record(Duration.ofMillis(switch (operation) {
+                    case "list" -> 200;
+                    case "updateBatch" -> 2_000;
+                    default -> 20;
+                }));
+            }
+        }
+
+        assertEquals(2.0, latency.getAsDouble(), 0.1);
+    }
+
+    @Test
+    @DisplayName("the queue signal is the share of the executor queue in use")
+    void queue_shareOfCapacity() throws InterruptedException {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(4);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> {
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            assertEquals(0.5, SaturationSignals.queue(executor).getAsDouble());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.device.management.service.history;
+
+import com.device.management.exception.InvalidRequestException;
+import com.device.management.repository.DeviceRepository;
+import com.device.management.repository.DeviceStateChangeRepository;
+import com.device.management.repository.entity.DeviceStateChange;
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.dto.StateUtilization;
+import com.device.management.state.DeviceState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.device.management.TestConstants.DEVICE_ID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DeviceHistoryServiceTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2026-03-01T00:00:00Z");
+
+    @Mock
+    private DeviceRepository devices;
+
+    @Mock
+    private DeviceStateChangeRepository changes;
+
+    private DeviceHistoryService service;
+    private UUID deviceId;
+
+    @BeforeEach
+    void setUp() {
+        service = new DeviceHistoryService(devices, changes, Clock.fixed(T0.plusDays(10).toInstant(), ZoneOffset.UTC));
+        deviceId = UUID.fromString(DEVICE_ID);
+    }
+
+    @Test
+    @DisplayName("history returns the first page with a cursor when more entries follow")
+    void history_firstPage_returnsCursor() {
+        DeviceStateChange newest = change(DeviceState.AVAILABLE, DeviceState.IN_USE, T0.plusHours(2));
+        DeviceStateChange middle = change(null, DeviceState.AVAILABLE, T0.plusHours(1));
+        DeviceStateChange extra = change(null, DeviceState.AVAILABLE, T0);
+        when(devices.existsById(deviceId)).thenReturn(true);
+        when(changes.findByDeviceIdOrderByChangedAtDescIdDesc(deviceId, Limit.of(3)))
+                .thenReturn(List.of(newest, middle, extra));
+
+        HistoryPage page = service.history(deviceId, null, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(DeviceState.IN_USE, page.items().get(0).toState());
+        HistoryCursor cursor = HistoryCursor.decode(page.nextCursor());
+        assertEquals(middle.getChangedAt().toInstant(), cursor.changedAt().toInstant());
+        assertEquals(middle.getId(), cursor.id());
+    }
+
+    @Test
+    @DisplayName("history continues after the cursor and has no cursor on the last page")
+    void history_nextPage_usesKeyset() {
+        DeviceStateChange last = change(null, DeviceState.AVAILABLE, T0);
+        HistoryCursor cursor = new HistoryCursor(T0.plusHours(1), UUID.randomUUID());
+        when(devices.existsById(deviceId)).thenReturn(true);
+        when(changes.findPageAfter(eq(deviceId), any(), eq(cursor.id()), eq(Limit.of(3)))).thenReturn(List.of(last));
+
+        HistoryPage page = service.history(deviceId, cursor.encode(), 2);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+        verify(changes).findPageAfter(eq(deviceId),
+                argThat(at -> at.toInstant().equals(cursor.changedAt().toInstant())), eq(cursor.id()), eq(Limit.of(3)));
+    }
+
+    @Test
+    @DisplayName("history rejects a malformed cursor")
+    void history_invalidCursor_throws() {
+        when(devices.existsById(deviceId)).thenReturn(true);
+
+        assertThrows(InvalidRequestException.class, () -> service.history(deviceId, "not-a-cursor", 20));
+    }
+
+    @Test
+    @DisplayName("history throws NoSuchElementException when device not found")
+    void history_deviceNotFound_throws() {
+        when(devices.existsById(deviceId)).thenReturn(false);
+
+        assertThrows(NoSuchElementException.class, () -> service.history(deviceId, null, 20));
+        verifyNoInteractions(changes);
+    }
+
+    @Test
+    @DisplayName("utilization sums the time spent in each state within the window")
+    void utilization_sumsTimeInState() {
+        OffsetDateTime from = T0.plusHours(1);
+        OffsetDateTime to = T0.plusHours(5);
+        when(devices.existsById(deviceId)).thenReturn(true);
+        when(changes.findFirstByDeviceIdAndChangedAtLessThanEqualOrderByChangedAtDescIdDesc(deviceId, from))
+                .thenReturn(Optional.of(change(null, DeviceState.AVAILABLE, T0)));
+        when(changes.findWithin(deviceId, from, to)).thenReturn(List.of(
+                change(DeviceState.AVAILABLE, DeviceState.IN_USE, T0.plusHours(2)),
+                change(DeviceState.IN_USE, DeviceState.AVAILABLE, T0.plusHours(4))));
+
+        StateUtilization utilization = service.utilization(deviceId, from, to);
+
+        assertEquals(2 * 3600L, utilization.secondsInState().get(DeviceState.AVAILABLE));
+        assertEquals(2 * 3600L, utilization.secondsInState().get(DeviceState.IN_USE));
+        assertEquals(0L, utilization.secondsInState().get(DeviceState.INACTIVE));
+    }
+
+    @Test
+    @DisplayName("utilization does not attribute time before the first recorded state or after now")
+    void utilization_untrackedTime_isNotAttributed() {
+        OffsetDateTime from = T0;
+        OffsetDateTime now = T0.plusDays(10);
+        when(devices.existsById(deviceId)).thenReturn(true);
+        when(changes.findFirstByDeviceIdAndChangedAtLessThanEqualOrderByChangedAtDescIdDesc(deviceId, from))
+                .thenReturn(Optional.empty());
+        when(changes.findWithin(deviceId, from, now))
+                .thenReturn(List.of(change(null, DeviceState.INACTIVE, now.minusHours(1))));
+
+        StateUtilization utilization = service.utilization(deviceId, from, T0.plusDays(30));
+
+        assertEquals(3600L, utilization.secondsInState().get(DeviceState.INACTIVE));
+        assertEquals(0L, utilization.secondsInState().get(DeviceState.AVAILABLE));
+    }
+
+    @Test
+    @DisplayName("utilization rejects an empty window")
+    void utilization_emptyWindow_throws() {
+        assertThrows(InvalidRequestException.class, () -> service.utilization(deviceId, T0, T0));
+    }
+
+    private DeviceStateChange change(DeviceState from, DeviceState to, OffsetDateTime at) {
+        DeviceStateChange change = new DeviceStateChange(deviceId, from, to);
+        ReflectionTestUtils.setField(change, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(change, "changedAt", at);
+        return change;
+    }
+}
@@ -0,0 +1,198 @@
+package com.device.management.service.idempotency;
+
+import com.device.management.exception.IdempotencyKeyReusedException;
+import com.device.management.exception.InvalidRequestException;
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.DeviceCreateCommand;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.service.tenancy.TenantContext;
+import com.device.management.state.DeviceState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.device.management.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class IdempotentDeviceCreatorTest {
+
+    private static final Instant NOW = Instant.parse(CREATION_TIME);
+
+    private DeviceUseCase useCase;
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryIdempotencyStore memory;
+    private IdempotentDeviceCreator creator;
+    private DeviceCreateCommand command;
+    private DeviceView view;
+
+    @BeforeEach
+    void setUp() {
+        useCase = Mockito.mock(DeviceUseCase.class);
+        clock = new MutableClock(NOW);
+        memory = new InMemoryIdempotencyStore(2, clock);
+        meterRegistry = new SimpleMeterRegistry();
+        creator = new IdempotentDeviceCreator(useCase, memory, null, null, Duration.ofHours(1), clock, "default", meterRegistry);
+        command = new DeviceCreateCommand(DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE);
+        view = new DeviceView(UUID.fromString(DEVICE_ID), DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE,
+                OffsetDateTime.parse(CREATION_TIME));
+    }
+
+    @Test
+    @DisplayName("create replays the original response for a retried key")
+    void create_retry_replaysOriginal() {
+        when(useCase.create(command)).thenReturn(view);
+
+        DeviceView first = creator.create("key-1", command);
+        DeviceView retry = creator.create("key-1", command);
+
+        assertEquals(view, first);
+        assertEquals(view, retry);
+        verify(useCase, times(1)).create(command);
+        assertEquals(1.0, replays());
+    }
+
+    @Test
+    @DisplayName("create rejects a key reused with a different body")
+    void create_keyReusedWithDifferentBody_throws() {
+        when(useCase.create(command)).thenReturn(view);
+        creator.create("key-1", command);
+
+        DeviceCreateCommand other = new DeviceCreateCommand(NEW_DEVICE_NAME, DEVICE_BRAND, DeviceState.AVAILABLE);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> creator.create("key-1", other));
+        verify(useCase, never()).create(other);
+        assertEquals(0.0, replays());
+    }
+
+    @Test
+    @DisplayName("the fingerprint tells apart bodies whose fields only differ in where a separator falls")
+    void fingerprint_fieldBoundaries_differ() {
+        assertNotEquals(
+                IdempotentDeviceCreator.fingerprint(new DeviceCreateCommand("a\nb", "c", DeviceState.AVAILABLE)),
+                IdempotentDeviceCreator.fingerprint(new DeviceCreateCommand("a", "b\nc", DeviceState.AVAILABLE)));
+        assertEquals(
+                IdempotentDeviceCreator.fingerprint(new DeviceCreateCommand("a", "b", DeviceState.AVAILABLE)),
+                IdempotentDeviceCreator.fingerprint(new DeviceCreateCommand("a", "b", DeviceState.AVAILABLE)));
+    }
+
+    @Test
+    @DisplayName("create runs again once the record has expired")
+    void create_afterTtl_createsAgain() {
+        when(useCase.create(command)).thenReturn(view);
+        creator.create("key-1", command);
+
+        clock.advance(Duration.ofHours(2));
+        creator.create("key-1", command);
+
+        verify(useCase, times(2)).create(command);
+    }
+
+    @Test
+    @DisplayName("the in-memory store evicts the least recently used key when full")
+    void memory_full_evictsLeastRecentlyUsed() {
+        when(useCase.create(command)).thenReturn(view);
+        creator.create("key-1", command);
+        creator.create("key-2", command);
+        creator.create("key-1", command);
+        creator.create("key-3", command);
+
+        assertEquals(2, memory.size());
+        assertTrue(memory.find("default", "key-1").isPresent());
+        assertTrue(memory.find("default", "key-2").isEmpty());
+    }
+
+    @Test
+    @DisplayName("concurrent creates with the same key coalesce onto the first one in flight")
+    void create_concurrentDuplicates_coalesce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(useCase.create(command)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return view;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<DeviceView> leader = executor.submit(() -> creator.create("key-1", command));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<DeviceView> follower = executor.submit(() -> creator.create("key-1", command));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(view, leader.get(5, TimeUnit.SECONDS));
+            assertEquals(view, follower.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(useCase, times(1)).create(any());
+        assertEquals(1.0, replays());
+    }
+
+    @Test
+    @DisplayName("the same key used by two tenants creates a device for each")
+    void create_sameKeyOtherTenant_createsAgain() {
+        when(useCase.create(command)).thenReturn(view);
+
+        creator.create("key-1", command);
+        TenantContext.call("tenant-b", () -> creator.create("key-1", command));
+
+        verify(useCase, times(2)).create(command);
+        assertTrue(memory.find("tenant-b", "key-1").isPresent());
+    }
+
+    @Test
+    @DisplayName("create rejects a blank key")
+    void create_blankKey_throws() {
+        assertThrows(InvalidRequestException.class, () -> creator.create(" ", command));
+        verifyNoInteractions(useCase);
+    }
+
+    private double replays() {
+        return meterRegistry.get("devices.idempotency.replays").counter().count();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.device.management.service.idempotency;
+
+import com.device.management.service.dto.DeviceView;
+import com.device.management.state.DeviceState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static com.device.management.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JdbcIdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcIdempotencyStore store;
+    private DeviceView view;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("""
+                CREATE TABLE idempotency_keys (
+                    tenant_id VARCHAR(63) NOT NULL, idempotency_key VARCHAR(255) NOT NULL, fingerprint VARCHAR(64) NOT NULL, device_id UUID NOT NULL,
+                    name VARCHAR(255) NOT NULL, brand VARCHAR(255) NOT NULL, state SMALLINT NOT NULL,
+                    creation_time TIMESTAMP WITH TIME ZONE NOT NULL, expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                    PRIMARY KEY (tenant_id, idempotency_key))""");
+        store = new JdbcIdempotencyStore(jdbcTemplate, Clock.fixed(NOW, ZoneOffset.UTC));
+        view = new DeviceView(UUID.fromString(DEVICE_ID), DEVICE_NAME, DEVICE_BRAND, DeviceState.IN_USE,
+                OffsetDateTime.parse(CREATION_TIME));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    @DisplayName("save and find round-trip the recorded response")
+    void saveAndFind_roundTrip() {
+        store.save("tenant-a", "key-1", new IdempotencyRecord("abc", view, NOW.plus(Duration.ofHours(1))));
+
+        IdempotencyRecord found = store.find("tenant-a", "key-1").orElseThrow();
+
+        assertEquals("abc", found.fingerprint());
+        assertEquals(view.id(), found.response().id());
+        assertEquals(DeviceState.IN_USE, found.response().state());
+        assertEquals(view.creationTime().toInstant(), found.response().creationTime().toInstant());
+    }
+
+    @Test
+    @DisplayName("save of a key held by an unexpired record fails with a duplicate key")
+    void save_duplicateKey_throws() {
+        store.save("tenant-a", "key-1", new IdempotencyRecord("abc", view, NOW.plus(Duration.ofHours(1))));
+
+        assertThrows(DuplicateKeyException.class,
+                () -> store.save("tenant-a", "key-1", new IdempotencyRecord("def", view, NOW.plus(Duration.ofHours(1)))));
+    }
+
+    @Test
+    @DisplayName("the same key is independent in each tenant")
+    void sameKey_otherTenant_independent() {
+        store.save("tenant-a", "key-1", new IdempotencyRecord("abc", view, NOW.plus(Duration.ofHours(1))));
+
+        assertTrue(store.find("tenant-b", "key-1").isEmpty());
+        store.save("tenant-b", "key-1", new IdempotencyRecord("def", view, NOW.plus(Duration.ofHours(1))));
+        assertEquals("abc", store.find("tenant-a", "key-1").orElseThrow().fingerprint());
+        assertEquals("def", store.find("tenant-b", "key-1").orElseThrow().fingerprint());
+    }
+
+    @Test
+    @DisplayName("expired records are not found, can be replaced and are purged")
+    void expiredRecords_ignoredReplacedAndPurged() {
+        store.save("tenant-a", "key-1", new IdempotencyRecord("abc", view, NOW.minusSeconds(1)));
+        store.save("tenant-a", "key-2", new IdempotencyRecord("abc", view, NOW.minusSeconds(1)));
+
+        assertTrue(store.find("tenant-a", "key-1").isEmpty());
+        store.save("tenant-a", "key-1", new IdempotencyRecord("def", view, NOW.plus(Duration.ofHours(1))));
+        assertEquals("def", store.find("tenant-a", "key-1").orElseThrow().fingerprint());
+
+        store.purgeExpired();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class));
+    }
+}
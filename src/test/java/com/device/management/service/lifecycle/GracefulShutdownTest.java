@@ -0,0 +1,158 @@
+package com.device.management.service.lifecycle;
+
+import com.device.management.service.DeviceHistoryUseCase;
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.health.DrainMode;
+import com.device.management.service.lifecycle.GracefulShutdown.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GracefulShutdownTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ApplicationContext context = mock(ApplicationContext.class);
+    private final List<Object> published = new CopyOnWriteArrayList<>();
+    private final DrainMode drainMode = new DrainMode(published::add);
+
+    @Test
+    @DisplayName("stop waits for the call in progress before flushing")
+    void stop_waitsForInFlightCall() throws Exception {
+        GracefulShutdown shutdown = shutdown(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DeviceUseCase delegate = mock(DeviceUseCase.class);
+        UUID id = UUID.randomUUID();
+        when(delegate.get(id)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        DeviceUseCase tracked = shutdown.track(delegate);
+        List<String> events = new CopyOnWriteArrayList<>();
+        shutdown.flushOnShutdown(Stage.WRITES, "writes", remaining -> events.add("flush"));
+
+        CompletableFuture<DeviceView> call = CompletableFuture.supplyAsync(() -> tracked.get(id))
+                .whenComplete((view, ex) -> events.add("call"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(release::countDown);
+        shutdown.stop();
+
+        call.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("call", "flush"), events);
+        assertEquals(1, registry.get("devices.shutdown").timer().count());
+    }
+
+    @Test
+    @DisplayName("stop also waits for a history call in progress")
+    void stop_waitsForInFlightHistoryCall() throws Exception {
+        GracefulShutdown shutdown = shutdown(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DeviceHistoryUseCase delegate = mock(DeviceHistoryUseCase.class);
+        UUID id = UUID.randomUUID();
+        when(delegate.history(id, null, 20)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        DeviceHistoryUseCase tracked = shutdown.track(delegate);
+        List<String> events = new CopyOnWriteArrayList<>();
+        shutdown.flushOnShutdown(Stage.LOGS, "slow-log", remaining -> events.add("flush"));
+
+        CompletableFuture<HistoryPage> call = CompletableFuture.supplyAsync(() -> tracked.history(id, null, 20))
+                .whenComplete((page, ex) -> events.add("call"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(release::countDown);
+        shutdown.stop();
+
+        call.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("call", "flush"), events);
+    }
+
+    @Test
+    @DisplayName("background work is flushed stage by stage, metrics last")
+    void stop_flushesInStageOrder() {
+        GracefulShutdown shutdown = shutdown(Duration.ofSeconds(5));
+        List<String> flushed = new CopyOnWriteArrayList<>();
+        shutdown.flushOnShutdown(Stage.METRICS, "metrics", remaining -> flushed.add("metrics"));
+        shutdown.flushOnShutdown(Stage.LOGS, "slow-log", remaining -> flushed.add("slow-log"));
+        shutdown.flushOnShutdown(Stage.WRITES, "group-commit", remaining -> {
+            throw new IllegalStateException("failed");
+        });
+        shutdown.flushOnShutdown(Stage.EXECUTORS, "query-executor", remaining -> {
+            assertTrue(remaining.compareTo(Duration.ofSeconds(5)) <= 0);
+            flushed.add("query-executor");
+        });
+
+        shutdown.stop();
+
+        assertEquals(List.of("query-executor", "slow-log", "metrics"), flushed);
+    }
+
+    @Test
+    @DisplayName("a call still running at the timeout does not hold up the flush")
+    void stop_givesUpAfterTimeout() throws Exception {
+        GracefulShutdown shutdown = shutdown(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DeviceUseCase delegate = mock(DeviceUseCase.class);
+        UUID id = UUID.randomUUID();
+        when(delegate.get(id)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        InFlightDeviceUseCase tracked = (InFlightDeviceUseCase) shutdown.track(delegate);
+        List<String> flushed = new CopyOnWriteArrayList<>();
+        shutdown.flushOnShutdown(Stage.LOGS, "slow-log", remaining -> flushed.add("slow-log"));
+
+        CompletableFuture<DeviceView> call = CompletableFuture.supplyAsync(() -> tracked.get(id));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        try {
+            shutdown.stop();
+
+            assertEquals(List.of("slow-log"), flushed);
+            assertEquals(1, tracked.inFlight());
+        } finally {
+            release.countDown();
+        }
+        call.get(5, TimeUnit.SECONDS);
+        assertEquals(0, tracked.inFlight());
+    }
+
+    @Test
+    @DisplayName("closing the context turns on drain mode")
+    void contextClosed_startsDraining() {
+        GracefulShutdown shutdown = shutdown(Duration.ofSeconds(5));
+
+        shutdown.onApplicationEvent(new ContextClosedEvent(mock(ApplicationContext.class)));
+        assertFalse(drainMode.isDraining());
+
+        shutdown.onApplicationEvent(new ContextClosedEvent(context));
+        assertTrue(drainMode.isDraining());
+        assertFalse(published.isEmpty());
+    }
+
+    private GracefulShutdown shutdown(Duration timeout) {
+        GracefulShutdown shutdown = new GracefulShutdown(context, drainMode, timeout, Duration.ZERO, registry);
+        shutdown.start();
+        return shutdown;
+    }
+}
@@ -0,0 +1,45 @@
+package com.device.management.service.partition;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PartitionMaintenanceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("maintain creates partitions for the configured months ahead and keeps old ones without retention")
+    void maintain_withoutRetention_onlyCreates() {
+        when(jdbcTemplate.queryForObject("SELECT devices_create_partitions(?)", Integer.class, 6)).thenReturn(2);
+
+        new PartitionMaintenance(jdbcTemplate, "devices", 6, null).maintain();
+
+        verify(jdbcTemplate).queryForObject("SELECT devices_create_partitions(?)", Integer.class, 6);
+        verify(jdbcTemplate, never()).queryForObject(contains("_drop_partitions"), eq(Integer.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("maintain drops partitions older than the retention period")
+    void maintain_withRetention_dropsExpired() {
+        when(jdbcTemplate.queryForObject("SELECT device_state_changes_create_partitions(?)", Integer.class, 3)).thenReturn(0);
+
+        new PartitionMaintenance(jdbcTemplate, "device_state_changes", 3, Duration.ofDays(30)).maintain();
+
+        verify(jdbcTemplate).queryForObject(
+                "SELECT device_state_changes_drop_partitions(CURRENT_TIMESTAMP - CAST(? AS BIGINT) * INTERVAL '1' SECOND)",
+                Integer.class, 2_592_000L);
+    }
+}
@@ -0,0 +1,158 @@
+package com.device.management.service.purge;
+
+import com.device.management.config.PurgeProperties;
+import com.device.management.postgres.TestPostgres;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * The purge batches on PostgreSQL, over the migrated schema.
+ */
+public class DevicePurgeJobTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = TestPostgres.newDatabase();
+        TestPostgres.flyway(dataSource, "classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO brands (name, brand_key) VALUES ('Purge', 'purge')");
+    }
+
+    @Test
+    @DisplayName("purge removes tombstones past retention in batches and keeps recent tombstones and live rows")
+    void purge_removesExpiredTombstonesInBatches() {
+        OffsetDateTime now = OffsetDateTime.now();
+        insert(now.minusDays(30));
+        insert(now.minusDays(20));
+        insert(now.minusDays(8));
+        insert(now.minusDays(1));
+        insert(null);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PurgeProperties properties = new PurgeProperties(true, Duration.ofDays(7), 2, Duration.ZERO, 100, Duration.ofMinutes(5));
+
+        new DevicePurgeJob(jdbcTemplate, null, properties, false, meterRegistry).purge();
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM devices", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM devices WHERE deleted_at IS NOT NULL", Integer.class));
+        assertEquals(3.0, meterRegistry.get("devices.purged").counter().count());
+    }
+
+    @Test
+    @DisplayName("purge stops after the maximum number of batches per run")
+    void purge_stopsAtMaxBatchesPerRun() {
+        OffsetDateTime now = OffsetDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            insert(now.minusDays(10 + i));
+        }
+        PurgeProperties properties = new PurgeProperties(true, Duration.ofDays(7), 2, Duration.ZERO, 1, Duration.ofMinutes(5));
+
+        new DevicePurgeJob(jdbcTemplate, null, properties, false, new SimpleMeterRegistry()).purge();
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM devices", Integer.class));
+    }
+
+    @Test
+    @DisplayName("purge skips tombstones locked by another instance's batch instead of waiting for it")
+    void purge_skipsLockedTombstones() throws Exception {
+        OffsetDateTime now = OffsetDateTime.now();
+        UUID oldest = insert(now.minusDays(30));
+        insert(now.minusDays(20));
+        insert(now.minusDays(10));
+        PurgeProperties properties = new PurgeProperties(true, Duration.ofDays(7), 2, Duration.ZERO, 100, Duration.ofMinutes(5));
+
+        try (Connection otherInstance = dataSource.getConnection()) {
+            otherInstance.setAutoCommit(false);
+            try (PreparedStatement lock = otherInstance.prepareStatement("SELECT id FROM devices WHERE id = ? FOR UPDATE")) {
+                lock.setObject(1, oldest);
+                lock.executeQuery().close();
+            }
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> new DevicePurgeJob(jdbcTemplate, null, properties, false, new SimpleMeterRegistry()).purge());
+
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM devices", Integer.class));
+            otherInstance.rollback();
+        }
+        assertEquals(oldest, jdbcTemplate.queryForObject("SELECT id FROM devices", UUID.class));
+    }
+
+    @Test
+    @DisplayName("with row-level security, tenants see no other tenant's tombstones and the purge removes every tenant's")
+    void purge_rowLevelSecurity_purgesEveryTenant() {
+        dataSource = TestPostgres.newDatabase("devices_app");
+        TestPostgres.flyway(dataSource, "classpath:db/migration")
+                .placeholders(Map.of("concurrently", "CONCURRENTLY", "row_level_security", "true"))
+                .load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        // The application role may switch to devices_purge, through devices_purge_switch, but holds none of its rights
+        assertEquals(Map.of("member", true, "usage", false), jdbcTemplate.queryForMap(
+                "SELECT pg_has_role('devices_purge', 'MEMBER') AS member, pg_has_role('devices_purge', 'USAGE') AS usage"));
+        jdbcTemplate.update("INSERT INTO brands (name, brand_key) VALUES ('Purge', 'purge')");
+        OffsetDateTime now = OffsetDateTime.now();
+        inTenant(transactionTemplate, "a", () -> insert("a", now.minusDays(30)));
+        inTenant(transactionTemplate, "b", () -> insert("b", now.minusDays(20)));
+        UUID recent = inTenant(transactionTemplate, "b", () -> insert("b", now.minusDays(1)));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM devices", Integer.class));
+        assertEquals(1, inTenant(transactionTemplate, "a", () -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM devices WHERE deleted_at IS NOT NULL", Integer.class)));
+        assertEquals(0, inTenant(transactionTemplate, "a",
+                () -> jdbcTemplate.update("DELETE FROM devices WHERE tenant_id = 'b'")));
+        PurgeProperties properties = new PurgeProperties(true, Duration.ofDays(7), 10, Duration.ZERO, 100, Duration.ofMinutes(5));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        new DevicePurgeJob(jdbcTemplate, transactionTemplate, properties, true, meterRegistry).purge();
+
+        assertEquals(2.0, meterRegistry.get("devices.purged").counter().count());
+        assertEquals(0, inTenant(transactionTemplate, "a",
+                () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM devices", Integer.class)));
+        assertEquals(recent, inTenant(transactionTemplate, "b",
+                () -> jdbcTemplate.queryForObject("SELECT id FROM devices", UUID.class)));
+    }
+
+    private <T> T inTenant(TransactionTemplate transactionTemplate, String tenant, Supplier<T> call) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT set_config('devices.tenant_id', ?, true)", String.class, tenant);
+            return call.get();
+        });
+    }
+
+    private UUID insert(String tenant, OffsetDateTime deletedAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO devices (id, name, brand_id, state, creation_time, version, deleted_at, tenant_id)
+                SELECT ?, 'Purge', id, 2, now(), 0, ?, ? FROM brands WHERE brand_key = 'purge'
+                """, id, deletedAt, tenant);
+        return id;
+    }
+
+    private UUID insert(OffsetDateTime deletedAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO devices (id, name, brand_id, state, creation_time, version, deleted_at)
+                SELECT ?, 'Purge', id, 2, now(), 0, ? FROM brands WHERE brand_key = 'purge'
+                """, id, deletedAt);
+        return id;
+    }
+}
@@ -0,0 +1,119 @@
+package com.device.management.service.slowlog;
+
+import com.device.management.service.DeviceHistoryUseCase;
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.DeviceFilter;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.dto.PageRequest;
+import com.device.management.service.dto.PageResult;
+import com.device.management.service.dto.SortOrder;
+import com.device.management.state.DeviceState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SlowOperationDeviceUseCaseTest {
+
+    private final BlockingQueue<Map<String, Object>> written = new LinkedBlockingQueue<>();
+    private DeviceUseCase delegate;
+    private SlowOperationLog log;
+
+    @BeforeEach
+    void setUp() {
+        delegate = Mockito.mock(DeviceUseCase.class);
+        log = new SlowOperationLog(10, true, null, new SimpleMeterRegistry(), (message, fields) -> written.add(fields));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        log.close();
+    }
+
+    @Test
+    @DisplayName("a slow list is logged with its bound filter, page, sort and row counts")
+    void list_slow_logsFilterAndRowCounts() throws InterruptedException {
+        DeviceView view = new DeviceView(UUID.randomUUID(), "Device", "Brand", DeviceState.AVAILABLE, OffsetDateTime.now());
+        DeviceFilter filter = new DeviceFilter("Brand", DeviceState.IN_USE);
+        PageRequest pageRequest = new PageRequest(2, 20, List.of(new SortOrder("name", SortOrder.Direction.DESC)));
+        when(delegate.list(filter, pageRequest)).thenReturn(new PageResult<>(List.of(view), 2, 20, 41, 3, false, true));
+
+        new SlowOperationDeviceUseCase(delegate, log, Duration.ZERO).list(filter, pageRequest);
+
+        Map<String, Object> fields = written.poll(5, TimeUnit.SECONDS);
+        assertNotNull(fields);
+        assertEquals("list", fields.get("operation"));
+        assertEquals("ok", fields.get("outcome"));
+        assertEquals("Brand", fields.get("brand"));
+        assertEquals(DeviceState.IN_USE, fields.get("state"));
+        assertEquals(2, fields.get("page"));
+        assertEquals(20, fields.get("size"));
+        assertEquals("name,desc", fields.get("sort"));
+        assertEquals(1, fields.get("items"));
+        assertEquals(41L, fields.get("total"));
+    }
+
+    @Test
+    @DisplayName("a failing slow call is logged with the exception as outcome and rethrown")
+    void get_slowFailure_logsOutcome() throws InterruptedException {
+        UUID id = UUID.randomUUID();
+        NoSuchElementException failure = new NoSuchElementException("Device not found: " + id);
+        when(delegate.get(id)).thenThrow(failure);
+
+        SlowOperationDeviceUseCase useCase = new SlowOperationDeviceUseCase(delegate, log, Duration.ZERO);
+        assertSame(failure, assertThrows(NoSuchElementException.class, () -> useCase.get(id)));
+
+        Map<String, Object> fields = written.poll(5, TimeUnit.SECONDS);
+        assertNotNull(fields);
+        assertEquals("get", fields.get("operation"));
+        assertEquals("NoSuchElementException", fields.get("outcome"));
+        assertEquals(id, fields.get("id"));
+    }
+
+    @Test
+    @DisplayName("a slow history read is logged with its device, cursor and page size")
+    void history_slow_logsArguments() throws InterruptedException {
+        UUID id = UUID.randomUUID();
+        DeviceHistoryUseCase history = Mockito.mock(DeviceHistoryUseCase.class);
+        when(history.history(id, "cursor", 50)).thenReturn(new HistoryPage(List.of(), null));
+
+        new SlowOperationDeviceHistoryUseCase(history, log, Duration.ZERO).history(id, "cursor", 50);
+
+        Map<String, Object> fields = written.poll(5, TimeUnit.SECONDS);
+        assertNotNull(fields);
+        assertEquals("history", fields.get("operation"));
+        assertEquals("ok", fields.get("outcome"));
+        assertEquals(id, fields.get("id"));
+        assertEquals("cursor", fields.get("cursor"));
+        assertEquals(50, fields.get("size"));
+        assertEquals(0, fields.get("items"));
+    }
+
+    @Test
+    @DisplayName("calls under the threshold are not logged")
+    void get_fast_notLogged() throws InterruptedException {
+        UUID id = UUID.randomUUID();
+        when(delegate.get(id)).thenReturn(new DeviceView(id, "Device", "Brand", DeviceState.AVAILABLE, OffsetDateTime.now()));
+
+        new SlowOperationDeviceUseCase(delegate, log, Duration.ofMinutes(1)).get(id);
+        log.close();
+
+        assertTrue(written.isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package com.device.management.service.slowlog;
+
+import com.device.management.service.slowlog.SlowOperationLog.SlowCall;
+import com.device.management.service.slowlog.SlowOperationLog.SlowStatement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowOperationLogTest {
+
+    @Test
+    @DisplayName("normalize replaces literals, folds parameter lists and collapses whitespace")
+    void normalize_foldsLiteralsAndLists() {
+        assertEquals("select d1_0.id from devices d1_0 where d1_0.state=? and d1_0.name=? and d1_0.id in (?) limit ?",
+                SlowOperationLog.normalize("select d1_0.id\n  from devices d1_0 where d1_0.state=2 and d1_0.name='it''s'"
+                        + " and d1_0.id in (?, ?,?) limit ?"));
+    }
+
+    @Test
+    @DisplayName("entries beyond the queue capacity are dropped and counted instead of blocking the caller")
+    void record_fullQueue_dropsWithoutBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SlowOperationLog log = new SlowOperationLog(2, true, null, meterRegistry, (message, fields) -> {
+            awaitQuietly(release);
+            written.add((String) fields.get("operation"));
+        });
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            accepted += log.record(call("call-" + i)) ? 1 : 0;
+        }
+        release.countDown();
+        log.close();
+
+        // the writer holds one entry while the queue fills up with two more
+        assertTrue(accepted >= 2 && accepted <= 3, "accepted " + accepted);
+        assertEquals(accepted, written.size());
+        assertEquals(10 - accepted, meterRegistry.get("devices.slow-log.dropped").counter().count());
+        assertEquals(10, meterRegistry.get("devices.slow-log.entries").tag("type", "operation").counter().count());
+    }
+
+    @Test
+    @DisplayName("a slow query is logged with its bound values and the plan of its EXPLAIN, once per interval")
+    void statement_withExplain_logsParametersAndPlan() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:slowlog;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS gadgets (id INT PRIMARY KEY, brand VARCHAR(64))");
+        }
+        List<Map<String, Object>> written = Collections.synchronizedList(new ArrayList<>());
+        SlowOperationLog log = new SlowOperationLog(10, true,
+                new StatementExplainer(() -> dataSource, Duration.ofHours(1)), new SimpleMeterRegistry(),
+                (message, fields) -> written.add(fields));
+
+        List<ParameterSetOperation> parameters = List.of(new ParameterSetOperation(
+                PreparedStatement.class.getMethod("setString", int.class, String.class), new Object[]{1, "Acme"}));
+        SlowStatement slow = new SlowStatement("select id  from gadgets where brand = ?", parameters, 1, null,
+                Duration.ofMillis(1200), "ok", null);
+        log.record(slow);
+        log.record(slow);
+        awaitSize(written, 2);
+        log.close();
+
+        Map<String, Object> first = written.getFirst();
+        assertEquals("select id from gadgets where brand = ?", first.get("query"));
+        assertEquals(1200L, first.get("durationMs"));
+        assertEquals("[Acme]", first.get("parameters"));
+        assertFalse(first.containsKey("rows"));
+        assertTrue(((String) first.get("plan")).toUpperCase().contains("GADGETS"), String.valueOf(first.get("plan")));
+        assertFalse(written.get(1).containsKey("plan"));
+    }
+
+    @Test
+    @DisplayName("rows sums the update counts of a statement or batch and is unknown for a query")
+    void rows_sumsUpdateCounts() {
+        assertEquals(3L, SlowStatementListener.rows(3));
+        assertEquals(5L, SlowStatementListener.rows(new int[]{2, Statement.SUCCESS_NO_INFO, 3}));
+        assertNull(SlowStatementListener.rows(null));
+    }
+
+    private static SlowCall call(String operation) {
+        return new SlowCall(operation, Duration.ofSeconds(1), Map.of(), "ok", null);
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (list.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, list.size());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.device.management.service.tenancy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantRateLimiterTest {
+
+    private long now;
+    private final TenantRateLimiter limiter = new TenantRateLimiter(2, 3, 100, () -> now);
+
+    @Test
+    @DisplayName("a tenant gets its burst at once, then permits at the configured rate")
+    void tryAcquire_burstThenRate() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("tenant-a"));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.tryAcquire("tenant-a"), 1_000);
+
+        now += TimeUnit.MILLISECONDS.toNanos(501);
+        assertEquals(0, limiter.tryAcquire("tenant-a"));
+        assertTrue(limiter.tryAcquire("tenant-a") > 0);
+
+        // Idle time refills up to the burst only
+        now += TimeUnit.SECONDS.toNanos(60);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("tenant-a"));
+        }
+        assertTrue(limiter.tryAcquire("tenant-a") > 0);
+    }
+
+    @Test
+    @DisplayName("one tenant using up its permits does not limit another")
+    void tryAcquire_tenantsIndependent() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("tenant-a");
+        }
+        assertTrue(limiter.tryAcquire("tenant-a") > 0);
+
+        assertEquals(0, limiter.tryAcquire("tenant-b"));
+    }
+
+    @Test
+    @DisplayName("many distinct tenants keep at most the configured number of buckets, the busy ones first")
+    void tryAcquire_manyTenants_bounded() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("tenant-a");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            now += 1_000;
+            limiter.tryAcquire("tenant-" + i);
+            // Still refilling, so its bucket is kept while idle buckets go
+            if (i % 50 == 0) {
+                assertTrue(limiter.tryAcquire("tenant-a") > 0);
+            }
+            assertTrue(limiter.tenants() <= 100, limiter.tenants() + " buckets");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.device.management.service.tracing;
+
+import com.device.management.service.DeviceHistoryUseCase;
+import com.device.management.service.DeviceUseCase;
+import com.device.management.service.dto.DeviceFilter;
+import com.device.management.service.dto.DeviceView;
+import com.device.management.service.dto.HistoryPage;
+import com.device.management.service.dto.PageRequest;
+import com.device.management.service.dto.PageResult;
+import com.device.management.service.dto.StateChangeView;
+import com.device.management.state.DeviceState;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TracingDeviceUseCaseTest {
+
+    private final List<Observation.Context> stopped = new ArrayList<>();
+    private ObservationRegistry registry;
+    private DeviceUseCase delegate;
+    private TracingDeviceUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        delegate = Mockito.mock(DeviceUseCase.class);
+        useCase = new TracingDeviceUseCase(delegate, registry);
+    }
+
+    @Test
+    @DisplayName("list is observed with its filter branch, page size and total")
+    void list_tagsFilterAndRowCounts() {
+        DeviceView view = new DeviceView(UUID.randomUUID(), "Device", "Brand", DeviceState.AVAILABLE, OffsetDateTime.now());
+        DeviceFilter filter = new DeviceFilter("Brand", DeviceState.AVAILABLE);
+        PageRequest pageRequest = new PageRequest(0, 20, List.of());
+        when(delegate.list(filter, pageRequest)).thenReturn(new PageResult<>(List.of(view, view), 0, 20, 42, 3, true, false));
+
+        assertEquals(42, useCase.list(filter, pageRequest).totalItems());
+
+        Observation.Context context = single();
+        assertEquals(TracingDeviceUseCase.NAME, context.getName());
+        assertEquals("DeviceUseCase#list", context.getContextualName());
+        assertEquals("list", context.getLowCardinalityKeyValue("devices.operation").getValue());
+        assertEquals("brand-state", context.getLowCardinalityKeyValue("devices.filter").getValue());
+        assertEquals("2", context.getHighCardinalityKeyValue("devices.items").getValue());
+        assertEquals("42", context.getHighCardinalityKeyValue("devices.total").getValue());
+    }
+
+    @Test
+    @DisplayName("a failing call is observed with its error and rethrown")
+    void get_recordsError() {
+        UUID id = UUID.randomUUID();
+        NoSuchElementException failure = new NoSuchElementException("Device not found: " + id);
+        when(delegate.get(id)).thenThrow(failure);
+
+        assertSame(failure, assertThrows(NoSuchElementException.class, () -> useCase.get(id)));
+
+        Observation.Context context = single();
+        assertEquals("get", context.getLowCardinalityKeyValue("devices.operation").getValue());
+        assertSame(failure, context.getError());
+    }
+
+    @Test
+    @DisplayName("history calls are observed under the same name, tagged with their operation")
+    void history_observedLikeDeviceCalls() {
+        UUID id = UUID.randomUUID();
+        DeviceHistoryUseCase history = Mockito.mock(DeviceHistoryUseCase.class);
+        when(history.history(id, null, 20)).thenReturn(new HistoryPage(
+                List.of(new StateChangeView(null, DeviceState.AVAILABLE, OffsetDateTime.now())), null));
+
+        new TracingDeviceHistoryUseCase(history, registry).history(id, null, 20);
+
+        Observation.Context context = single();
+        assertEquals(TracingDeviceUseCase.NAME, context.getName());
+        assertEquals("DeviceHistoryUseCase#history", context.getContextualName());
+        assertEquals("history", context.getLowCardinalityKeyValue("devices.operation").getValue());
+        assertEquals("1", context.getHighCardinalityKeyValue("devices.items").getValue());
+    }
+
+    @Test
+    @DisplayName("filterBranch names the repository query chosen for the filter")
+    void filterBranch_namesQuery() {
+        assertEquals("none", TracingDeviceUseCase.filterBranch(null));
+        assertEquals("none", TracingDeviceUseCase.filterBranch(new DeviceFilter(null, null)));
+        assertEquals("brand", TracingDeviceUseCase.filterBranch(new DeviceFilter("Brand", null)));
+        assertEquals("state", TracingDeviceUseCase.filterBranch(new DeviceFilter(null, DeviceState.IN_USE)));
+    }
+
+    private Observation.Context single() {
+        assertEquals(1, stopped.size());
+        return stopped.getFirst();
+    }
+}
@@ -0,0 +1,29 @@
+package com.device.management.sql;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers {@link SqlStatementCounter} with the data source proxy for a Spring Boot test, so that
+ * {@link SqlBudget} can measure the statements of service calls and MockMvc requests.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Import(CountSqlStatements.Listener.class)
+public @interface CountSqlStatements {
+
+    @TestConfiguration
+    class Listener {
+
+        @Bean
+        SqlStatementCounter sqlStatementCounter() {
+            return new SqlStatementCounter();
+        }
+    }
+}
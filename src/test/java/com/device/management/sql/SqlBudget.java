@@ -0,0 +1,72 @@
+package com.device.management.sql;
+
+import org.junit.jupiter.api.function.Executable;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Statement budget of one operation:
+ * {@code SqlBudget.of(() -> service.get(id)).selects(1).total(1);}. Each assertion fails with the recorded
+ * statements listed, so an unexpected N+1 or extra reload shows up in the message.
+ */
+public final class SqlBudget {
+
+    private final SqlStatements statements;
+
+    private SqlBudget(SqlStatements statements) {
+        this.statements = statements;
+    }
+
+    /**
+     * Runs the action and records the statements it issues. Exceptions propagate; wrap the action in
+     * {@code assertThrows} to budget a failing call.
+     */
+    public static SqlBudget of(Executable action) throws Throwable {
+        SqlStatementCounter.reset();
+        action.execute();
+        return new SqlBudget(SqlStatementCounter.snapshot());
+    }
+
+    public SqlBudget selects(int expected) {
+        return exactly(SqlStatements.Type.SELECT, expected);
+    }
+
+    public SqlBudget inserts(int expected) {
+        return exactly(SqlStatements.Type.INSERT, expected);
+    }
+
+    public SqlBudget updates(int expected) {
+        return exactly(SqlStatements.Type.UPDATE, expected);
+    }
+
+    public SqlBudget deletes(int expected) {
+        return exactly(SqlStatements.Type.DELETE, expected);
+    }
+
+    public SqlBudget total(int expected) {
+        if (statements.total() != expected) {
+            throw new AssertionFailedError("Expected " + expected + " statement(s) but got " + statements,
+                    expected, statements.total());
+        }
+        return this;
+    }
+
+    public SqlBudget atMost(int limit) {
+        if (statements.total() > limit) {
+            throw new AssertionFailedError("Expected at most " + limit + " statement(s) but got " + statements);
+        }
+        return this;
+    }
+
+    public SqlStatements statements() {
+        return statements;
+    }
+
+    private SqlBudget exactly(SqlStatements.Type type, int expected) {
+        int actual = statements.count(type);
+        if (actual != expected) {
+            throw new AssertionFailedError("Expected " + expected + " " + type + " but got " + actual + " of "
+                    + statements, expected, actual);
+        }
+        return this;
+    }
+}
@@ -0,0 +1,42 @@
+package com.device.management.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * datasource-proxy listener that records every SQL statement executed on the application's data source,
+ * process-wide: Hibernate's as well as those issued through {@code JdbcTemplate}. Registered as a bean by
+ * {@link CountSqlStatements}, which datasource-micrometer attaches to the proxy. A JDBC batch of one prepared
+ * statement counts as one statement however many rows it carries.
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        synchronized (STATEMENTS) {
+            queryInfoList.forEach(query -> STATEMENTS.add(query.getQuery()));
+        }
+    }
+
+    public static void reset() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    public static SqlStatements snapshot() {
+        synchronized (STATEMENTS) {
+            return new SqlStatements(List.copyOf(STATEMENTS));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.device.management.sql;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * SQL statements recorded while an action ran, in order.
+ */
+public record SqlStatements(List<String> sql) {
+
+    public enum Type {
+        SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+        static Type of(String sql) {
+            String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+            // Hibernate may prefix a comment; CTEs are read-only in this application
+            if (statement.startsWith("/*")) {
+                statement = statement.substring(statement.indexOf("*/") + 2).stripLeading();
+            }
+            if (statement.startsWith("select") || statement.startsWith("with")) {
+                return SELECT;
+            }
+            if (statement.startsWith("insert")) {
+                return INSERT;
+            }
+            if (statement.startsWith("update")) {
+                return UPDATE;
+            }
+            if (statement.startsWith("delete")) {
+                return DELETE;
+            }
+            return OTHER;
+        }
+    }
+
+    public int total() {
+        return sql.size();
+    }
+
+    public int count(Type type) {
+        return (int) sql.stream().filter(statement -> Type.of(statement) == type).count();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder listing = new StringBuilder();
+        for (int i = 0; i < sql.size(); i++) {
+            listing.append(String.format("%n  %d. [%s] %s", i + 1, Type.of(sql.get(i)), sql.get(i)));
+        }
+        return sql.size() + " statement(s)" + listing;
+    }
+}